@@ -1,11 +1,38 @@
 package com.metro;
 
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.CompiledNetwork;
+import com.metro.algorithm.DeltaSteppingBenchmark;
+import com.metro.algorithm.MetroPathFinder;
+import com.metro.analytics.DisruptionAnalyzer;
+import com.metro.analytics.NetworkAnalytics;
+import com.metro.batch.BatchRouter;
 import com.metro.gui.MetroGUI;
+import com.metro.gui.MetroMapRenderer;
+import com.metro.gui.RouteImageExporter;
+import com.metro.metrics.MetricsRegistry;
+import com.metro.registry.NetworkRegistry;
+import com.metro.reload.NetworkReloader;
+import com.metro.server.LoadGenerator;
+import com.metro.server.MetroHttpServer;
 import com.metro.utils.LoggerUtil;
+import com.metro.utils.ResourceLoader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.swing.*;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * Main class of Metro Navigator application.
@@ -14,18 +41,78 @@ public class Main {
 
     private static final Logger logger = LogManager.getLogger(Main.class);
 
+    /** Id of the bundled network when several networks are served. */
+    private static final String DEFAULT_NETWORK = "default";
+
     /**
      * Application entry point.
+     * Without arguments starts the GUI; {@code --watch <dir>} makes it follow
+     * changes of metro.txt and stations.txt in that directory. Headless modes:
+     * <ul>
+     *     <li>{@code --render-routes <pairs file> <output dir>} - export route PNGs</li>
+     *     <li>{@code --server [port] [--watch <dir> | --networks <dir>]} - run HTTP
+     *     routing service, optionally reloading the network when its files change
+     *     or serving every subdirectory with a metro.txt as a network</li>
+     *     <li>{@code --loadtest [host:port] [--connections N] [--seconds N] [--warmup N]}
+     *     - drive {@code /route} with keep-alive clients and report req/s and p99;
+     *     without a target an in-process server is started</li>
+     *     <li>{@code --batch [--json] [--threads N] [--in-flight N] [input|-] [output|-]}
+     *     - route origin-destination pairs from file or stdin</li>
+     *     <li>{@code --analytics [stations.csv|-] [edges.csv]} - centrality report</li>
+     *     <li>{@code --disruptions [output.csv|-]} - delay impact of every tunnel and station closure</li>
+     *     <li>{@code --benchmark-sssp [--side N] [--runs N] [--threads N]} - compare
+     *     parallel delta-stepping with Dijkstra on a generated grid</li>
+     *     <li>{@code --compile-network <matrix> <stations> <output>} - write binary network
+     *     snapshot (used by the build)</li>
+     * </ul>
      *
-     * @param args command line arguments (not used)
+     * @param args command line arguments
      */
     public static void main(String[] args) {
+        try {
+            MetricsRegistry.registerMBean();
+        } catch (Exception e) {
+            logger.warn("Metrics MBean not registered: {}", e.getMessage());
+        }
+
+        if (args.length > 0 && "--render-routes".equals(args[0])) {
+            System.exit(runRenderRoutes(args));
+        }
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            System.exit(runBatch(args));
+        }
+        if (args.length > 0 && "--analytics".equals(args[0])) {
+            System.exit(runAnalytics(args));
+        }
+        if (args.length > 0 && "--disruptions".equals(args[0])) {
+            System.exit(runDisruptions(args));
+        }
+        if (args.length > 0 && "--benchmark-sssp".equals(args[0])) {
+            System.exit(runSsspBenchmark(args));
+        }
+        if (args.length > 0 && "--compile-network".equals(args[0])) {
+            System.exit(runCompileNetwork(args));
+        }
+        if (args.length > 0 && "--loadtest".equals(args[0])) {
+            System.exit(runLoadTest(args));
+        }
+        if (args.length > 0 && "--server".equals(args[0])) {
+            runServer(args);
+            return;
+        }
+
         try {
             logger.info("Starting Metro Navigator application");
 
+            NetworkReloader reloader = null;
+            if (args.length == 2 && "--watch".equals(args[0])) {
+                reloader = startReloader(args[1]);
+            }
+            NetworkReloader guiReloader = reloader;
+
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new MetroGUI();
+                    new MetroGUI(guiReloader);
                     logger.info("GUI successfully initialized");
                 } catch (Exception e) {
                     logger.error("Error creating GUI: {}", e.getMessage(), e);
@@ -47,4 +134,418 @@ public class Main {
             System.exit(1);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Renders route images for all pairs in file without opening a window.
+     *
+     * @param args {@code --render-routes <pairs file> <output dir>}
+     * @return process exit code
+     */
+    private static int runRenderRoutes(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: --render-routes <pairs file> <output dir>");
+            return 2;
+        }
+
+        System.setProperty("java.awt.headless", "true");
+
+        try {
+            List<MetroGUI.Station> stations = ResourceLoader.loadStations();
+            MetroMapRenderer.initializeSimpleTextOffsets(stations);
+
+            RouteImageExporter exporter = new RouteImageExporter(
+                    new MetroPathFinder("metro.txt"),
+                    new MetroMapRenderer(stations)
+            );
+
+            List<String[]> pairs = RouteImageExporter.readPairs(Paths.get(args[1]));
+            int written = exporter.exportAll(pairs, Paths.get(args[2]),
+                    Runtime.getRuntime().availableProcessors());
+
+            System.out.println("Exported " + written + " of " + pairs.size() + " route images");
+            return 0;
+        } catch (Exception e) {
+            logger.error("Route image export failed: {}", e.getMessage(), e);
+            System.err.println("Route image export failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Starts HTTP routing service and keeps it running until JVM shutdown.
+     *
+     * @param args {@code --server [port] [--watch <dir> | --networks <dir>]}
+     */
+    private static void runServer(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        int port = MetroHttpServer.DEFAULT_PORT;
+        String watchDirectory = null;
+        String networksDirectory = null;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if ("--watch".equals(args[i])) {
+                    watchDirectory = args[++i];
+                } else if ("--networks".equals(args[i])) {
+                    networksDirectory = args[++i];
+                } else {
+                    port = Integer.parseInt(args[i]);
+                }
+            }
+            if (watchDirectory != null && networksDirectory != null) {
+                throw new IllegalArgumentException("--watch and --networks cannot be combined");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: --server [port] [--watch <dir> | --networks <dir>]");
+            System.exit(2);
+        }
+
+        try {
+            NetworkReloader reloader = watchDirectory != null ? startReloader(watchDirectory) : null;
+            MetroHttpServer server;
+            if (networksDirectory != null) {
+                server = new MetroHttpServer(registerNetworks(networksDirectory), DEFAULT_NETWORK, port);
+            } else if (reloader != null) {
+                server = new MetroHttpServer(reloader::getPathFinder, port);
+            } else {
+                server = new MetroHttpServer(new MetroPathFinder("metro.txt"), port);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            server.start();
+        } catch (Exception e) {
+            logger.error("Failed to start HTTP routing service: {}", e.getMessage(), e);
+            System.err.println("Failed to start HTTP routing service: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Registers bundled network as "default" and every subdirectory that
+     * has a metro.txt under its own name; nothing is loaded yet.
+     *
+     * @param directory directory with one subdirectory per network
+     * @return registry with memory budget from {@code metro.registry.budgetMb}
+     * @throws IOException if directory cannot be listed
+     */
+    private static NetworkRegistry registerNetworks(String directory) throws IOException {
+        NetworkRegistry registry = new NetworkRegistry();
+        registry.register(DEFAULT_NETWORK, "metro.txt", "stations.txt");
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(Paths.get(directory))) {
+            for (Path entry : entries) {
+                Path matrixFile = entry.resolve("metro.txt");
+                if (Files.isRegularFile(matrixFile)) {
+                    registry.register(entry.getFileName().toString(),
+                            matrixFile.toAbsolutePath().toString(),
+                            entry.resolve("stations.txt").toAbsolutePath().toString());
+                }
+            }
+        }
+        logger.info("Networks registered: {}", registry.getNetworkIds());
+        return registry;
+    }
+
+    /**
+     * Loads network from metro.txt and stations.txt in directory and starts
+     * watching them.
+     *
+     * @param directory directory with network files
+     * @return started reloader, or null if metro.txt is not there
+     * @throws Exception if files are invalid or cannot be watched
+     */
+    private static NetworkReloader startReloader(String directory) throws Exception {
+        Path matrixFile = Paths.get(directory, "metro.txt");
+        if (!Files.isRegularFile(matrixFile)) {
+            logger.warn("{} not found, network changes will not be picked up", matrixFile);
+            return null;
+        }
+        NetworkReloader reloader = new NetworkReloader(matrixFile, Paths.get(directory, "stations.txt"));
+        reloader.start();
+        return reloader;
+    }
+
+    /**
+     * Measures throughput and latency of the {@code /route} endpoint.
+     * Station names come from the bundled network, so a remote target must
+     * serve the same network.
+     *
+     * @param args {@code --loadtest [host:port] [--connections N] [--seconds N] [--warmup N]}
+     * @return process exit code
+     */
+    private static int runLoadTest(String[] args) {
+        String target = null;
+        int connections = 64;
+        int seconds = 10;
+        int warmup = 5;
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--connections":
+                        connections = Integer.parseInt(args[++i]);
+                        break;
+                    case "--seconds":
+                        seconds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--warmup":
+                        warmup = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        if (target != null || args[i].lastIndexOf(':') <= 0) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        target = args[i];
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: --loadtest [host:port] [--connections N] [--seconds N] [--warmup N]");
+            return 2;
+        }
+
+        System.setProperty("java.awt.headless", "true");
+
+        MetroHttpServer server = null;
+        try {
+            MetroPathFinder pathFinder = new MetroPathFinder("metro.txt");
+            String host;
+            int port;
+            if (target == null) {
+                server = new MetroHttpServer(pathFinder, 0);
+                server.start();
+                host = "localhost";
+                port = server.getPort();
+            } else {
+                int colon = target.lastIndexOf(':');
+                host = target.substring(0, colon);
+                port = Integer.parseInt(target.substring(colon + 1));
+            }
+
+            System.err.println("Load test of http://" + host + ":" + port + "/route with "
+                    + connections + " connections, " + warmup + " s warm-up, " + seconds + " s measured");
+            LoadGenerator generator = new LoadGenerator(host, port, pathFinder.getAllStations(),
+                    connections, 42);
+            LoadGenerator.Result result = generator.run(warmup * 1000L, seconds * 1000L);
+            System.out.println(result);
+            return result.getErrors() == 0 ? 0 : 1;
+        } catch (Exception e) {
+            logger.error("Load test failed: {}", e.getMessage(), e);
+            System.err.println("Load test failed: " + e.getMessage());
+            return 1;
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    /**
+     * Times one-to-all delta-stepping against Dijkstra on a generated grid,
+     * with 1, 2, 4, ... up to the given number of threads.
+     *
+     * @param args {@code --benchmark-sssp [--side N] [--runs N] [--threads N]}
+     * @return process exit code
+     */
+    private static int runSsspBenchmark(String[] args) {
+        int side = 700;
+        int runs = 5;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--side":
+                        side = Integer.parseInt(args[++i]);
+                        break;
+                    case "--runs":
+                        runs = Integer.parseInt(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+            if (side < 2 || runs < 1 || threads < 1) {
+                throw new IllegalArgumentException("Values must be positive");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: --benchmark-sssp [--side N] [--runs N] [--threads N]");
+            return 2;
+        }
+
+        try {
+            CompactGraph graph = DeltaSteppingBenchmark.grid(side, 9);
+            for (int n = 1; ; n = Math.min(n * 2, threads)) {
+                System.out.println(DeltaSteppingBenchmark.run(graph, n, runs, 42));
+                if (n == threads) break;
+            }
+            return 0;
+        } catch (RuntimeException e) {
+            logger.error("Benchmark failed: {}", e.getMessage(), e);
+            System.err.println("Benchmark failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Streams origin-destination pairs through the router and prints throughput to stderr.
+     *
+     * @param args {@code --batch [--json] [--threads N] [--in-flight N] [input|-] [output|-]}
+     * @return process exit code
+     */
+    private static int runBatch(String[] args) {
+        BatchRouter.Format format = BatchRouter.Format.CSV;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int inFlight = 0;
+        String input = "-";
+        String output = "-";
+        int positional = 0;
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--json":
+                        format = BatchRouter.Format.JSON;
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--in-flight":
+                        inFlight = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        if (positional == 0) {
+                            input = args[i];
+                        } else if (positional == 1) {
+                            output = args[i];
+                        } else {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        positional++;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: --batch [--json] [--threads N] [--in-flight N] [input|-] [output|-]");
+            return 2;
+        }
+
+        if (inFlight <= 0) {
+            inFlight = threads * 256;
+        }
+
+        System.setProperty("java.awt.headless", "true");
+
+        try (BufferedReader reader = "-".equals(input)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8);
+             BufferedWriter writer = "-".equals(output)
+                     ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+                     : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+
+            BatchRouter router = new BatchRouter(new MetroPathFinder("metro.txt"), format, threads, inFlight);
+            BatchRouter.Stats stats = router.run(reader, writer);
+
+            System.err.println("Routed " + stats);
+            return 0;
+        } catch (Exception e) {
+            logger.error("Batch routing failed: {}", e.getMessage(), e);
+            System.err.println("Batch routing failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Computes centrality measures of the network and writes CSV reports.
+     *
+     * @param args {@code --analytics [stations.csv|-] [edges.csv]}
+     * @return process exit code
+     */
+    private static int runAnalytics(String[] args) {
+        if (args.length > 3) {
+            System.err.println("Usage: --analytics [stations.csv|-] [edges.csv]");
+            return 2;
+        }
+
+        System.setProperty("java.awt.headless", "true");
+        String stationsOutput = args.length > 1 ? args[1] : "-";
+
+        try {
+            MetroPathFinder pathFinder = new MetroPathFinder("metro.txt");
+            NetworkAnalytics.Report report = new NetworkAnalytics(pathFinder.getGraph()).compute();
+
+            try (BufferedWriter writer = "-".equals(stationsOutput)
+                    ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                    : Files.newBufferedWriter(Paths.get(stationsOutput), StandardCharsets.UTF_8)) {
+                report.writeStationCsv(pathFinder.getStationTable(), writer);
+            }
+            if (args.length > 2) {
+                try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(args[2]), StandardCharsets.UTF_8)) {
+                    report.writeEdgeCsv(pathFinder.getStationTable(), writer);
+                }
+            }
+
+            System.err.println("Network diameter: " + report.getDiameter() + " min");
+            return 0;
+        } catch (Exception e) {
+            logger.error("Network analytics failed: {}", e.getMessage(), e);
+            System.err.println("Network analytics failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Evaluates every single tunnel and station closure and writes CSV report.
+     *
+     * @param args {@code --disruptions [output.csv|-]}
+     * @return process exit code
+     */
+    private static int runDisruptions(String[] args) {
+        if (args.length > 2) {
+            System.err.println("Usage: --disruptions [output.csv|-]");
+            return 2;
+        }
+
+        System.setProperty("java.awt.headless", "true");
+        String output = args.length > 1 ? args[1] : "-";
+
+        try {
+            MetroPathFinder pathFinder = new MetroPathFinder("metro.txt");
+            DisruptionAnalyzer analyzer = new DisruptionAnalyzer(pathFinder.getGraph());
+
+            try (BufferedWriter writer = "-".equals(output)
+                    ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                    : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+                analyzer.writeCsv(pathFinder.getStationTable(), writer);
+            }
+            return 0;
+        } catch (Exception e) {
+            logger.error("Disruption analysis failed: {}", e.getMessage(), e);
+            System.err.println("Disruption analysis failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Parses network files and writes compiled snapshot for fast startup.
+     *
+     * @param args {@code --compile-network <matrix> <stations> <output>}
+     * @return process exit code
+     */
+    private static int runCompileNetwork(String[] args) {
+        if (args.length != 4) {
+            System.err.println("Usage: --compile-network <matrix> <stations> <output>");
+            return 2;
+        }
+
+        System.setProperty("java.awt.headless", "true");
+
+        try (OutputStream output = Files.newOutputStream(Paths.get(args[3]))) {
+            CompiledNetwork.compile(args[1], args[2], output);
+            return 0;
+        } catch (Exception e) {
+            logger.error("Network compilation failed: {}", e.getMessage(), e);
+            System.err.println("Network compilation failed: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.metro.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Immutable adjacency-array (CSR) view of the network: outgoing edges of
+ * station {@code v} are {@code firstEdge(v) .. firstEdge(v + 1) - 1}.
+ * Built once from the adjacency matrix so searches touch only real edges.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class CompactGraph {
+
+    private final int[] edgeOffsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    private CompactGraph(int[] edgeOffsets, int[] targets, int[] weights) {
+        this.edgeOffsets = edgeOffsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds graph from adjacency matrix, skipping self-loops and missing edges.
+     *
+     * @param matrix square weight matrix
+     * @param noEdge weight that marks a missing edge
+     * @return compact graph
+     */
+    static CompactGraph fromMatrix(int[][] matrix, int noEdge) {
+        int size = matrix.length;
+        int[] offsets = new int[size + 1];
+        for (int u = 0; u < size; u++) {
+            int degree = 0;
+            for (int v = 0; v < size; v++) {
+                if (u != v && matrix[u][v] != noEdge) degree++;
+            }
+            offsets[u + 1] = offsets[u] + degree;
+        }
+
+        int[] targets = new int[offsets[size]];
+        int[] weights = new int[offsets[size]];
+        for (int u = 0, e = 0; u < size; u++) {
+            for (int v = 0; v < size; v++) {
+                if (u != v && matrix[u][v] != noEdge) {
+                    targets[e] = v;
+                    weights[e] = matrix[u][v];
+                    e++;
+                }
+            }
+        }
+        return new CompactGraph(offsets, targets, weights);
+    }
+
+    /**
+     * Restores graph from its arrays, e.g. of a compiled network.
+     *
+     * @throws IllegalArgumentException if arrays are inconsistent
+     */
+    static CompactGraph fromArrays(int[] edgeOffsets, int[] targets, int[] weights) {
+        int size = edgeOffsets.length - 1;
+        if (size < 0 || edgeOffsets[0] != 0 || edgeOffsets[size] != targets.length
+                || targets.length != weights.length) {
+            throw new IllegalArgumentException("Inconsistent graph arrays");
+        }
+        for (int v = 0; v < size; v++) {
+            if (edgeOffsets[v] > edgeOffsets[v + 1]) {
+                throw new IllegalArgumentException("Inconsistent graph arrays");
+            }
+        }
+        for (int e = 0; e < targets.length; e++) {
+            if (targets[e] < 0 || targets[e] >= size || weights[e] < 0) {
+                throw new IllegalArgumentException("Invalid edge " + e);
+            }
+        }
+        return new CompactGraph(edgeOffsets, targets, weights);
+    }
+
+    /**
+     * Builds graph from edge lists, e.g. for generated networks that are
+     * too large for an adjacency matrix.
+     *
+     * @param size number of stations
+     * @param from edge sources
+     * @param to edge targets
+     * @param weights edge travel times (non-negative)
+     * @return compact graph
+     * @throws IllegalArgumentException if arrays differ in length or values are out of range
+     */
+    public static CompactGraph fromEdges(int size, int[] from, int[] to, int[] weights) {
+        if (from.length != to.length || from.length != weights.length) {
+            throw new IllegalArgumentException("Edge arrays must have equal length");
+        }
+        int[] offsets = new int[size + 1];
+        for (int e = 0; e < from.length; e++) {
+            if (from[e] < 0 || from[e] >= size || to[e] < 0 || to[e] >= size || weights[e] < 0) {
+                throw new IllegalArgumentException("Invalid edge " + from[e] + " -> " + to[e]);
+            }
+            offsets[from[e] + 1]++;
+        }
+        for (int v = 0; v < size; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] targets = new int[from.length];
+        int[] edgeWeights = new int[from.length];
+        int[] fill = Arrays.copyOf(offsets, size);
+        for (int e = 0; e < from.length; e++) {
+            int slot = fill[from[e]]++;
+            targets[slot] = to[e];
+            edgeWeights[slot] = weights[e];
+        }
+        return new CompactGraph(offsets, targets, edgeWeights);
+    }
+
+    /**
+     * Returns graph with the same topology and other travel times. Offsets
+     * and targets are shared, so only the weight array is allocated.
+     *
+     * @param edgeWeights travel time per edge, indexed like {@link #weight(int)}
+     * @return graph sharing topology with this one
+     * @throws IllegalArgumentException if length differs or a weight is negative
+     */
+    public CompactGraph withWeights(int[] edgeWeights) {
+        if (edgeWeights.length != targets.length) {
+            throw new IllegalArgumentException("Expected " + targets.length + " weights, got " + edgeWeights.length);
+        }
+        for (int weight : edgeWeights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight: " + weight);
+            }
+        }
+        return new CompactGraph(edgeOffsets, targets, edgeWeights.clone());
+    }
+
+    /**
+     * Checks whether both graphs share the same offsets and targets arrays.
+     *
+     * @param other graph to compare
+     * @return true if other was derived with {@link #withWeights(int[])}
+     */
+    public boolean sharesTopology(CompactGraph other) {
+        return edgeOffsets == other.edgeOffsets && targets == other.targets;
+    }
+
+    /**
+     * Returns subgraph induced by stations: local id {@code i} is
+     * {@code stations[i]}, only edges between listed stations are kept.
+     *
+     * @param stations global ids of distinct stations
+     * @return subgraph over local ids
+     */
+    public CompactGraph induced(int[] stations) {
+        int[] localIds = new int[size()];
+        Arrays.fill(localIds, -1);
+        for (int i = 0; i < stations.length; i++) {
+            localIds[stations[i]] = i;
+        }
+
+        int[] offsets = new int[stations.length + 1];
+        for (int i = 0; i < stations.length; i++) {
+            int degree = 0;
+            for (int e = edgeOffsets[stations[i]]; e < edgeOffsets[stations[i] + 1]; e++) {
+                if (localIds[targets[e]] >= 0) degree++;
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+
+        int[] localTargets = new int[offsets[stations.length]];
+        int[] localWeights = new int[offsets[stations.length]];
+        for (int i = 0, slot = 0; i < stations.length; i++) {
+            for (int e = edgeOffsets[stations[i]]; e < edgeOffsets[stations[i] + 1]; e++) {
+                if (localIds[targets[e]] >= 0) {
+                    localTargets[slot] = localIds[targets[e]];
+                    localWeights[slot] = weights[e];
+                    slot++;
+                }
+            }
+        }
+        return new CompactGraph(offsets, localTargets, localWeights);
+    }
+
+    /**
+     * Returns graph with every edge reversed, for searches towards a station.
+     *
+     * @return reversed graph
+     */
+    public CompactGraph reverse() {
+        int size = size();
+        int[] offsets = new int[size + 1];
+        for (int target : targets) {
+            offsets[target + 1]++;
+        }
+        for (int v = 0; v < size; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] reversedTargets = new int[targets.length];
+        int[] reversedWeights = new int[targets.length];
+        int[] fill = Arrays.copyOf(offsets, size);
+        for (int u = 0; u < size; u++) {
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int slot = fill[targets[e]]++;
+                reversedTargets[slot] = u;
+                reversedWeights[slot] = weights[e];
+            }
+        }
+        return new CompactGraph(offsets, reversedTargets, reversedWeights);
+    }
+
+    /**
+     * Returns hash of structure and weights; used to check that data
+     * precomputed for a network (e.g. stored labels) still matches it.
+     *
+     * @return graph fingerprint
+     */
+    public long fingerprint() {
+        long hash = 1125899906842597L;
+        for (int value : edgeOffsets) hash = 31 * hash + value;
+        for (int value : targets) hash = 31 * hash + value;
+        for (int value : weights) hash = 31 * hash + value;
+        return hash;
+    }
+
+    /** Returns offsets array (shared, must not be modified). */
+    int[] edgeOffsets() {
+        return edgeOffsets;
+    }
+
+    /** Returns targets array (shared, must not be modified). */
+    int[] targets() {
+        return targets;
+    }
+
+    /** Returns weights array (shared, must not be modified). */
+    int[] weights() {
+        return weights;
+    }
+
+    /** Returns number of stations. */
+    public int size() {
+        return edgeOffsets.length - 1;
+    }
+
+    /** Returns number of directed edges. */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns index of first outgoing edge of station; edges of station
+     * {@code v} end at {@code firstEdge(v + 1)}.
+     *
+     * @param station station id, or {@code size()} for the end of the last station
+     * @return edge index
+     */
+    public int firstEdge(int station) {
+        return edgeOffsets[station];
+    }
+
+    /**
+     * Finds edge between two stations.
+     *
+     * @param from source station id
+     * @param to target station id
+     * @return edge index, or -1 if stations are not adjacent
+     */
+    public int edgeIndex(int from, int to) {
+        for (int e = edgeOffsets[from]; e < edgeOffsets[from + 1]; e++) {
+            if (targets[e] == to) return e;
+        }
+        return -1;
+    }
+
+    /** Returns target station of edge. */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /** Returns travel time of edge in minutes. */
+    public int weight(int edge) {
+        return weights[edge];
+    }
+}
@@ -0,0 +1,185 @@
+package com.metro.algorithm;
+
+import com.metro.utils.ResourceLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a parsed network: station names, line codes, the
+ * adjacency-array graph and ALT landmark tables. Built at packaging time
+ * next to the matrix resource ({@code metro.txt} &rarr;
+ * {@code metro.txt.snapshot}) so that startup reads a few int arrays
+ * instead of parsing text and running landmark searches.
+ *
+ * <p>The snapshot stores a CRC32 of the matrix and stations files it was
+ * compiled from. A snapshot whose sources changed, or that cannot be
+ * read, is ignored and the network is parsed as usual.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class CompiledNetwork {
+
+    private static final Logger logger = LogManager.getLogger(CompiledNetwork.class);
+
+    private static final int MAGIC = 0x4D4E5331; // "MNS1"
+
+    /** Suffix appended to the matrix resource name. */
+    public static final String SUFFIX = ".snapshot";
+
+    final List<String> stations;
+    final int[] lines;
+    final CompactGraph graph;
+    private final int[] landmarks;
+    private final int[] fromLandmark;
+    private final int[] toLandmark;
+
+    private CompiledNetwork(List<String> stations, int[] lines, CompactGraph graph,
+                            int[] landmarks, int[] fromLandmark, int[] toLandmark) {
+        this.stations = stations;
+        this.lines = lines;
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Parses network files and writes snapshot. Landmark tables are built
+     * with the current {@code metro.alt.landmarks} setting.
+     *
+     * @param fileName matrix resource name or file path
+     * @param stationsFileName stations resource name or file path
+     * @param output target stream (flushed, not closed)
+     * @throws Exception if files cannot be parsed or writing fails
+     */
+    public static void compile(String fileName, String stationsFileName, OutputStream output) throws Exception {
+        MetroPathFinder pathFinder = new MetroPathFinder(fileName, stationsFileName, false);
+        WeightProfile profile = pathFinder.getProfile(MetroPathFinder.DEFAULT_PROFILE);
+        CompactGraph graph = profile.getGraph();
+        LandmarkIndex landmarkIndex = profile.getLandmarkIndex();
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+        data.writeInt(MAGIC);
+        data.writeLong(checksum(fileName, stationsFileName));
+        List<String> names = pathFinder.getAllStations();
+        data.writeInt(names.size());
+        for (String name : names) {
+            data.writeUTF(name);
+        }
+        writeArray(data, pathFinder.getLineCodes());
+        writeArray(data, graph.edgeOffsets());
+        writeArray(data, graph.targets());
+        writeArray(data, graph.weights());
+        writeArray(data, landmarkIndex != null ? landmarkIndex.getLandmarks() : new int[0]);
+        writeArray(data, landmarkIndex != null ? landmarkIndex.fromTable() : new int[0]);
+        writeArray(data, landmarkIndex != null ? landmarkIndex.toTable() : new int[0]);
+        data.flush();
+    }
+
+    /**
+     * Reads snapshot compiled for network files.
+     *
+     * @return snapshot, or null if there is none, it is stale or unreadable
+     */
+    static CompiledNetwork find(String fileName, String stationsFileName) {
+        byte[] bytes = ResourceLoader.readBytes(fileName + SUFFIX);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Not a network snapshot");
+            }
+            if (data.readLong() != checksum(fileName, stationsFileName)) {
+                logger.warn("Snapshot {}{} is out of date, parsing network", fileName, SUFFIX);
+                return null;
+            }
+
+            int size = data.readInt();
+            if (size < 0 || size > bytes.length) {
+                throw new IOException("Corrupted network snapshot");
+            }
+            List<String> names = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                names.add(data.readUTF());
+            }
+            int[] lines = readArray(data, size);
+            int[] offsets = readArray(data, size + 1);
+            int[] targets = readArray(data, offsets[size]);
+            int[] weights = readArray(data, offsets[size]);
+            CompactGraph graph = CompactGraph.fromArrays(offsets, targets, weights);
+            int[] landmarks = readArray(data, -1);
+            int[] fromTable = readArray(data, size * landmarks.length);
+            int[] toTable = readArray(data, size * landmarks.length);
+            return new CompiledNetwork(Collections.unmodifiableList(names), lines, graph,
+                    landmarks, fromTable, toTable);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Snapshot {}{} ignored: {}", fileName, SUFFIX, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns stored landmark tables if they were built with the requested
+     * number of landmarks.
+     *
+     * @param count configured number of landmarks
+     * @return landmark index, or null if count differs (or is 0)
+     */
+    LandmarkIndex landmarkIndex(int count) {
+        if (count == 0 || landmarks.length != Math.min(count, graph.size())) {
+            return null;
+        }
+        return LandmarkIndex.fromTables(graph, landmarks, fromLandmark, toLandmark);
+    }
+
+    private static long checksum(String fileName, String stationsFileName) {
+        CRC32 crc = new CRC32();
+        for (String name : new String[]{fileName, stationsFileName}) {
+            byte[] bytes = ResourceLoader.readBytes(name);
+            if (bytes != null) {
+                crc.update(bytes);
+            }
+            // Разделитель, чтобы перенос строк между файлами менял сумму
+            crc.update(0);
+        }
+        return crc.getValue();
+    }
+
+    private static void writeArray(DataOutputStream data, int[] values) throws IOException {
+        data.writeInt(values.length);
+        for (int value : values) {
+            data.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads length-prefixed array.
+     *
+     * @param expectedLength required length, or -1 for any
+     */
+    private static int[] readArray(DataInputStream data, int expectedLength) throws IOException {
+        int length = data.readInt();
+        if (length < 0 || (expectedLength >= 0 && length != expectedLength) || length > data.available() / 4) {
+            throw new IOException("Corrupted network snapshot");
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = data.readInt();
+        }
+        return values;
+    }
+}
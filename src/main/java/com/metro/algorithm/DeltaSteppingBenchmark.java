@@ -0,0 +1,163 @@
+package com.metro.algorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares {@link DeltaSteppingSearch} with sequential Dijkstra
+ * ({@link ShortestPathIterator}) for one-to-all searches on a generated
+ * grid network. Each run picks a random source, times both searches and
+ * checks that they produce the same distances. Reported times are medians
+ * of the measured runs after one warm-up run.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class DeltaSteppingBenchmark {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private DeltaSteppingBenchmark() {
+    }
+
+    /**
+     * Generates {@code side x side} grid: every station is linked to its right
+     * and lower neighbour in both directions with different random times,
+     * 0..19 minutes one way and 1..20 the other, so the graph has zero-weight
+     * and asymmetric edges.
+     *
+     * @param side number of stations per row and column
+     * @param seed random seed
+     * @return grid graph
+     */
+    public static CompactGraph grid(int side, long seed) {
+        int size = side * side;
+        Random random = new Random(seed);
+        int[] from = new int[4 * size];
+        int[] to = new int[4 * size];
+        int[] weights = new int[4 * size];
+        int edges = 0;
+        for (int v = 0; v < size; v++) {
+            int[] neighbours = {v % side + 1 < side ? v + 1 : -1, v + side < size ? v + side : -1};
+            for (int u : neighbours) {
+                if (u < 0) continue;
+                from[edges] = v;
+                to[edges] = u;
+                weights[edges++] = random.nextInt(20);
+                from[edges] = u;
+                to[edges] = v;
+                weights[edges++] = 1 + random.nextInt(20);
+            }
+        }
+        return CompactGraph.fromEdges(size,
+                Arrays.copyOf(from, edges), Arrays.copyOf(to, edges), Arrays.copyOf(weights, edges));
+    }
+
+    /**
+     * Runs benchmark with delta-stepping on a dedicated pool.
+     *
+     * @param graph network graph
+     * @param threads pool parallelism
+     * @param runs number of measured runs
+     * @param seed random seed for sources
+     * @return median times of both searches
+     * @throws IllegalStateException if the searches disagree
+     */
+    public static Result run(CompactGraph graph, int threads, int runs, long seed) {
+        if (threads < 1 || runs < 1) {
+            throw new IllegalArgumentException("threads and runs must be positive");
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            DeltaSteppingSearch deltaStepping = new DeltaSteppingSearch(graph,
+                    DeltaSteppingSearch.defaultDelta(graph), pool);
+            Random random = new Random(seed);
+            long[] dijkstraNanos = new long[runs];
+            long[] deltaNanos = new long[runs];
+
+            // Первый прогон - прогрев JIT, не учитывается
+            for (int run = -1; run < runs; run++) {
+                int source = random.nextInt(graph.size());
+
+                long start = System.nanoTime();
+                int[] expected = dijkstra(graph, source);
+                long middle = System.nanoTime();
+                int[] actual = deltaStepping.distancesFrom(source);
+                long end = System.nanoTime();
+
+                if (!Arrays.equals(expected, actual)) {
+                    throw new IllegalStateException("Delta-stepping differs from Dijkstra for source " + source);
+                }
+                if (run >= 0) {
+                    dijkstraNanos[run] = middle - start;
+                    deltaNanos[run] = end - middle;
+                }
+            }
+            return new Result(graph.size(), threads, deltaStepping.getDelta(),
+                    median(dijkstraNanos), median(deltaNanos));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int[] dijkstra(CompactGraph graph, int source) {
+        int[] times = new int[graph.size()];
+        ShortestPathIterator search = new ShortestPathIterator(graph, source, null, times, new int[graph.size()]);
+        while (search.hasNext()) {
+            search.nextInt();
+        }
+        for (int v = 0; v < times.length; v++) {
+            if (times[v] == INF) times[v] = MetroPathFinder.UNREACHABLE;
+        }
+        return times;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Median times of one benchmark configuration.
+     */
+    public static final class Result {
+        private final int stations;
+        private final int threads;
+        private final int delta;
+        private final long dijkstraNanos;
+        private final long deltaSteppingNanos;
+
+        Result(int stations, int threads, int delta, long dijkstraNanos, long deltaSteppingNanos) {
+            this.stations = stations;
+            this.threads = threads;
+            this.delta = delta;
+            this.dijkstraNanos = dijkstraNanos;
+            this.deltaSteppingNanos = deltaSteppingNanos;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public long getDijkstraNanos() {
+            return dijkstraNanos;
+        }
+
+        public long getDeltaSteppingNanos() {
+            return deltaSteppingNanos;
+        }
+
+        /** Returns Dijkstra time divided by delta-stepping time. */
+        public double getSpeedup() {
+            return (double) dijkstraNanos / Math.max(deltaSteppingNanos, 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d stations, %d threads, delta %d: Dijkstra %.1f ms, delta-stepping %.1f ms, speedup %.2fx",
+                    stations, threads, delta, dijkstraNanos / 1e6, deltaSteppingNanos / 1e6, getSpeedup());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.metro.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Parallel one-to-all shortest paths by delta-stepping.
+ *
+ * <p>Stations are kept in buckets of width {@code delta} by tentative time.
+ * The lowest non-empty bucket is processed in phases: all its stations
+ * relax their light edges ({@code weight <= delta}) in parallel, which may
+ * refill the same bucket; once it stays empty, heavy edges of everything
+ * removed from it are relaxed in one more parallel step. Relaxations update
+ * distances with compare-and-set; every fork-join task collects improved
+ * stations into its own buffer, and buffers are merged into the buckets
+ * between phases.
+ *
+ * <p>Produces the same distances as Dijkstra. Small frontiers are relaxed
+ * on the calling thread. Instances are immutable; each call allocates its
+ * own state, so one instance can serve concurrent calls.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class DeltaSteppingSearch {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    /** Frontier size below which a relaxation step is not split further. */
+    private static final int SPLIT_THRESHOLD = 512;
+
+    private final CompactGraph graph;
+    private final int delta;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates search on the common pool with bucket width equal to the
+     * mean edge weight.
+     *
+     * @param graph network graph
+     */
+    public DeltaSteppingSearch(CompactGraph graph) {
+        this(graph, defaultDelta(graph), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates search.
+     *
+     * @param graph network graph
+     * @param delta bucket width in minutes
+     * @param pool fork-join pool for relaxation steps
+     */
+    public DeltaSteppingSearch(CompactGraph graph, int delta, ForkJoinPool pool) {
+        if (delta < 1) {
+            throw new IllegalArgumentException("delta must be positive");
+        }
+        this.graph = graph;
+        this.delta = delta;
+        this.pool = pool;
+    }
+
+    static int defaultDelta(CompactGraph graph) {
+        long total = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            total += graph.weight(e);
+        }
+        return (int) Math.max(1, graph.edgeCount() == 0 ? 1 : total / graph.edgeCount());
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    /**
+     * Computes travel times from source to every station.
+     *
+     * @param source source station id
+     * @return times indexed by station id, {@link MetroPathFinder#UNREACHABLE} if unreachable
+     */
+    public int[] distancesFrom(int source) {
+        int size = graph.size();
+        if (source < 0 || source >= size) {
+            throw new IllegalArgumentException("Unknown station id: " + source);
+        }
+
+        AtomicIntegerArray dist = new AtomicIntegerArray(size);
+        for (int v = 0; v < size; v++) {
+            dist.set(v, INF);
+        }
+        dist.set(source, 0);
+
+        // queued[v] - время, с которым станция уже лежит в корзине;
+        // relaxed[v] - время, с которым её лёгкие рёбра уже релаксированы
+        int[] queued = new int[size];
+        int[] relaxed = new int[size];
+        int[] removedStamp = new int[size];
+        Arrays.fill(queued, -1);
+        Arrays.fill(relaxed, -1);
+        Arrays.fill(removedStamp, -1);
+
+        List<IntList> buckets = new ArrayList<>();
+        enqueue(buckets, queued, source, 0);
+
+        for (int current = 0; current < buckets.size(); current++) {
+            IntList removed = new IntList();
+            while (buckets.get(current).size() > 0) {
+                IntList bucket = buckets.get(current);
+                buckets.set(current, new IntList());
+
+                IntList frontier = new IntList();
+                for (int i = 0; i < bucket.size(); i++) {
+                    int v = bucket.get(i);
+                    int d = dist.get(v);
+                    if (d / delta != current || relaxed[v] == d) continue;
+                    relaxed[v] = d;
+                    frontier.add(v);
+                    if (removedStamp[v] != current) {
+                        removedStamp[v] = current;
+                        removed.add(v);
+                    }
+                }
+                merge(buckets, queued, dist, relax(frontier, dist, true));
+            }
+            merge(buckets, queued, dist, relax(removed, dist, false));
+        }
+
+        int[] times = new int[size];
+        for (int v = 0; v < size; v++) {
+            int d = dist.get(v);
+            times[v] = d == INF ? MetroPathFinder.UNREACHABLE : d;
+        }
+        return times;
+    }
+
+    private IntList relax(IntList frontier, AtomicIntegerArray dist, boolean light) {
+        if (frontier.size() == 0) {
+            return frontier;
+        }
+        RelaxTask task = new RelaxTask(frontier, 0, frontier.size(), dist, light);
+        return frontier.size() <= SPLIT_THRESHOLD ? task.compute() : pool.invoke(task);
+    }
+
+    private void merge(List<IntList> buckets, int[] queued, AtomicIntegerArray dist, IntList improved) {
+        for (int i = 0; i < improved.size(); i++) {
+            int v = improved.get(i);
+            enqueue(buckets, queued, v, dist.get(v));
+        }
+    }
+
+    private void enqueue(List<IntList> buckets, int[] queued, int station, int distance) {
+        if (queued[station] == distance) return;
+        queued[station] = distance;
+        int index = distance / delta;
+        while (buckets.size() <= index) {
+            buckets.add(new IntList());
+        }
+        buckets.get(index).add(station);
+    }
+
+    /**
+     * Relaxes light or heavy edges of a frontier range; returns stations
+     * whose distance was improved.
+     */
+    private final class RelaxTask extends RecursiveTask<IntList> {
+        private final IntList frontier;
+        private final int from;
+        private final int to;
+        private final AtomicIntegerArray dist;
+        private final boolean light;
+
+        RelaxTask(IntList frontier, int from, int to, AtomicIntegerArray dist, boolean light) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.dist = dist;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                RelaxTask left = new RelaxTask(frontier, from, mid, dist, light);
+                left.fork();
+                IntList right = new RelaxTask(frontier, mid, to, dist, light).compute();
+                return left.join().addAll(right);
+            }
+
+            IntList improved = new IntList();
+            for (int i = from; i < to; i++) {
+                int u = frontier.get(i);
+                int du = dist.get(u);
+                for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                    int w = graph.weight(e);
+                    if ((w <= delta) != light) continue;
+
+                    int v = graph.target(e);
+                    int candidate = du + w;
+                    int currentDist = dist.get(v);
+                    while (candidate < currentDist) {
+                        if (dist.compareAndSet(v, currentDist, candidate)) {
+                            improved.add(v);
+                            break;
+                        }
+                        currentDist = dist.get(v);
+                    }
+                }
+            }
+            return improved;
+        }
+    }
+
+    /**
+     * Growable list of primitive ints.
+     */
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        IntList addAll(IntList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.metro.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Hub labeling (2-hop cover) distance oracle.
+ *
+ * <p>Every station {@code u} stores an out-label of hubs it reaches and an
+ * in-label of hubs that reach it, each as {@code (hub rank, distance)} pairs
+ * sorted by rank. For any pair {@code s, t} some hub on a shortest path is
+ * in both {@code out(s)} and {@code in(t)}, so a query is a merge of two
+ * short arrays. Labels are built by pruned Dijkstra searches from stations
+ * in order of decreasing degree (pruned landmark labeling).
+ *
+ * <p>Each label entry also keeps the neighbouring station on the shortest
+ * path to/from its hub, which is enough to unpack full routes. Labels are
+ * stored in flat interleaved {@code int[]} arrays; an index is immutable and
+ * thread-safe once built or loaded.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class HubLabelIndex {
+
+    private static final int MAGIC = 0x4D484C31; // "MHL1"
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final long fingerprint;
+    private final int[] rankToStation;
+    private final Labels out;
+    private final Labels in;
+
+    private HubLabelIndex(long fingerprint, int[] rankToStation, Labels out, Labels in) {
+        this.fingerprint = fingerprint;
+        this.rankToStation = rankToStation;
+        this.out = out;
+        this.in = in;
+    }
+
+    /**
+     * Builds labels for graph.
+     *
+     * @param graph network graph
+     * @return label index
+     */
+    public static HubLabelIndex build(CompactGraph graph) {
+        int size = graph.size();
+        CompactGraph reversed = graph.reverse();
+
+        // Сначала станции с большим числом связей (пересадочные узлы)
+        long[] order = new long[size];
+        for (int v = 0; v < size; v++) {
+            int degree = graph.firstEdge(v + 1) - graph.firstEdge(v)
+                    + reversed.firstEdge(v + 1) - reversed.firstEdge(v);
+            order[v] = ((long) (Integer.MAX_VALUE - degree) << 32) | v;
+        }
+        Arrays.sort(order);
+        int[] rankToStation = new int[size];
+        for (int r = 0; r < size; r++) {
+            rankToStation[r] = (int) order[r];
+        }
+
+        LabelBuilder outLabels = new LabelBuilder(size);
+        LabelBuilder inLabels = new LabelBuilder(size);
+        PrunedSearch search = new PrunedSearch(size, graph.edgeCount());
+        for (int rank = 0; rank < size; rank++) {
+            int hub = rankToStation[rank];
+            // Прямой поиск заполняет in-метки, обратный - out-метки
+            search.run(graph, hub, rank, outLabels, inLabels);
+            search.run(reversed, hub, rank, inLabels, outLabels);
+        }
+
+        return new HubLabelIndex(graph.fingerprint(), rankToStation,
+                outLabels.toLabels(), inLabels.toLabels());
+    }
+
+    /**
+     * Returns shortest travel time.
+     *
+     * @param from source station id
+     * @param to target station id
+     * @return time in minutes or {@link MetroPathFinder#UNREACHABLE}
+     */
+    public int distance(int from, int to) {
+        checkStation(from);
+        checkStation(to);
+        long best = bestHub(from, to);
+        return best == -1 ? MetroPathFinder.UNREACHABLE : (int) (best >>> 32);
+    }
+
+    /**
+     * Returns shortest route as station ids.
+     *
+     * @param from source station id
+     * @param to target station id
+     * @return route including both ends, or null if target is unreachable
+     */
+    public int[] path(int from, int to) {
+        checkStation(from);
+        checkStation(to);
+        if (from == to) {
+            return new int[]{from};
+        }
+
+        long best = bestHub(from, to);
+        if (best == -1) {
+            return null;
+        }
+        int rank = (int) best;
+        int hub = rankToStation[rank];
+
+        // От начала к хабу по out-меткам, от цели к хабу по in-меткам
+        int[] route = new int[size()];
+        int length = 0;
+        for (int current = from; current != hub; current = out.link(current, rank)) {
+            route[length++] = current;
+        }
+        route[length++] = hub;
+
+        int tailStart = length;
+        for (int current = to; current != hub; current = in.link(current, rank)) {
+            route[length++] = current;
+        }
+        reverse(route, tailStart, length - 1);
+        return Arrays.copyOf(route, length);
+    }
+
+    /**
+     * Finds hub with minimum distance.
+     *
+     * @return {@code (distance << 32) | rank} or -1 if there is no common hub
+     */
+    private long bestHub(int from, int to) {
+        int[] outEntries = out.entries;
+        int[] inEntries = in.entries;
+        int i = out.offsets[from] * 2;
+        int iEnd = out.offsets[from + 1] * 2;
+        int j = in.offsets[to] * 2;
+        int jEnd = in.offsets[to + 1] * 2;
+
+        int bestDistance = INF;
+        int bestRank = -1;
+        while (i < iEnd && j < jEnd) {
+            int a = outEntries[i];
+            int b = inEntries[j];
+            if (a == b) {
+                int distance = outEntries[i + 1] + inEntries[j + 1];
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestRank = a;
+                }
+                i += 2;
+                j += 2;
+            } else if (a < b) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return bestRank == -1 ? -1 : ((long) bestDistance << 32) | bestRank;
+    }
+
+    /** Returns number of stations. */
+    public int size() {
+        return rankToStation.length;
+    }
+
+    /** Returns total number of label entries (in and out). */
+    public long entryCount() {
+        return (long) out.links.length + in.links.length;
+    }
+
+    /** Returns average number of entries per label. */
+    public double averageLabelSize() {
+        return size() == 0 ? 0 : entryCount() / (2.0 * size());
+    }
+
+    /** Returns approximate heap size of the label arrays in bytes. */
+    public long memoryBytes() {
+        return 4L * (out.offsets.length + out.entries.length + out.links.length
+                + in.offsets.length + in.entries.length + in.links.length + rankToStation.length);
+    }
+
+    /**
+     * Checks that index was built for graph.
+     *
+     * @param graph network graph
+     * @return true if structure and weights match
+     */
+    public boolean matches(CompactGraph graph) {
+        return graph.size() == size() && graph.fingerprint() == fingerprint;
+    }
+
+    /**
+     * Writes index in binary form. Stream is flushed but not closed.
+     *
+     * @param output target stream
+     * @throws IOException if writing fails
+     */
+    public void save(OutputStream output) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+        data.writeInt(MAGIC);
+        data.writeInt(size());
+        data.writeLong(fingerprint);
+        writeArray(data, rankToStation);
+        for (Labels labels : new Labels[]{out, in}) {
+            writeArray(data, labels.offsets);
+            writeArray(data, labels.entries);
+            writeArray(data, labels.links);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads index written by {@link #save(OutputStream)} and checks that it
+     * belongs to graph.
+     *
+     * @param input source stream
+     * @param graph network the labels must match
+     * @return label index
+     * @throws IOException if data is malformed or was built for another network
+     */
+    public static HubLabelIndex load(InputStream input, CompactGraph graph) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(input));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a hub label file");
+        }
+        int size = data.readInt();
+        long fingerprint = data.readLong();
+        if (size != graph.size() || fingerprint != graph.fingerprint()) {
+            throw new IOException("Hub labels were built for another network");
+        }
+
+        int[] rankToStation = readArray(data, size);
+        Labels[] labels = new Labels[2];
+        for (int k = 0; k < 2; k++) {
+            int[] offsets = readArray(data, size + 1);
+            int entryCount = offsets[size];
+            labels[k] = new Labels(offsets, readArray(data, entryCount * 2), readArray(data, entryCount));
+        }
+        return new HubLabelIndex(fingerprint, rankToStation, labels[0], labels[1]);
+    }
+
+    private static void writeArray(DataOutputStream data, int[] values) throws IOException {
+        data.writeInt(values.length);
+        for (int value : values) {
+            data.writeInt(value);
+        }
+    }
+
+    private static int[] readArray(DataInputStream data, int expectedLength) throws IOException {
+        int length = data.readInt();
+        if (length != expectedLength || length < 0) {
+            throw new IOException("Corrupted hub label file");
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = data.readInt();
+        }
+        return values;
+    }
+
+    private void checkStation(int id) {
+        if (id < 0 || id >= size()) {
+            throw new IllegalArgumentException("Unknown station id: " + id);
+        }
+    }
+
+    private static void reverse(int[] values, int from, int to) {
+        for (; from < to; from++, to--) {
+            int swap = values[from];
+            values[from] = values[to];
+            values[to] = swap;
+        }
+    }
+
+    /**
+     * Flat labels of all stations: entries of station {@code u} are
+     * {@code offsets[u] .. offsets[u + 1] - 1}; entry {@code k} is
+     * {@code entries[2k]} (hub rank), {@code entries[2k + 1]} (distance) and
+     * {@code links[k]} (neighbour on the path towards the hub).
+     */
+    private static final class Labels {
+        final int[] offsets;
+        final int[] entries;
+        final int[] links;
+
+        Labels(int[] offsets, int[] entries, int[] links) {
+            this.offsets = offsets;
+            this.entries = entries;
+            this.links = links;
+        }
+
+        /** Returns link of station's entry for hub rank. */
+        int link(int station, int rank) {
+            int low = offsets[station];
+            int high = offsets[station + 1] - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midRank = entries[2 * mid];
+                if (midRank < rank) {
+                    low = mid + 1;
+                } else if (midRank > rank) {
+                    high = mid - 1;
+                } else {
+                    return links[mid];
+                }
+            }
+            throw new IllegalStateException("Inconsistent hub labels at station " + station);
+        }
+    }
+
+    /**
+     * Growable per-station labels used during construction.
+     */
+    private static final class LabelBuilder {
+        final int[][] entries;
+        final int[][] links;
+        final int[] sizes;
+
+        LabelBuilder(int stations) {
+            entries = new int[stations][8];
+            links = new int[stations][4];
+            sizes = new int[stations];
+        }
+
+        void add(int station, int rank, int distance, int link) {
+            int n = sizes[station];
+            if (n == links[station].length) {
+                links[station] = Arrays.copyOf(links[station], n * 2);
+                entries[station] = Arrays.copyOf(entries[station], n * 4);
+            }
+            entries[station][2 * n] = rank;
+            entries[station][2 * n + 1] = distance;
+            links[station][n] = link;
+            sizes[station] = n + 1;
+        }
+
+        Labels toLabels() {
+            int stations = sizes.length;
+            int[] offsets = new int[stations + 1];
+            for (int u = 0; u < stations; u++) {
+                offsets[u + 1] = offsets[u] + sizes[u];
+            }
+            int[] flatEntries = new int[offsets[stations] * 2];
+            int[] flatLinks = new int[offsets[stations]];
+            for (int u = 0; u < stations; u++) {
+                System.arraycopy(entries[u], 0, flatEntries, offsets[u] * 2, sizes[u] * 2);
+                System.arraycopy(links[u], 0, flatLinks, offsets[u], sizes[u]);
+            }
+            return new Labels(offsets, flatEntries, flatLinks);
+        }
+    }
+
+    /**
+     * Pruned Dijkstra with reusable buffers.
+     */
+    private static final class PrunedSearch {
+        final int[] dist;
+        final int[] link;
+        final int[] hubDist;
+        final int[] touched;
+        final LongMinHeap heap;
+
+        PrunedSearch(int stations, int edges) {
+            dist = new int[stations];
+            link = new int[stations];
+            hubDist = new int[stations];
+            touched = new int[stations];
+            heap = new LongMinHeap(edges + 1);
+            Arrays.fill(dist, INF);
+            Arrays.fill(hubDist, INF);
+        }
+
+        /**
+         * Searches from hub and adds entries for hub rank to target labels
+         * of stations whose distance is not yet covered by earlier hubs.
+         *
+         * @param hubSide labels of the hub on the opposite side (out for a forward search)
+         * @param targetSide labels receiving new entries
+         */
+        void run(CompactGraph graph, int hub, int rank, LabelBuilder hubSide, LabelBuilder targetSide) {
+            int[] hubEntries = hubSide.entries[hub];
+            for (int k = 0; k < hubSide.sizes[hub]; k++) {
+                hubDist[hubEntries[2 * k]] = hubEntries[2 * k + 1];
+            }
+
+            int touchedCount = 0;
+            dist[hub] = 0;
+            link[hub] = -1;
+            touched[touchedCount++] = hub;
+            heap.clear();
+            heap.push(LongMinHeap.key(0, hub));
+
+            while (!heap.isEmpty()) {
+                long key = heap.pop();
+                int u = LongMinHeap.station(key);
+                int d = LongMinHeap.distance(key);
+                if (d > dist[u]) continue;
+
+                // Расстояние уже покрыто хабами с меньшим рангом
+                int[] labelEntries = targetSide.entries[u];
+                boolean covered = false;
+                for (int k = 0; k < targetSide.sizes[u] && !covered; k++) {
+                    covered = hubDist[labelEntries[2 * k]] + labelEntries[2 * k + 1] <= d;
+                }
+                if (covered) continue;
+
+                targetSide.add(u, rank, d, link[u]);
+
+                for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                    int v = graph.target(e);
+                    int alt = d + graph.weight(e);
+                    if (alt < dist[v]) {
+                        if (dist[v] == INF) touched[touchedCount++] = v;
+                        dist[v] = alt;
+                        link[v] = u;
+                        heap.push(LongMinHeap.key(alt, v));
+                    }
+                }
+            }
+
+            for (int k = 0; k < touchedCount; k++) {
+                dist[touched[k]] = INF;
+            }
+            for (int k = 0; k < hubSide.sizes[hub]; k++) {
+                hubDist[hubEntries[2 * k]] = INF;
+            }
+        }
+    }
+}
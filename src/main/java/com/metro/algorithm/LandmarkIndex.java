@@ -0,0 +1,313 @@
+package com.metro.algorithm;
+
+import com.metro.metrics.Histogram;
+import com.metro.metrics.MetricsRegistry;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * ALT preprocessing (A*, landmarks, triangle inequality).
+ *
+ * <p>For a few landmark stations the travel times to and from every station
+ * are stored; for any station {@code v} and target {@code t}
+ * {@code d(L,t) - d(L,v)} and {@code d(v,L) - d(t,L)} are lower bounds of
+ * {@code d(v,t)}. These bounds guide an A* search that settles far fewer
+ * stations than plain Dijkstra and, unlike coordinate heuristics, do not
+ * depend on how well the map geometry matches travel times.
+ *
+ * <p>Landmarks are chosen farthest-first. Tables are stored station-major
+ * ({@code table[v * k + i]}) so one bound reads two short contiguous runs.
+ * Immutable and thread-safe once built.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class LandmarkIndex {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private static final Histogram ALT_SETTLED =
+            MetricsRegistry.getDefault().histogram("router.alt.settled");
+
+    private final CompactGraph graph;
+    private final int[] landmarks;
+    private final int[] fromLandmark;
+    private final int[] toLandmark;
+
+    private LandmarkIndex(CompactGraph graph, int[] landmarks, int[] fromLandmark, int[] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Selects landmarks and computes their distance tables. Selection is
+     * sequential (each choice depends on the previous ones); searches
+     * towards the landmarks run in parallel.
+     *
+     * @param graph network graph
+     * @param count number of landmarks (capped at number of stations)
+     * @return landmark index
+     */
+    public static LandmarkIndex build(CompactGraph graph, int count) {
+        int size = graph.size();
+        int k = Math.max(0, Math.min(count, size));
+        CompactGraph reversed = graph.reverse();
+
+        int[] landmarks = new int[k];
+        int[][] forward = new int[k][];
+        int[] nearest = new int[size];
+        Arrays.fill(nearest, INF);
+
+        // Первый ориентир - самая дальняя станция от станции 0
+        int next = k == 0 ? -1 : argmax(distancesFrom(graph, 0));
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = next;
+            forward[i] = distancesFrom(graph, next);
+            for (int v = 0; v < size; v++) {
+                nearest[v] = Math.min(nearest[v], forward[i][v]);
+            }
+            if (i + 1 < k) {
+                next = farthest(forward[i], nearest);
+            }
+        }
+
+        int[][] backward = new int[k][];
+        IntStream.range(0, k).parallel()
+                .forEach(i -> backward[i] = distancesFrom(reversed, landmarks[i]));
+
+        int[] fromTable = new int[size * k];
+        int[] toTable = new int[size * k];
+        for (int v = 0; v < size; v++) {
+            for (int i = 0; i < k; i++) {
+                fromTable[v * k + i] = forward[i][v];
+                toTable[v * k + i] = backward[i][v];
+            }
+        }
+        return new LandmarkIndex(graph, landmarks, fromTable, toTable);
+    }
+
+    /**
+     * Picks station farthest from already selected landmarks. Stations no
+     * landmark reaches come first, so every component gets a landmark.
+     */
+    private static int farthest(int[] lastDistances, int[] nearest) {
+        int best = 0;
+        long bestScore = -1;
+        for (int v = 0; v < nearest.length; v++) {
+            if (nearest[v] == 0) continue;
+            long score = nearest[v] == INF ? Long.MAX_VALUE : nearest[v];
+            if (score > bestScore) {
+                bestScore = score;
+                best = v;
+            }
+        }
+        return bestScore == -1 ? argmax(lastDistances) : best;
+    }
+
+    /**
+     * Returns station with largest finite distance.
+     */
+    private static int argmax(int[] distances) {
+        int best = 0;
+        for (int v = 1; v < distances.length; v++) {
+            if (distances[v] != INF && distances[v] > distances[best]) best = v;
+        }
+        return best;
+    }
+
+    private static int[] distancesFrom(CompactGraph graph, int source) {
+        int[] dist = new int[graph.size()];
+        Arrays.fill(dist, INF);
+        LongMinHeap heap = new LongMinHeap(graph.edgeCount() + 1);
+        dist[source] = 0;
+        heap.push(LongMinHeap.key(0, source));
+
+        while (!heap.isEmpty()) {
+            long key = heap.pop();
+            int u = LongMinHeap.station(key);
+            int d = LongMinHeap.distance(key);
+            if (d > dist[u]) continue;
+
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                int alt = d + graph.weight(e);
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    heap.push(LongMinHeap.key(alt, v));
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Returns landmark station ids in selection order.
+     *
+     * @return copy of landmark ids
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Restores index from stored tables, e.g. of a compiled network.
+     *
+     * @throws IllegalArgumentException if table sizes do not match graph
+     */
+    static LandmarkIndex fromTables(CompactGraph graph, int[] landmarks, int[] fromTable, int[] toTable) {
+        int expected = graph.size() * landmarks.length;
+        if (fromTable.length != expected || toTable.length != expected) {
+            throw new IllegalArgumentException("Landmark tables do not match network");
+        }
+        return new LandmarkIndex(graph, landmarks, fromTable, toTable);
+    }
+
+    /** Returns distances from landmarks, {@code [station * k + landmark]}. */
+    int[] fromTable() {
+        return fromLandmark;
+    }
+
+    /** Returns distances to landmarks, {@code [station * k + landmark]}. */
+    int[] toTable() {
+        return toLandmark;
+    }
+
+    /**
+     * Returns lower bound of travel time between stations.
+     *
+     * @param from source station id
+     * @param to target station id
+     * @return admissible lower bound in minutes (0 if nothing is known)
+     */
+    public int lowerBound(int from, int to) {
+        return bound(from, to * landmarks.length);
+    }
+
+    private int bound(int station, int targetRow) {
+        int k = landmarks.length;
+        int row = station * k;
+        int best = 0;
+        for (int i = 0; i < k; i++) {
+            int fromV = fromLandmark[row + i];
+            int fromT = fromLandmark[targetRow + i];
+            if (fromV != INF && fromT != INF && fromT - fromV > best) {
+                best = fromT - fromV;
+            }
+            int toV = toLandmark[row + i];
+            int toT = toLandmark[targetRow + i];
+            if (toV != INF && toT != INF && toV - toT > best) {
+                best = toV - toT;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Goal-directed A* search using landmark bounds.
+     *
+     * @param from source station id
+     * @param to target station id
+     * @return search result with route and number of settled stations
+     */
+    public SearchResult search(int from, int to) {
+        SearchResult result = run(from, to, true);
+        ALT_SETTLED.record(result.getSettled());
+        return result;
+    }
+
+    /**
+     * Plain Dijkstra over the same graph, as baseline for settle counts.
+     *
+     * @param from source station id
+     * @param to target station id
+     * @return search result with route and number of settled stations
+     */
+    public SearchResult searchWithoutLandmarks(int from, int to) {
+        return run(from, to, false);
+    }
+
+    private SearchResult run(int from, int to, boolean useLandmarks) {
+        int size = graph.size();
+        if (from < 0 || from >= size || to < 0 || to >= size) {
+            throw new IllegalArgumentException("Unknown station id: " + (from < 0 || from >= size ? from : to));
+        }
+
+        int[] dist = new int[size];
+        int[] prev = new int[size];
+        boolean[] settledFlags = new boolean[size];
+        Arrays.fill(dist, INF);
+        Arrays.fill(prev, -1);
+        LongMinHeap heap = new LongMinHeap(graph.edgeCount() + 1);
+
+        int targetRow = to * landmarks.length;
+        dist[from] = 0;
+        heap.push(LongMinHeap.key(useLandmarks ? bound(from, targetRow) : 0, from));
+        int settled = 0;
+
+        while (!heap.isEmpty()) {
+            int u = LongMinHeap.station(heap.pop());
+            if (settledFlags[u]) continue;
+            settledFlags[u] = true;
+            settled++;
+            if (u == to) break;
+
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                int alt = dist[u] + graph.weight(e);
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    prev[v] = u;
+                    int priority = useLandmarks ? alt + bound(v, targetRow) : alt;
+                    heap.push(LongMinHeap.key(priority, v));
+                }
+            }
+        }
+
+        if (dist[to] == INF) {
+            return new SearchResult(MetroPathFinder.UNREACHABLE, null, settled);
+        }
+
+        int length = 0;
+        for (int current = to; current != -1; current = prev[current]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int current = to, i = length - 1; i >= 0; i--, current = prev[current]) {
+            path[i] = current;
+        }
+        return new SearchResult(dist[to], path, settled);
+    }
+
+    /**
+     * Result of a single search.
+     */
+    public static final class SearchResult {
+        private final int distance;
+        private final int[] path;
+        private final int settled;
+
+        SearchResult(int distance, int[] path, int settled) {
+            this.distance = distance;
+            this.path = path;
+            this.settled = settled;
+        }
+
+        /** Returns travel time or {@link MetroPathFinder#UNREACHABLE}. */
+        public int getDistance() {
+            return distance;
+        }
+
+        /** Returns station ids of route or null if target is unreachable. */
+        public int[] getPath() {
+            return path == null ? null : path.clone();
+        }
+
+        /** Returns number of stations settled by the search. */
+        public int getSettled() {
+            return settled;
+        }
+    }
+}
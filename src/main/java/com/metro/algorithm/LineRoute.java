@@ -0,0 +1,53 @@
+package com.metro.algorithm;
+
+import com.metro.model.CompactPathResult;
+import com.metro.model.StationTable;
+
+/**
+ * Route found by a line-aware search: station ids with travel time and
+ * number of line changes.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class LineRoute {
+
+    private final int[] stations;
+    private final int totalTime;
+    private final int transfers;
+
+    LineRoute(int[] stations, int totalTime, int transfers) {
+        this.stations = stations;
+        this.totalTime = totalTime;
+        this.transfers = transfers;
+    }
+
+    /** Returns travel time in minutes, without transfer penalties. */
+    public int getTotalTime() {
+        return totalTime;
+    }
+
+    public int getTransfers() {
+        return transfers;
+    }
+
+    /** Returns copy of station ids from start to end. */
+    public int[] getStations() {
+        return stations.clone();
+    }
+
+    /**
+     * Converts route to compact result over station table.
+     *
+     * @param table station names of the network
+     * @return successful compact result
+     */
+    public CompactPathResult toResult(StationTable table) {
+        return CompactPathResult.success(table, stations, totalTime);
+    }
+
+    @Override
+    public String toString() {
+        return totalTime + " min, " + transfers + " transfers, " + stations.length + " stations";
+    }
+}
@@ -0,0 +1,76 @@
+package com.metro.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of primitive {@code long} keys. Searches pack
+ * {@code (distance << 32) | station} into one key and skip stale entries
+ * instead of decreasing keys. Not thread-safe.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class LongMinHeap {
+
+    private long[] keys;
+    private int size;
+
+    public LongMinHeap(int capacity) {
+        keys = new long[Math.max(1, capacity)];
+    }
+
+    public static long key(int distance, int station) {
+        return ((long) distance << 32) | station;
+    }
+
+    public static int distance(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int station(long key) {
+        return (int) key;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void push(long key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            keys[index] = keys[parent];
+            index = parent;
+        }
+        keys[index] = key;
+    }
+
+    /** Returns smallest key without removing it; heap must not be empty. */
+    public long peek() {
+        return keys[0];
+    }
+
+    public long pop() {
+        long top = keys[0];
+        long key = keys[--size];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if (key <= keys[child]) break;
+            keys[index] = keys[child];
+            index = child;
+        }
+        keys[index] = key;
+        return top;
+    }
+}
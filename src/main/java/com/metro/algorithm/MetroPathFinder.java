@@ -1,30 +1,200 @@
 package com.metro.algorithm;
 
+import com.metro.metrics.Counter;
+import com.metro.metrics.Histogram;
+import com.metro.metrics.MetricsRegistry;
+import com.metro.model.CompactPathResult;
 import com.metro.model.PathResult;
+import com.metro.model.StationTable;
 import com.metro.utils.LoggerUtil;
 import com.metro.utils.ResourceLoader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import jdk.jfr.FlightRecorder;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 public class MetroPathFinder {
 
     private static final Logger logger = LogManager.getLogger(MetroPathFinder.class);
     private static final int INF = Integer.MAX_VALUE / 2;
 
+    private static final Histogram LOAD_TIME =
+            MetricsRegistry.getDefault().histogram("router.load.time.ns");
+    private static final Histogram QUERY_TIME =
+            MetricsRegistry.getDefault().histogram("router.query.time.ns");
+    private static final Histogram NODES_SETTLED =
+            MetricsRegistry.getDefault().histogram("router.query.settled");
+    private static final Counter QUERIES =
+            MetricsRegistry.getDefault().counter("router.queries");
+    private static final Counter STATION_NOT_FOUND =
+            MetricsRegistry.getDefault().counter("router.failures.station_not_found");
+    private static final Counter NO_PATH =
+            MetricsRegistry.getDefault().counter("router.failures.no_path");
+    private static final Counter STATION_BLOCKED =
+            MetricsRegistry.getDefault().counter("router.failures.station_blocked");
+    private static final Histogram TABLE_TIME =
+            MetricsRegistry.getDefault().histogram("router.table.time.ns");
+    private static final Histogram PARETO_TIME =
+            MetricsRegistry.getDefault().histogram("router.pareto.time.ns");
+
+    /**
+     * One-to-all searches on networks with at least this many stations use
+     * {@link DeltaSteppingSearch} when the common pool has more than one
+     * thread ({@code -Dmetro.sssp.parallelStations}, default 100000). On a
+     * single core delta-stepping is about 1.15x slower than Dijkstra
+     * (490k-station grid, {@code --benchmark-sssp}).
+     */
+    private static final int PARALLEL_SSSP_STATIONS =
+            Math.max(1, Integer.getInteger("metro.sssp.parallelStations", 100_000));
+
+    /** Distance tables with at least this many sources run rows in parallel. */
+    private static final int PARALLEL_TABLE_SOURCES = 8;
+
+    /**
+     * Only one in this many queries writes per-query log lines
+     * ({@code -Dmetro.log.querySampleRate}, default 1 = every query).
+     * Failures are still counted by metrics for every query.
+     */
+    private static final int QUERY_LOG_SAMPLE_RATE =
+            Math.max(1, Integer.getInteger("metro.log.querySampleRate", 1));
+
+    /**
+     * Number of ALT landmarks, built on first {@link #getLandmarkIndex()}
+     * ({@code -Dmetro.alt.landmarks}, default 8, 0 disables).
+     */
+    private static final int ALT_LANDMARKS =
+            Math.max(0, Integer.getInteger("metro.alt.landmarks", 8));
+
+    /**
+     * Default transfer penalty in minutes ({@code -Dmetro.transfer.penalty},
+     * default 3). Single interchanges are overridden by {@link #PENALTIES_SUFFIX}.
+     */
+    private static final int TRANSFER_PENALTY =
+            Math.max(0, Integer.getInteger("metro.transfer.penalty", 3));
+
+    /**
+     * Suffix of the per-network penalty overrides file, read next to the
+     * matrix file (e.g. {@code metro.txt.penalties}); a missing file means no
+     * overrides. One {@code station;station;minutes} line per interchange,
+     * station names exactly as in the matrix header, '#' starts a comment.
+     */
+    static final String PENALTIES_SUFFIX = ".penalties";
+
+    /**
+     * Estimated bytes per station for its name in the station list, name
+     * table and search index (normalized copy, prefix tree, trigrams).
+     */
+    private static final int STATION_OVERHEAD_BYTES = 256;
+
+    /**
+     * Whether a compiled snapshot next to the matrix resource is used
+     * ({@code -Dmetro.snapshot}, default true).
+     */
+    private static final boolean USE_SNAPSHOT =
+            Boolean.parseBoolean(System.getProperty("metro.snapshot", "true"));
+
+    /** Travel time value for stations that cannot be reached. */
+    public static final int UNREACHABLE = -1;
+
+    /** Name of the profile loaded from the main matrix file. */
+    public static final String DEFAULT_PROFILE = "default";
+
     private List<String> stations;
-    private int[][] adjacencyMatrix;
+    private StationSearchIndex searchIndex;
+    private StationTable stationTable;
+    private int[] lines;
+    private TransferPenalties transferPenalties;
+    private final Map<String, WeightProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<String, String> profileSources = new ConcurrentHashMap<>();
+    private volatile WeightProfile activeProfile;
 
     public MetroPathFinder(String fileName) throws Exception {
-        loadMatrixFromResource(fileName);
-        logger.debug("MetroPathFinder initialized with {} stations", stations.size());
+        this(fileName, "stations.txt");
+    }
+
+    /**
+     * Loads network from matrix file; line of every station is read from
+     * the stations file.
+     *
+     * @param fileName matrix resource name or file path
+     * @param stationsFileName stations resource name or file path
+     * @throws Exception if matrix cannot be read or parsed
+     */
+    public MetroPathFinder(String fileName, String stationsFileName) throws Exception {
+        this(fileName, stationsFileName, USE_SNAPSHOT);
+    }
+
+    /**
+     * Loads network, from its compiled snapshot if allowed and up to date.
+     */
+    MetroPathFinder(String fileName, String stationsFileName, boolean useSnapshot) throws Exception {
+        // Первое событие JFR инициализирует Flight Recorder (сотни мс), поэтому только при записи
+        NetworkLoadEvent event = FlightRecorder.isInitialized() ? new NetworkLoadEvent() : null;
+        if (event != null) event.begin();
+        long startTime = System.nanoTime();
+
+        CompiledNetwork compiled = useSnapshot ? CompiledNetwork.find(fileName, stationsFileName) : null;
+        CompactGraph graph;
+        LandmarkIndex landmarkIndex = null;
+        if (compiled != null) {
+            stations = compiled.stations;
+            lines = compiled.lines;
+            graph = compiled.graph;
+            landmarkIndex = compiled.landmarkIndex(ALT_LANDMARKS);
+        } else {
+            int[][] adjacencyMatrix = loadMatrixFromResource(fileName, null);
+            lines = lineCodes(ResourceLoader.loadStationLines(stationsFileName));
+            graph = CompactGraph.fromMatrix(adjacencyMatrix, INF);
+        }
+
+        searchIndex = new StationSearchIndex(stations);
+        stationTable = new StationTable(stations);
+        transferPenalties = TransferPenalties.parse(
+                ResourceLoader.readTextFile(fileName + PENALTIES_SUFFIX), searchIndex, TRANSFER_PENALTY);
+        activeProfile = new WeightProfile(DEFAULT_PROFILE, graph, lines, landmarkIndex, ALT_LANDMARKS,
+                transferPenalties);
+        profiles.put(DEFAULT_PROFILE, activeProfile);
+        long elapsed = System.nanoTime() - startTime;
+        LOAD_TIME.record(elapsed);
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = fileName;
+                event.stations = stations.size();
+                event.snapshot = compiled != null;
+                event.parseMillis = elapsed / 1_000_000;
+                event.commit();
+            }
+        }
+        logger.debug("MetroPathFinder initialized with {} stations{}", stations.size(),
+                compiled != null ? " from snapshot" : "");
+    }
+
+    /** Returns line code of every station, shared with profiles. */
+    int[] getLineCodes() {
+        return lines;
     }
 
-    private void loadMatrixFromResource(String fileName) throws Exception {
+    /**
+     * Reads weight matrix. Without expected stations the header defines the
+     * station list of this network; otherwise it must match that list.
+     */
+    private int[][] loadMatrixFromResource(String fileName, List<String> expectedStations) throws Exception {
         List<String> lines = ResourceLoader.readTextFile(fileName);
 
         if (lines.isEmpty()) {
@@ -38,12 +208,17 @@ public class MetroPathFinder {
             throw new Exception("Invalid matrix header format");
         }
 
-        stations = new ArrayList<>(
+        List<String> names = new ArrayList<>(
                 Arrays.asList(header).subList(1, header.length)
         );
+        if (expectedStations == null) {
+            stations = names;
+        } else if (!expectedStations.equals(names)) {
+            throw new Exception("Stations of " + fileName + " differ from the loaded network");
+        }
 
-        int size = stations.size();
-        adjacencyMatrix = new int[size][size];
+        int size = names.size();
+        int[][] adjacencyMatrix = new int[size][size];
 
         for (int i = 0; i < size; i++) {
             if (i + 1 >= lines.size()) {
@@ -80,73 +255,660 @@ public class MetroPathFinder {
         }
 
         logger.info("Successfully loaded metro matrix with {} stations", size);
+        return adjacencyMatrix;
+    }
+
+    /**
+     * Maps line names from stations.txt to dense codes; stations missing
+     * there get {@link ParetoSearch#NO_LINE}.
+     */
+    private int[] lineCodes(Map<String, String> stationLines) {
+        Map<String, Integer> codes = new HashMap<>();
+        int[] lines = new int[stations.size()];
+        for (int i = 0; i < lines.length; i++) {
+            String line = stationLines.get(stations.get(i));
+            lines[i] = line == null ? ParetoSearch.NO_LINE : codes.computeIfAbsent(line, k -> codes.size());
+        }
+        return lines;
     }
 
     public PathResult findShortestPath(String startStation, String endStation) {
-        logger.debug("Searching path from '{}' to '{}'", startStation, endStation);
+        return findShortestPathCompact(startStation, endStation).toPathResult();
+    }
 
-        int startIndex = stations.indexOf(startStation);
-        int endIndex = stations.indexOf(endStation);
+    /**
+     * Finds shortest path that avoids blocked stations and edges. Global
+     * state is not changed; other queries are not affected.
+     *
+     * @param startStation start station name
+     * @param endStation end station name
+     * @param restrictions stations and edges to avoid in this query, or null for none
+     * @return path result; error if an end station itself is blocked
+     */
+    public PathResult findShortestPath(String startStation, String endStation, RouteRestrictions restrictions) {
+        return findShortestPathCompact(startStation, endStation, restrictions).toPathResult();
+    }
+
+    /**
+     * Compact variant of {@link #findShortestPath(String, String, RouteRestrictions)}.
+     *
+     * @param startStation start station name
+     * @param endStation end station name
+     * @param restrictions stations and edges to avoid in this query, or null for none
+     * @return compact result
+     */
+    public CompactPathResult findShortestPathCompact(String startStation, String endStation,
+                                                     RouteRestrictions restrictions) {
+        return findShortestPathCompact(startStation, endStation, activeProfile,
+                active(restrictions));
+    }
+
+    /**
+     * Finds shortest path and returns it as station ids over the shared
+     * station table of this network. Preferred for batch jobs that keep
+     * many results in memory.
+     *
+     * @param startStation start station name
+     * @param endStation end station name
+     * @return compact result
+     */
+    public CompactPathResult findShortestPathCompact(String startStation, String endStation) {
+        return findShortestPathCompact(startStation, endStation, activeProfile, null);
+    }
+
+    /**
+     * Finds shortest path with travel times of a given profile, regardless
+     * of the active one.
+     *
+     * @param startStation start station name
+     * @param endStation end station name
+     * @param profileName weight profile name
+     * @return compact result
+     * @throws IllegalArgumentException if profile is unknown
+     */
+    public CompactPathResult findShortestPathCompactInProfile(String startStation, String endStation,
+                                                              String profileName) {
+        return findShortestPathCompact(startStation, endStation, getProfile(profileName), null);
+    }
+
+    /**
+     * Finds shortest path with travel times of a given profile, avoiding
+     * blocked stations and edges.
+     *
+     * @param startStation start station name
+     * @param endStation end station name
+     * @param profileName weight profile name
+     * @param restrictions stations and edges to avoid in this query, or null for none
+     * @return compact result
+     * @throws IllegalArgumentException if profile is unknown
+     */
+    public CompactPathResult findShortestPathCompactInProfile(String startStation, String endStation,
+                                                              String profileName, RouteRestrictions restrictions) {
+        return findShortestPathCompact(startStation, endStation, getProfile(profileName),
+                active(restrictions));
+    }
+
+    private CompactPathResult findShortestPathCompact(String startStation, String endStation,
+                                                      WeightProfile profile, RouteRestrictions restrictions) {
+        RouteQueryEvent event = FlightRecorder.isInitialized() ? new RouteQueryEvent() : null;
+        if (event != null) event.begin();
+        long startTime = System.nanoTime();
+        QUERIES.increment();
+
+        boolean logQuery = sampleQueryLog();
+        if (logQuery && logger.isDebugEnabled()) {
+            logger.debug("Searching path from '{}' to '{}'", startStation, endStation);
+        }
+
+        int startIndex = searchIndex.resolve(startStation);
+        int endIndex = searchIndex.resolve(endStation);
 
         if (startIndex == -1 || endIndex == -1) {
-            logger.warn("Station not found: {} or {}", startStation, endStation);
-            return new PathResult("Station not found: " +
+            commitQueryEvent(event, startIndex, endIndex, 0, 0);
+            STATION_NOT_FOUND.increment();
+            QUERY_TIME.record(System.nanoTime() - startTime);
+            if (logQuery) {
+                logger.warn("Station not found: {} or {}", startStation, endStation);
+            }
+            return CompactPathResult.error(stationTable, "Station not found: " +
                     (startIndex == -1 ? startStation : endStation));
         }
+        if (restrictions != null && (restrictions.isStationBlocked(startIndex)
+                || restrictions.isStationBlocked(endIndex))) {
+            commitQueryEvent(event, startIndex, endIndex, 0, 0);
+            STATION_BLOCKED.increment();
+            QUERY_TIME.record(System.nanoTime() - startTime);
+            return CompactPathResult.error(stationTable, "Station is blocked: " +
+                    (restrictions.isStationBlocked(startIndex) ? startStation : endStation));
+        }
 
         int size = stations.size();
         int[] dist = new int[size];
         int[] prev = new int[size];
-        boolean[] visited = new boolean[size];
+        int settled = runDijkstra(profile.getGraph(), startIndex, endIndex, dist, prev, restrictions);
+        NODES_SETTLED.record(settled);
 
-        Arrays.fill(dist, INF);
-        Arrays.fill(prev, -1);
-        dist[startIndex] = 0;
+        if (dist[endIndex] == INF) {
+            commitQueryEvent(event, startIndex, endIndex, settled, 0);
+            NO_PATH.increment();
+            QUERY_TIME.record(System.nanoTime() - startTime);
+            if (logQuery) {
+                logger.warn("No path found from '{}' to '{}'", startStation, endStation);
+            }
+            return CompactPathResult.error(stationTable,
+                    "Path not found between " + startStation + " and " + endStation);
+        }
+
+        int length = 0;
+        for (int current = endIndex; current != -1; current = prev[current]) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        int current = endIndex;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = current;
+            current = prev[current];
+        }
+
+        QUERY_TIME.record(System.nanoTime() - startTime);
+        commitQueryEvent(event, startIndex, endIndex, settled, length);
+        if (logQuery && logger.isDebugEnabled()) {
+            logger.debug("Path found: {} stations, {} minutes", length, dist[endIndex]);
+        }
+        return CompactPathResult.success(stationTable, path, dist[endIndex]);
+    }
+
+    /**
+     * Ends and commits query event. Fields are set only when recording is on.
+     */
+    private static void commitQueryEvent(RouteQueryEvent event, int startId, int endId,
+                                         int settled, int pathLength) {
+        if (event == null) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.startId = startId;
+            event.endId = endId;
+            event.nodesSettled = settled;
+            event.pathLength = pathLength;
+            event.success = pathLength > 0;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns restrictions to pass to the search: null stands for none.
+     */
+    private static RouteRestrictions active(RouteRestrictions restrictions) {
+        return restrictions == null || restrictions.isEmpty() ? null : restrictions;
+    }
+
+    private static boolean sampleQueryLog() {
+        return QUERY_LOG_SAMPLE_RATE == 1
+                || ThreadLocalRandom.current().nextInt(QUERY_LOG_SAMPLE_RATE) == 0;
+    }
+
+    /**
+     * Computes travel times from station to every station of the network.
+     * Large networks on multi-core machines use parallel delta-stepping.
+     *
+     * @param station start station name
+     * @return times in minutes indexed like {@link #getAllStations()},
+     *         {@link #UNREACHABLE} for unreachable stations, or null if station is unknown
+     */
+    public int[] travelTimesFrom(String station) {
+        int startIndex = searchIndex.resolve(station);
+        if (startIndex == -1) {
+            return null;
+        }
+
+        WeightProfile profile = activeProfile;
+        int size = stations.size();
+        if (useDeltaStepping(size, ForkJoinPool.getCommonPoolParallelism())) {
+            return profile.getDeltaSteppingSearch().distancesFrom(startIndex);
+        }
+
+        int[] dist = new int[size];
+        int[] prev = new int[size];
+        runDijkstra(profile.getGraph(), startIndex, -1, dist, prev, null);
 
         for (int i = 0; i < size; i++) {
-            int minDist = INF;
-            int u = -1;
+            if (dist[i] == INF) {
+                dist[i] = UNREACHABLE;
+            }
+        }
+        return dist;
+    }
 
-            for (int j = 0; j < size; j++) {
-                if (!visited[j] && dist[j] < minDist) {
-                    minDist = dist[j];
-                    u = j;
-                }
+    /**
+     * Returns whether one-to-all search should run delta-stepping.
+     *
+     * @param size number of stations
+     * @param parallelism threads available to the common pool
+     */
+    static boolean useDeltaStepping(int size, int parallelism) {
+        return parallelism > 1 && size >= PARALLEL_SSSP_STATIONS;
+    }
+
+    /**
+     * Dijkstra with binary heap over the compact graph, driven through
+     * {@link ShortestPathIterator}. Stops early once target is settled;
+     * pass -1 as target to compute distances to all stations.
+     * Blocked stations and edges are skipped during relaxation.
+     *
+     * @param restrictions per-query restrictions, or null for none
+     * @return number of settled stations
+     */
+    private int runDijkstra(CompactGraph graph, int startIndex, int endIndex, int[] dist, int[] prev,
+                            RouteRestrictions restrictions) {
+        ShortestPathIterator search = new ShortestPathIterator(graph, startIndex, restrictions, dist, prev);
+        while (search.hasNext()) {
+            if (search.nextInt() == endIndex) break;
+        }
+        return search.settledCount();
+    }
+
+    /**
+     * Computes travel times between every source and every target.
+     * Runs one search per source that stops once all targets are settled;
+     * rows are computed in parallel for larger source sets.
+     *
+     * @param sources source station names
+     * @param targets target station names
+     * @return row-major matrix, {@code table[i * targets.size() + j]} is the
+     *         time from source i to target j or {@link #UNREACHABLE}
+     * @throws IllegalArgumentException if a station cannot be resolved
+     */
+    public int[] distanceTable(List<String> sources, List<String> targets) {
+        return distanceTable(resolveAll(sources), resolveAll(targets));
+    }
+
+    /**
+     * Computes travel times between station ids of {@link #getStationTable()}.
+     *
+     * @param sourceIds source station ids
+     * @param targetIds target station ids
+     * @return row-major matrix as in {@link #distanceTable(List, List)}
+     * @throws IllegalArgumentException if an id is out of range
+     */
+    public int[] distanceTable(int[] sourceIds, int[] targetIds) {
+        long startTime = System.nanoTime();
+        int size = stations.size();
+        for (int id : sourceIds) checkStationId(id);
+        for (int id : targetIds) checkStationId(id);
+
+        // Общие для всех строк: отметки целей и число различных целей
+        boolean[] isTarget = new boolean[size];
+        int distinctTargets = 0;
+        for (int id : targetIds) {
+            if (!isTarget[id]) {
+                isTarget[id] = true;
+                distinctTargets++;
             }
+        }
 
-            if (u == -1 || u == endIndex) break;
+        int columns = targetIds.length;
+        int[] table = new int[sourceIds.length * columns];
+        int targetCount = distinctTargets;
+        CompactGraph graph = activeProfile.getGraph();
 
-            visited[u] = true;
+        IntStream rows = IntStream.range(0, sourceIds.length);
+        if (sourceIds.length >= PARALLEL_TABLE_SOURCES) {
+            rows = rows.parallel();
+        }
+        rows.forEach(row -> {
+            int[] dist = new int[size];
+            boundedSearch(graph, sourceIds[row], isTarget, targetCount, dist);
+            for (int j = 0; j < columns; j++) {
+                int time = dist[targetIds[j]];
+                table[row * columns + j] = time == INF ? UNREACHABLE : time;
+            }
+        });
 
-            for (int v = 0; v < size; v++) {
-                if (!visited[v] && adjacencyMatrix[u][v] != INF) {
-                    int alt = dist[u] + adjacencyMatrix[u][v];
-                    if (alt < dist[v]) {
-                        dist[v] = alt;
-                        prev[v] = u;
-                    }
+        TABLE_TIME.record(System.nanoTime() - startTime);
+        return table;
+    }
+
+    /**
+     * Dijkstra with binary heap over the compact graph. Stops once all
+     * marked targets are settled; unsettled stations keep INF or an upper bound.
+     */
+    private static void boundedSearch(CompactGraph graph, int source, boolean[] isTarget, int targetCount, int[] dist) {
+        Arrays.fill(dist, INF);
+        boolean[] settled = new boolean[dist.length];
+        LongMinHeap heap = new LongMinHeap(graph.edgeCount() + 1);
+
+        dist[source] = 0;
+        heap.push(LongMinHeap.key(0, source));
+        int remaining = targetCount;
+
+        while (!heap.isEmpty() && remaining > 0) {
+            int u = LongMinHeap.station(heap.pop());
+            if (settled[u]) continue;
+            settled[u] = true;
+            if (isTarget[u]) remaining--;
+
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                int alt = dist[u] + graph.weight(e);
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    heap.push(LongMinHeap.key(alt, v));
                 }
             }
         }
+    }
 
-        if (dist[endIndex] == INF) {
-            logger.warn("No path found from '{}' to '{}'", startStation, endStation);
-            return new PathResult("Path not found between " + startStation + " and " + endStation);
-        }
+    /**
+     * Finds all routes that are Pareto-optimal on travel time and number
+     * of transfers, e.g. a slower route with one change less.
+     *
+     * @param startStation start station name
+     * @param endStation end station name
+     * @return routes ordered by transfers ascending, empty if no route exists
+     * @throws IllegalArgumentException if a station cannot be resolved
+     */
+    public List<LineRoute> findParetoRoutes(String startStation, String endStation) {
+        long startTime = System.nanoTime();
+        int[] ids = resolveAll(Arrays.asList(startStation, endStation));
+        List<LineRoute> routes = activeProfile.getParetoSearch().search(ids[0], ids[1]);
+        PARETO_TIME.record(System.nanoTime() - startTime);
+        return routes;
+    }
 
-        List<String> path = new ArrayList<>();
-        int current = endIndex;
+    /**
+     * Finds route with the lowest travel time plus transfer penalties
+     * ({@code metro.transfer.penalty} and the network's {@link #PENALTIES_SUFFIX} file).
+     *
+     * @param startStation start station name
+     * @param endStation end station name
+     * @return route with real travel time, or null if no route exists
+     * @throws IllegalArgumentException if a station cannot be resolved
+     */
+    public LineRoute findRouteWithTransfers(String startStation, String endStation) {
+        int[] ids = resolveAll(Arrays.asList(startStation, endStation));
+        return activeProfile.getTransferRouter().route(ids[0], ids[1]);
+    }
 
-        while (current != -1) {
-            path.add(0, stations.get(current));
-            current = prev[current];
+    /**
+     * Creates router over this network with custom penalties, e.g. per user preference.
+     *
+     * @param penalties transfer penalties
+     * @return router
+     */
+    public TransferRouter newTransferRouter(TransferPenalties penalties) {
+        return new TransferRouter(activeProfile.getGraph(), lines, penalties);
+    }
+
+    /**
+     * Returns stations in order of increasing travel time from a station,
+     * computed lazily with the active profile. Suited for "nearest station
+     * that matches" queries that stop early.
+     *
+     * @param station start station name
+     * @return iterator of station ids, starting with the station itself
+     * @throws IllegalArgumentException if station cannot be resolved
+     */
+    public ShortestPathIterator stationsByTravelTime(String station) {
+        return stationsByTravelTime(resolveAll(Collections.singletonList(station))[0], RouteRestrictions.NONE);
+    }
+
+    /**
+     * Returns stations in order of increasing travel time, avoiding blocked stations and edges.
+     *
+     * @param stationId start station id
+     * @param restrictions stations and edges to avoid, or null for none
+     * @return iterator of station ids
+     * @throws IllegalArgumentException if id is out of range
+     */
+    public ShortestPathIterator stationsByTravelTime(int stationId, RouteRestrictions restrictions) {
+        checkStationId(stationId);
+        return new ShortestPathIterator(activeProfile.getGraph(), stationId,
+                active(restrictions));
+    }
+
+    private int[] resolveAll(List<String> names) {
+        int[] ids = new int[names.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = searchIndex.resolve(names.get(i));
+            if (ids[i] == -1) {
+                throw new IllegalArgumentException("Station not found: " + names.get(i));
+            }
         }
+        return ids;
+    }
 
-        logger.info("Path found: {} stations, {} minutes", path.size(), dist[endIndex]);
-        return new PathResult(path, dist[endIndex], null);
+    private void checkStationId(int id) {
+        if (id < 0 || id >= stations.size()) {
+            throw new IllegalArgumentException("Unknown station id: " + id);
+        }
     }
 
     public List<String> getAllStations() {
         return new ArrayList<>(stations);
     }
+
+    /**
+     * Resolves user input to a station name of the loaded network,
+     * ignoring case, "ё"/"е" differences and small typos.
+     *
+     * @param name user input
+     * @return canonical station name or null if input is ambiguous or unknown
+     */
+    public String resolveStation(String name) {
+        int index = searchIndex.resolve(name);
+        return index != -1 ? stations.get(index) : null;
+    }
+
+    /**
+     * Returns ranked station name suggestions for partially typed input.
+     *
+     * @param query text typed so far
+     * @param limit maximum number of suggestions
+     * @return station names, best first
+     */
+    public List<String> suggestStations(String query, int limit) {
+        return searchIndex.suggest(query, limit);
+    }
+
+    public StationTable getStationTable() {
+        return stationTable;
+    }
+
+    public StationSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * Returns adjacency-array graph of the active profile; ids match {@link #getStationTable()}.
+     *
+     * @return compact graph
+     */
+    public CompactGraph getGraph() {
+        return activeProfile.getGraph();
+    }
+
+    /**
+     * Returns default transfer penalties with this network's overrides.
+     *
+     * @return transfer penalties
+     */
+    public TransferPenalties getTransferPenalties() {
+        return transferPenalties;
+    }
+
+    /**
+     * Returns approximate heap size of the loaded network: graph arrays,
+     * indexes of every weight profile and station names. Per-query search
+     * buffers are not included. Used to bound memory of many networks in
+     * one process.
+     *
+     * @return estimated size in bytes
+     */
+    public long estimatedMemoryBytes() {
+        int size = stations.size();
+        CompactGraph base = profiles.get(DEFAULT_PROFILE).getGraph();
+        // Смещения и цели рёбер общие для всех профилей, коды линий
+        long bytes = 4L * (size + 1) + 4L * base.edgeCount() + 4L * size;
+        for (String name : stations) {
+            bytes += STATION_OVERHEAD_BYTES + 8L * name.length();
+        }
+        for (WeightProfile profile : profiles.values()) {
+            bytes += profile.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns ALT landmark tables of the active profile, building them on
+     * first call unless they were read from a compiled snapshot.
+     *
+     * @return landmark index or null if disabled by {@code metro.alt.landmarks=0}
+     */
+    public LandmarkIndex getLandmarkIndex() {
+        return activeProfile.getLandmarkIndex();
+    }
+
+    /**
+     * Returns time/transfers search of the active profile with line codes from stations.txt.
+     *
+     * @return Pareto search
+     */
+    public ParetoSearch getParetoSearch() {
+        return activeProfile.getParetoSearch();
+    }
+
+    /**
+     * Adds or replaces weight profile. Topology is shared with the default
+     * profile; searches are built for the new weights, landmark tables on
+     * first use.
+     *
+     * @param name profile name
+     * @param edgeWeights travel time per edge of {@link #getGraph()}
+     * @return new profile
+     * @throws IllegalArgumentException if weights do not match the edges
+     */
+    public synchronized WeightProfile addProfile(String name, int[] edgeWeights) {
+        CompactGraph graph = profiles.get(DEFAULT_PROFILE).getGraph().withWeights(edgeWeights);
+        WeightProfile profile = new WeightProfile(name, graph, lines, ALT_LANDMARKS, transferPenalties);
+        profiles.put(name, profile);
+        profileSources.remove(name);
+        if (activeProfile.getName().equals(name)) {
+            activeProfile = profile;
+        }
+        logger.info("Weight profile '{}' added", name);
+        return profile;
+    }
+
+    /**
+     * Loads weight profile from matrix file in the format of the main
+     * network file, with the same stations and the same edges.
+     *
+     * @param name profile name
+     * @param fileName matrix file
+     * @return new profile
+     * @throws Exception if file cannot be read or its edges differ from the network
+     */
+    public WeightProfile loadProfile(String name, String fileName) throws Exception {
+        int[][] matrix = loadMatrixFromResource(fileName, stations);
+        CompactGraph base = profiles.get(DEFAULT_PROFILE).getGraph();
+        int[] edgeWeights = new int[base.edgeCount()];
+        int edges = 0;
+        for (int u = 0; u < base.size(); u++) {
+            for (int v = 0; v < base.size(); v++) {
+                if (u != v && matrix[u][v] != INF) edges++;
+            }
+            for (int e = base.firstEdge(u); e < base.firstEdge(u + 1); e++) {
+                edgeWeights[e] = matrix[u][base.target(e)];
+                if (edgeWeights[e] == INF) {
+                    throw new Exception("Profile " + name + " has no edge " + stations.get(u)
+                            + " -> " + stations.get(base.target(e)));
+                }
+            }
+        }
+        if (edges != base.edgeCount()) {
+            throw new Exception("Profile " + name + " has edges missing in the network");
+        }
+        WeightProfile profile = addProfile(name, edgeWeights);
+        profileSources.put(name, fileName);
+        return profile;
+    }
+
+    /**
+     * Recreates weight profiles and the active profile of another router,
+     * typically the previous version of a reloaded network. Profiles loaded
+     * from files are read again from the same files; profiles added from
+     * weight arrays are copied only if the network has the same stations
+     * and edges.
+     *
+     * @param previous router whose profiles to take over
+     * @return names of profiles that could not be recreated, each with the
+     *         reason; if the active one is among them, the default profile
+     *         stays active
+     */
+    public Map<String, String> restoreProfiles(MetroPathFinder previous) {
+        Map<String, String> failed = new TreeMap<>();
+        CompactGraph base = getGraph();
+        CompactGraph previousBase = previous.getGraph();
+        boolean sameEdges = stations.equals(previous.stations)
+                && Arrays.equals(base.edgeOffsets(), previousBase.edgeOffsets())
+                && Arrays.equals(base.targets(), previousBase.targets());
+
+        for (String name : previous.getProfileNames()) {
+            if (DEFAULT_PROFILE.equals(name)) continue;
+            String source = previous.profileSources.get(name);
+            try {
+                if (source != null) {
+                    loadProfile(name, source);
+                } else if (sameEdges) {
+                    addProfile(name, previous.getProfile(name).getGraph().weights());
+                } else {
+                    failed.put(name, "network edges changed");
+                }
+            } catch (Exception e) {
+                failed.put(name, e.getMessage());
+            }
+        }
+
+        String active = previous.getActiveProfile().getName();
+        if (profiles.containsKey(active)) {
+            setActiveProfile(active);
+        }
+        return failed;
+    }
+
+    /**
+     * Switches profile used by queries that do not name one. Takes effect
+     * for queries started afterwards; nothing is rebuilt.
+     *
+     * @param name profile name
+     * @throws IllegalArgumentException if profile is unknown
+     */
+    public synchronized void setActiveProfile(String name) {
+        activeProfile = getProfile(name);
+        logger.info("Active weight profile: {}", name);
+    }
+
+    public WeightProfile getActiveProfile() {
+        return activeProfile;
+    }
+
+    /**
+     * Returns profile by name.
+     *
+     * @param name profile name
+     * @return profile
+     * @throws IllegalArgumentException if profile is unknown
+     */
+    public WeightProfile getProfile(String name) {
+        WeightProfile profile = profiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown weight profile: " + name);
+        }
+        return profile;
+    }
+
+    public Set<String> getProfileNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(profiles.keySet()));
+    }
 }
\ No newline at end of file
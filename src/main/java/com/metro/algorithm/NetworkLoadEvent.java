@@ -0,0 +1,36 @@
+package com.metro.algorithm;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event emitted when a network file is loaded.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+@Name("com.metro.NetworkLoad")
+@Label("Network Load")
+@Category({"Metro Navigator", "Router"})
+@Description("Loading and indexing of a metro network file")
+@StackTrace(false)
+final class NetworkLoadEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    String file;
+
+    @Label("Stations")
+    int stations;
+
+    @Label("From Snapshot")
+    @Description("Network was read from a compiled snapshot instead of parsed")
+    boolean snapshot;
+
+    @Label("Parse Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long parseMillis;
+}
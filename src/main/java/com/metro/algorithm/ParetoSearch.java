@@ -0,0 +1,189 @@
+package com.metro.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multi-criteria label-setting search on travel time and number of
+ * transfers. Returns every Pareto-optimal route: for each transfer count,
+ * the fastest route that is strictly faster than all routes with fewer
+ * transfers.
+ *
+ * <p>A transfer is an edge between stations of different lines. Transfer
+ * counts are bounded by {@code maxTransfers}, so bags of labels are
+ * kept as flat {@code int[]} tables of best time per (station, transfers).
+ * A label is dropped if a label with no more transfers and no more time
+ * already exists at its station or at the target. Labels themselves live
+ * in growable primitive arrays. Thread-safe: all state is per query.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class ParetoSearch {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    /** Line code of stations whose line is not known. */
+    public static final int NO_LINE = -1;
+
+    /** Default bound on transfers per route. */
+    public static final int DEFAULT_MAX_TRANSFERS = 6;
+
+    private final CompactGraph graph;
+    private final int[] lines;
+    private final int maxTransfers;
+
+    /**
+     * Creates search.
+     *
+     * @param graph network graph
+     * @param lines line code per station, {@link #NO_LINE} if unknown
+     * @param maxTransfers maximum transfers per route
+     * @throws IllegalArgumentException if lines do not match graph or bound is negative
+     */
+    public ParetoSearch(CompactGraph graph, int[] lines, int maxTransfers) {
+        if (lines.length != graph.size()) {
+            throw new IllegalArgumentException("Expected " + graph.size() + " line codes, got " + lines.length);
+        }
+        if (maxTransfers < 0) {
+            throw new IllegalArgumentException("maxTransfers must not be negative");
+        }
+        this.graph = graph;
+        this.lines = lines.clone();
+        this.maxTransfers = maxTransfers;
+    }
+
+    /**
+     * Checks whether edge from one station to another changes line.
+     * Stations with unknown line never count as transfer.
+     */
+    public boolean isTransfer(int from, int to) {
+        return lines[from] != NO_LINE && lines[to] != NO_LINE && lines[from] != lines[to];
+    }
+
+    public int getMaxTransfers() {
+        return maxTransfers;
+    }
+
+    /**
+     * Finds Pareto set of routes.
+     *
+     * @param source start station id
+     * @param target end station id
+     * @return routes ordered by transfers ascending (and time descending),
+     *         empty if target is unreachable within transfer bound
+     * @throws IllegalArgumentException if station id is out of range
+     */
+    public List<LineRoute> search(int source, int target) {
+        int size = graph.size();
+        if (source < 0 || source >= size || target < 0 || target >= size) {
+            throw new IllegalArgumentException("Unknown station id: " + (source < 0 || source >= size ? source : target));
+        }
+
+        int slots = maxTransfers + 1;
+        // best[v * slots + k] - лучшее время в v не более чем с k пересадками
+        int[] best = new int[size * slots];
+        int[] bestLabel = new int[size * slots];
+        Arrays.fill(best, INF);
+        Labels labels = new Labels(size * 2);
+        LongMinHeap heap = new LongMinHeap(size * 2);
+
+        int first = labels.add(source, -1, 0, 0);
+        insert(best, bestLabel, source * slots, 0, 0, first);
+        heap.push(LongMinHeap.key(0, first));
+
+        while (!heap.isEmpty()) {
+            int label = LongMinHeap.station(heap.pop());
+            int u = labels.station[label];
+            int time = labels.time[label];
+            int transfers = labels.transfers[label];
+            if (dominated(best, u * slots, time, transfers) || u == target) continue;
+
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                int k = isTransfer(u, v) ? transfers + 1 : transfers;
+                int t = time + graph.weight(e);
+                if (k > maxTransfers || t >= best[v * slots + k] || t >= best[target * slots + k]) continue;
+
+                int next = labels.add(v, label, t, k);
+                insert(best, bestLabel, v * slots, t, k, next);
+                heap.push(LongMinHeap.key(t, next));
+            }
+        }
+
+        // Фронт Парето в цели: время строго убывает с ростом числа пересадок
+        List<LineRoute> routes = new ArrayList<>();
+        int previous = INF;
+        for (int k = 0; k < slots; k++) {
+            int time = best[target * slots + k];
+            if (time < previous) {
+                routes.add(labels.route(bestLabel[target * slots + k]));
+                previous = time;
+            }
+        }
+        return Collections.unmodifiableList(routes);
+    }
+
+    /**
+     * Checks whether label lost to another label found after it was queued.
+     */
+    private static boolean dominated(int[] best, int base, int time, int transfers) {
+        return best[base + transfers] < time || (transfers > 0 && best[base + transfers - 1] <= time);
+    }
+
+    private void insert(int[] best, int[] bestLabel, int base, int time, int transfers, int label) {
+        bestLabel[base + transfers] = label;
+        for (int k = transfers; k <= maxTransfers && best[base + k] > time; k++) {
+            best[base + k] = time;
+        }
+    }
+
+    /**
+     * Growable label storage in parallel primitive arrays.
+     */
+    private final class Labels {
+        int[] station;
+        int[] parent;
+        int[] time;
+        int[] transfers;
+        int count;
+
+        Labels(int capacity) {
+            station = new int[capacity];
+            parent = new int[capacity];
+            time = new int[capacity];
+            transfers = new int[capacity];
+        }
+
+        int add(int v, int from, int t, int k) {
+            if (count == station.length) {
+                int capacity = count * 2;
+                station = Arrays.copyOf(station, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                time = Arrays.copyOf(time, capacity);
+                transfers = Arrays.copyOf(transfers, capacity);
+            }
+            station[count] = v;
+            parent[count] = from;
+            time[count] = t;
+            transfers[count] = k;
+            return count++;
+        }
+
+        LineRoute route(int label) {
+            int length = 0;
+            for (int l = label; l != -1; l = parent[l]) {
+                length++;
+            }
+            int[] path = new int[length];
+            int l = label;
+            for (int i = length - 1; i >= 0; i--) {
+                path[i] = station[l];
+                l = parent[l];
+            }
+            return new LineRoute(path, time[label], transfers[label]);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.metro.algorithm;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted for every shortest path query.
+ * Duration is the event duration; fields are filled only when the event
+ * is going to be committed.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+@Name("com.metro.RouteQuery")
+@Label("Route Query")
+@Category({"Metro Navigator", "Router"})
+@Description("Shortest path query between two stations")
+@StackTrace(false)
+final class RouteQueryEvent extends jdk.jfr.Event {
+
+    @Label("Start Station Id")
+    int startId;
+
+    @Label("End Station Id")
+    int endId;
+
+    @Label("Nodes Settled")
+    int nodesSettled;
+
+    @Label("Path Length")
+    @Description("Number of stations in the found path, 0 if no path")
+    int pathLength;
+
+    @Label("Success")
+    boolean success;
+}
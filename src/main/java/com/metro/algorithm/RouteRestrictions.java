@@ -0,0 +1,104 @@
+package com.metro.algorithm;
+
+import java.util.BitSet;
+
+/**
+ * Stations and edges a single query must not use, e.g. a station with
+ * escalator repairs or a tunnel without step-free access. Stations are
+ * ids of the station table, edges are indexes of {@link CompactGraph}
+ * (shared by all weight profiles). Immutable.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class RouteRestrictions {
+
+    /** No restrictions. */
+    public static final RouteRestrictions NONE = new RouteRestrictions(new BitSet(), new BitSet());
+
+    private final BitSet blockedStations;
+    private final BitSet blockedEdges;
+
+    private RouteRestrictions(BitSet blockedStations, BitSet blockedEdges) {
+        this.blockedStations = blockedStations;
+        this.blockedEdges = blockedEdges;
+    }
+
+    /**
+     * Creates restrictions from bit sets; the sets are copied.
+     *
+     * @param blockedStations station ids to avoid
+     * @param blockedEdges edge indexes to avoid
+     * @return restrictions
+     */
+    public static RouteRestrictions of(BitSet blockedStations, BitSet blockedEdges) {
+        return new RouteRestrictions((BitSet) blockedStations.clone(), (BitSet) blockedEdges.clone());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isStationBlocked(int station) {
+        return blockedStations.get(station);
+    }
+
+    public boolean isEdgeBlocked(int edge) {
+        return blockedEdges.get(edge);
+    }
+
+    /** Returns true if nothing is blocked. */
+    public boolean isEmpty() {
+        return blockedStations.isEmpty() && blockedEdges.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteRestrictions{stations=" + blockedStations + ", edges=" + blockedEdges + "}";
+    }
+
+    /**
+     * Collects blocked stations and edges.
+     */
+    public static final class Builder {
+        private final BitSet stations = new BitSet();
+        private final BitSet edges = new BitSet();
+
+        private Builder() {
+        }
+
+        /**
+         * Blocks station.
+         *
+         * @param station station id
+         * @return this builder
+         * @throws IllegalArgumentException if id is negative
+         */
+        public Builder blockStation(int station) {
+            if (station < 0) {
+                throw new IllegalArgumentException("Invalid station id: " + station);
+            }
+            stations.set(station);
+            return this;
+        }
+
+        /**
+         * Blocks edge.
+         *
+         * @param edge edge index, see {@link CompactGraph#edgeIndex(int, int)}
+         * @return this builder
+         * @throws IllegalArgumentException if index is negative
+         */
+        public Builder blockEdge(int edge) {
+            if (edge < 0) {
+                throw new IllegalArgumentException("Invalid edge index: " + edge);
+            }
+            edges.set(edge);
+            return this;
+        }
+
+        public RouteRestrictions build() {
+            return new RouteRestrictions((BitSet) stations.clone(), (BitSet) edges.clone());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.metro.algorithm;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Dijkstra search from one station that yields stations in order of
+ * increasing travel time, one per {@link #nextInt()}. The search is resumed
+ * only when the next station is requested: edges of a returned station are
+ * relaxed on the following call, so a caller that stops after the first
+ * match pays only for the stations it has seen. This is the search loop
+ * used by {@link MetroPathFinder} for single routes.
+ *
+ * <p>Not thread-safe; each iterator belongs to one consumer.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class ShortestPathIterator implements PrimitiveIterator.OfInt {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final CompactGraph graph;
+    private final RouteRestrictions restrictions;
+    private final int[] dist;
+    private final int[] prev;
+    private final LongMinHeap heap;
+    private int pending = -1;
+    private int current = -1;
+    private int settled;
+
+    /**
+     * Starts search; distances and predecessors are written to caller arrays.
+     *
+     * @param restrictions stations and edges to skip, or null for none
+     */
+    ShortestPathIterator(CompactGraph graph, int source, RouteRestrictions restrictions, int[] dist, int[] prev) {
+        this.graph = graph;
+        this.restrictions = restrictions;
+        this.dist = dist;
+        this.prev = prev;
+        this.heap = new LongMinHeap(graph.edgeCount() + 1);
+
+        Arrays.fill(dist, INF);
+        Arrays.fill(prev, -1);
+        dist[source] = 0;
+        heap.push(LongMinHeap.key(0, source));
+    }
+
+    /**
+     * Creates iterator over graph.
+     *
+     * @param graph network graph
+     * @param source start station id
+     * @param restrictions stations and edges to skip, or null for none
+     * @throws IllegalArgumentException if source is out of range
+     */
+    public ShortestPathIterator(CompactGraph graph, int source, RouteRestrictions restrictions) {
+        this(graph, checkSource(graph, source), restrictions, new int[graph.size()], new int[graph.size()]);
+    }
+
+    private static int checkSource(CompactGraph graph, int source) {
+        if (source < 0 || source >= graph.size()) {
+            throw new IllegalArgumentException("Unknown station id: " + source);
+        }
+        return source;
+    }
+
+    @Override
+    public boolean hasNext() {
+        relaxPending();
+        // Пропускаем устаревшие записи кучи
+        while (!heap.isEmpty()) {
+            long key = heap.peek();
+            if (LongMinHeap.distance(key) <= dist[LongMinHeap.station(key)]) {
+                return true;
+            }
+            heap.pop();
+        }
+        return false;
+    }
+
+    /**
+     * Settles next closest station.
+     *
+     * @return station id
+     * @throws NoSuchElementException if all reachable stations were returned
+     */
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        current = LongMinHeap.station(heap.pop());
+        pending = current;
+        settled++;
+        return current;
+    }
+
+    /**
+     * Returns travel time to station returned last.
+     *
+     * @throws IllegalStateException if no station was returned yet
+     */
+    public int distance() {
+        if (current == -1) {
+            throw new IllegalStateException("No station returned yet");
+        }
+        return dist[current];
+    }
+
+    /**
+     * Returns route to station returned last.
+     *
+     * @return station ids from source to that station
+     * @throws IllegalStateException if no station was returned yet
+     */
+    public int[] path() {
+        if (current == -1) {
+            throw new IllegalStateException("No station returned yet");
+        }
+        int length = 0;
+        for (int v = current; v != -1; v = prev[v]) length++;
+        int[] path = new int[length];
+        int v = current;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = v;
+            v = prev[v];
+        }
+        return path;
+    }
+
+    /** Returns number of stations returned so far. */
+    public int settledCount() {
+        return settled;
+    }
+
+    /**
+     * Returns remaining stations as ordered, non-splitting spliterator
+     * sharing this iterator's state.
+     */
+    public Spliterator.OfInt spliterator() {
+        return new Spliterator.OfInt() {
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                if (!hasNext()) return false;
+                action.accept(nextInt());
+                return true;
+            }
+
+            @Override
+            public Spliterator.OfInt trySplit() {
+                return null;
+            }
+
+            @Override
+            public long estimateSize() {
+                return graph.size() - settled;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | DISTINCT | NONNULL;
+            }
+        };
+    }
+
+    /**
+     * Returns remaining stations as sequential stream, e.g.
+     * {@code stream().filter(isOpen).findFirst()}.
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    private void relaxPending() {
+        int u = pending;
+        if (u == -1) return;
+        pending = -1;
+
+        int d = dist[u];
+        for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+            int v = graph.target(e);
+            if (restrictions != null && (restrictions.isEdgeBlocked(e) || restrictions.isStationBlocked(v))) {
+                continue;
+            }
+            int alt = d + graph.weight(e);
+            if (alt < dist[v]) {
+                dist[v] = alt;
+                prev[v] = u;
+                heap.push(LongMinHeap.key(alt, v));
+            }
+        }
+    }
+}
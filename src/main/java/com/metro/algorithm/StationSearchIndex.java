@@ -0,0 +1,419 @@
+package com.metro.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Search index over station names used for autocomplete and name resolution.
+ * Names are normalized (case, "ё"/"е", whitespace) and stored in a prefix trie
+ * keyed by every word start, so "просп" finds both "Проспект Ветеранов" and
+ * "Невский проспект". Queries without prefix hits fall back to a trigram
+ * candidate lookup ranked by edit distance.
+ *
+ * <p>The index is immutable after construction and safe for concurrent reads.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class StationSearchIndex {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final String[] names;
+    private final String[] normalized;
+    private final Map<String, Integer> exact;
+    private final TrieNode root;
+    private final Map<String, int[]> trigrams;
+
+    /**
+     * Builds index over station names. Station id is the position in the list.
+     *
+     * @param stationNames station names in id order
+     */
+    public StationSearchIndex(List<String> stationNames) {
+        int size = stationNames.size();
+        this.names = stationNames.toArray(new String[0]);
+        this.normalized = new String[size];
+        this.exact = new HashMap<>(size * 2);
+        this.root = new TrieNode();
+
+        Map<String, IntList> grams = new HashMap<>();
+
+        for (int id = 0; id < size; id++) {
+            String key = normalize(names[id]);
+            normalized[id] = key;
+            exact.putIfAbsent(key, id);
+
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || isSeparator(key.charAt(start - 1))) {
+                    root.insert(key, start, id);
+                }
+            }
+
+            String padded = " " + key + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                IntList ids = grams.computeIfAbsent(padded.substring(i, i + 3), k -> new IntList());
+                ids.addDistinct(id);
+            }
+        }
+
+        root.freeze();
+
+        this.trigrams = new HashMap<>(grams.size() * 2);
+        for (Map.Entry<String, IntList> entry : grams.entrySet()) {
+            trigrams.put(entry.getKey(), entry.getValue().toArray());
+        }
+    }
+
+    /**
+     * Normalizes station name for comparison: trims, lowercases, replaces "ё"
+     * with "е" and collapses runs of whitespace.
+     *
+     * @param name raw name (may be null)
+     * @return normalized name, empty string for null
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+
+        StringBuilder builder = new StringBuilder(name.length());
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = builder.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                builder.append(' ');
+                pendingSpace = false;
+            }
+            c = Character.toLowerCase(c);
+            builder.append(c == 'ё' ? 'е' : c);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns number of indexed stations.
+     *
+     * @return station count
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns original station name by id.
+     *
+     * @param id station id
+     * @return station name
+     */
+    public String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * Finds station whose normalized name equals normalized query.
+     *
+     * @param name station name
+     * @return station id or -1
+     */
+    public int find(String name) {
+        Integer id = exact.get(normalize(name));
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Resolves user input to a single station. Tries exact normalized match,
+     * then a unique prefix match, then the closest name within a small edit
+     * distance. Ambiguous or distant input is not resolved.
+     *
+     * @param name user input
+     * @return station id or -1
+     */
+    public int resolve(String name) {
+        String query = normalize(name);
+        if (query.isEmpty()) {
+            return -1;
+        }
+
+        Integer id = exact.get(query);
+        if (id != null) {
+            return id;
+        }
+
+        int[] prefixed = root.lookup(query);
+        if (prefixed.length == 1) {
+            return prefixed[0];
+        }
+
+        int maxEdits = maxEdits(query.length());
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        boolean tie = false;
+
+        for (int candidate : trigramCandidates(query)) {
+            int distance = editDistance(query, normalized[candidate], maxEdits);
+            if (distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+                tie = false;
+            } else if (distance == bestDistance) {
+                tie = true;
+            }
+        }
+
+        return (best != -1 && bestDistance <= maxEdits && !tie) ? best : -1;
+    }
+
+    /**
+     * Returns ranked station ids for autocomplete.
+     * Prefix matches of the full name come first, then matches at later word
+     * starts, then fuzzy matches when there are no prefix matches at all.
+     *
+     * @param query text typed so far
+     * @param limit maximum number of suggestions
+     * @return station ids, best first
+     */
+    public int[] suggestIds(String query, int limit) {
+        String key = normalize(query);
+        if (key.isEmpty() || limit <= 0) {
+            return NO_IDS;
+        }
+
+        int[] ids = root.lookup(key);
+        long[] ranked;
+        int count;
+
+        if (ids.length > 0) {
+            ranked = new long[ids.length];
+            count = 0;
+            for (int id : ids) {
+                int tier = normalized[id].startsWith(key) ? 0 : 1;
+                ranked[count++] = rank(tier, normalized[id].length(), id);
+            }
+        } else {
+            int[] candidates = trigramCandidates(key);
+            int maxEdits = Math.max(maxEdits(key.length()), key.length() / 3);
+            ranked = new long[candidates.length];
+            count = 0;
+            for (int id : candidates) {
+                int distance = editDistance(key, prefixOf(normalized[id], key.length()), maxEdits);
+                if (distance <= maxEdits) {
+                    ranked[count++] = rank(distance, normalized[id].length(), id);
+                }
+            }
+        }
+
+        Arrays.sort(ranked, 0, count);
+        int resultSize = Math.min(limit, count);
+        int[] result = new int[resultSize];
+        for (int i = 0; i < resultSize; i++) {
+            result[i] = (int) (ranked[i] & 0xFFFFF);
+        }
+        return result;
+    }
+
+    /**
+     * Returns ranked station names for autocomplete.
+     *
+     * @param query text typed so far
+     * @param limit maximum number of suggestions
+     * @return station names, best first
+     */
+    public List<String> suggest(String query, int limit) {
+        int[] ids = suggestIds(query, limit);
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+
+        List<String> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(names[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Packs ranking key so that a plain sort of longs orders by tier,
+     * then name length, then id.
+     */
+    private static long rank(int tier, int length, int id) {
+        return ((long) tier << 40) | ((long) Math.min(length, 0xFFFFF) << 20) | id;
+    }
+
+    private static String prefixOf(String name, int length) {
+        // Compare typed text against the beginning of the name, allowing one extra char
+        return name.length() > length + 1 ? name.substring(0, length + 1) : name;
+    }
+
+    private static int maxEdits(int length) {
+        if (length < 4) {
+            return 0;
+        }
+        return length < 8 ? 1 : 2;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-';
+    }
+
+    /**
+     * Collects stations sharing at least one trigram with the query.
+     */
+    private int[] trigramCandidates(String query) {
+        String padded = " " + query + " ";
+        if (padded.length() < 3) {
+            return NO_IDS;
+        }
+
+        int[] hits = new int[names.length];
+        IntList candidates = new IntList();
+
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            int[] ids = trigrams.get(padded.substring(i, i + 3));
+            if (ids == null) continue;
+            for (int id : ids) {
+                if (hits[id]++ == 0) {
+                    candidates.add(id);
+                }
+            }
+        }
+
+        return candidates.toArray();
+    }
+
+    /**
+     * Levenshtein distance with early exit once every cell of a row exceeds the bound.
+     * Returns {@code bound + 1} when the distance is larger than the bound.
+     */
+    static int editDistance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = (ca == b.charAt(j - 1)) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1),
+                        previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return Math.min(previous[b.length()], bound + 1);
+    }
+
+    /**
+     * Trie node with sorted child keys and the ids of all stations below it.
+     */
+    private static final class TrieNode {
+        private char[] keys = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private IntList building = new IntList();
+        private int[] ids = NO_IDS;
+
+        void insert(String key, int start, int id) {
+            TrieNode node = this;
+            for (int i = start; i < key.length(); i++) {
+                node = node.child(key.charAt(i), true);
+                node.building.addDistinct(id);
+            }
+        }
+
+        int[] lookup(String key) {
+            TrieNode node = this;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i), false);
+            }
+            return node != null ? node.ids : NO_IDS;
+        }
+
+        void freeze() {
+            ids = building.toArray();
+            building = null;
+            for (TrieNode child : children) {
+                child.freeze();
+            }
+        }
+
+        private TrieNode child(char c, boolean create) {
+            int pos = Arrays.binarySearch(keys, c);
+            if (pos >= 0) {
+                return children[pos];
+            }
+            if (!create) {
+                return null;
+            }
+
+            int insertAt = -pos - 1;
+            char[] newKeys = new char[keys.length + 1];
+            TrieNode[] newChildren = new TrieNode[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+
+            TrieNode node = new TrieNode();
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = node;
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+    }
+
+    /**
+     * Minimal growable int array.
+     */
+    private static final class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void addDistinct(int value) {
+            // Ids are inserted in ascending order, so duplicates are always adjacent
+            if (size == 0 || data[size - 1] != value) {
+                add(value);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
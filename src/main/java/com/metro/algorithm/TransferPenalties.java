@@ -0,0 +1,119 @@
+package com.metro.algorithm;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extra cost in minutes charged for changing lines, on top of the walk
+ * time stored in the graph. One default penalty applies to all interchanges;
+ * single interchanges can override it. Immutable.
+ *
+ * <p>Text format: one {@code station;station;minutes} line per interchange,
+ * empty lines and lines starting with '#' are skipped.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class TransferPenalties {
+
+    /** No penalties: routing by travel time only. */
+    public static final TransferPenalties NONE = new TransferPenalties(0, Collections.emptyMap());
+
+    private final int defaultPenalty;
+    private final Map<Long, Integer> overrides;
+
+    private TransferPenalties(int defaultPenalty, Map<Long, Integer> overrides) {
+        if (defaultPenalty < 0) {
+            throw new IllegalArgumentException("Transfer penalty must not be negative: " + defaultPenalty);
+        }
+        this.defaultPenalty = defaultPenalty;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Creates penalties with the same value for every interchange.
+     *
+     * @param defaultPenalty minutes per transfer
+     * @return penalties
+     * @throws IllegalArgumentException if penalty is negative
+     */
+    public static TransferPenalties uniform(int defaultPenalty) {
+        return new TransferPenalties(defaultPenalty, Collections.emptyMap());
+    }
+
+    /**
+     * Returns copy with penalty of one interchange replaced (both directions).
+     *
+     * @param a station id on one side
+     * @param b station id on other side
+     * @param penalty minutes per transfer
+     * @return new penalties
+     * @throws IllegalArgumentException if penalty is negative
+     */
+    public TransferPenalties with(int a, int b, int penalty) {
+        if (penalty < 0) {
+            throw new IllegalArgumentException("Transfer penalty must not be negative: " + penalty);
+        }
+        Map<Long, Integer> copy = new HashMap<>(overrides);
+        copy.put(key(a, b), penalty);
+        return new TransferPenalties(defaultPenalty, Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Parses per-interchange overrides.
+     *
+     * @param lines text lines in {@code station;station;minutes} format
+     * @param index station names, matched exactly after normalization
+     * @param defaultPenalty penalty of interchanges not listed
+     * @return penalties
+     * @throws IllegalArgumentException if a line is malformed or a name is not
+     *                                  an exact station name
+     */
+    public static TransferPenalties parse(List<String> lines, StationSearchIndex index, int defaultPenalty) {
+        TransferPenalties penalties = uniform(defaultPenalty);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] parts = line.split(";");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": expected 'station;station;minutes'");
+            }
+            // Только точное совпадение: префиксы и опечатки в конфигурации не угадываем
+            int a = index.find(parts[0]);
+            int b = index.find(parts[1]);
+            if (a == -1 || b == -1) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": station not found: "
+                        + (a == -1 ? parts[0] : parts[1]));
+            }
+            try {
+                penalties = penalties.with(a, b, Integer.parseInt(parts[2].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": invalid minutes: " + parts[2]);
+            }
+        }
+        return penalties;
+    }
+
+    /**
+     * Returns penalty for changing lines between two stations.
+     *
+     * @param from station id before transfer
+     * @param to station id after transfer
+     * @return minutes
+     */
+    public int penalty(int from, int to) {
+        Integer override = overrides.get(key(from, to));
+        return override != null ? override : defaultPenalty;
+    }
+
+    public int getDefaultPenalty() {
+        return defaultPenalty;
+    }
+
+    private static long key(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+}
@@ -0,0 +1,106 @@
+package com.metro.algorithm;
+
+/**
+ * Travel times of one period of the day (e.g. peak, off-peak, night) over
+ * the shared network topology, together with everything precomputed from
+ * those times. Station ids, names and line codes are shared by all
+ * profiles; only edge weights and weight-dependent indexes are per
+ * profile. Immutable, except that ALT landmark tables are built on first
+ * use: no query path needs them, so loads and reloads do not pay for them.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class WeightProfile {
+
+    private final String name;
+    private final CompactGraph graph;
+    private final int landmarks;
+    private volatile LandmarkIndex landmarkIndex;
+    private final ParetoSearch paretoSearch;
+    private final TransferRouter transferRouter;
+    private final DeltaSteppingSearch deltaStepping;
+
+    WeightProfile(String name, CompactGraph graph, int[] lines, int landmarks, TransferPenalties penalties) {
+        this(name, graph, lines, null, landmarks, penalties);
+    }
+
+    /**
+     * Creates profile with landmark tables built beforehand, e.g. read from
+     * a compiled network; if null, tables with the given number of
+     * landmarks are built on first use (0 disables them).
+     */
+    WeightProfile(String name, CompactGraph graph, int[] lines, LandmarkIndex landmarkIndex,
+                  int landmarks, TransferPenalties penalties) {
+        this.name = name;
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.landmarkIndex = landmarkIndex;
+        this.paretoSearch = new ParetoSearch(graph, lines, ParetoSearch.DEFAULT_MAX_TRANSFERS);
+        this.transferRouter = new TransferRouter(graph, lines, penalties);
+        this.deltaStepping = new DeltaSteppingSearch(graph);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Returns graph with travel times of this profile. */
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns ALT landmark tables, building them on first call.
+     *
+     * @return landmark index, or null if disabled
+     */
+    public LandmarkIndex getLandmarkIndex() {
+        LandmarkIndex index = landmarkIndex;
+        if (index == null && landmarks > 0) {
+            synchronized (this) {
+                index = landmarkIndex;
+                if (index == null) {
+                    index = LandmarkIndex.build(graph, landmarks);
+                    landmarkIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    public ParetoSearch getParetoSearch() {
+        return paretoSearch;
+    }
+
+    /** Returns router with default transfer penalties. */
+    public TransferRouter getTransferRouter() {
+        return transferRouter;
+    }
+
+    /** Returns parallel one-to-all search on the common pool. */
+    public DeltaSteppingSearch getDeltaSteppingSearch() {
+        return deltaStepping;
+    }
+
+    /**
+     * Returns approximate size of arrays owned by this profile; topology
+     * shared with other profiles and landmark tables not built yet are
+     * not included.
+     */
+    long estimatedBytes() {
+        long edges = graph.edgeCount();
+        // Веса рёбер, стоимости и флаги пересадок TransferRouter
+        long bytes = 4 * edges + 5 * edges;
+        LandmarkIndex index = landmarkIndex;
+        if (index != null) {
+            bytes += 8L * index.getLandmarks().length * graph.size();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightProfile{" + name + ", " + graph.edgeCount() + " edges}";
+    }
+}
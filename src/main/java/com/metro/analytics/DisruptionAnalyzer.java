@@ -0,0 +1,472 @@
+package com.metro.analytics;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.LongMinHeap;
+import com.metro.model.StationTable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Impact of every single failure on travel times between all pairs of
+ * stations. Scenarios are the closure of one tunnel (both directions of an
+ * edge) and the closure of one station.
+ *
+ * <p>Instead of an all-pairs computation per scenario, each source builds
+ * its shortest-path tree once. A failure can only change times to stations
+ * below the failed edge or station in that tree, so only that subtree is
+ * re-searched, seeded from its unaffected neighbours. Sources are split
+ * into chunks on a {@link ForkJoinPool}; every chunk keeps its own
+ * per-scenario accumulators, merged at the end. Only aggregates are kept,
+ * never per-pair results.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class DisruptionAnalyzer {
+
+    private static final Logger logger = LogManager.getLogger(DisruptionAnalyzer.class);
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    // Поля аккумулятора сценария
+    private static final int AFFECTED = 0;
+    private static final int DISCONNECTED = 1;
+    private static final int LOST = 2;
+    private static final int TOTAL_DELAY = 3;
+    private static final int MAX_DELAY = 4;
+    private static final int RECOMPUTED = 5;
+    private static final int FIELDS = 6;
+
+    private final CompactGraph graph;
+    private final ForkJoinPool pool;
+    private final int[] tunnelFrom;
+    private final int[] tunnelTo;
+    private final Map<Long, Integer> tunnelIds;
+
+    /**
+     * Creates analyzer on the common pool.
+     *
+     * @param graph network graph
+     */
+    public DisruptionAnalyzer(CompactGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates analyzer.
+     *
+     * @param graph network graph
+     * @param pool pool running source chunks
+     */
+    public DisruptionAnalyzer(CompactGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+
+        // Туннель - пара станций, рёбра в обе стороны закрываются вместе
+        tunnelIds = new HashMap<>();
+        int[] from = new int[graph.edgeCount()];
+        int[] to = new int[graph.edgeCount()];
+        for (int u = 0; u < graph.size(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                int v = graph.target(e);
+                long key = tunnelKey(u, v);
+                if (!tunnelIds.containsKey(key)) {
+                    from[tunnelIds.size()] = Math.min(u, v);
+                    to[tunnelIds.size()] = Math.max(u, v);
+                    tunnelIds.put(key, tunnelIds.size());
+                }
+            }
+        }
+        tunnelFrom = Arrays.copyOf(from, tunnelIds.size());
+        tunnelTo = Arrays.copyOf(to, tunnelIds.size());
+    }
+
+    private long tunnelKey(int a, int b) {
+        return (long) Math.min(a, b) * graph.size() + Math.max(a, b);
+    }
+
+    /** Returns number of tunnel scenarios. */
+    public int tunnelCount() {
+        return tunnelFrom.length;
+    }
+
+    /**
+     * Runs all scenarios and passes results to sink, tunnels first (in
+     * order of first appearance), then stations by id. Every scenario
+     * aggregates over all sources, so the sink is first called only after
+     * the whole source sweep has finished; nothing is delivered while it
+     * runs. Sink is called on the calling thread.
+     *
+     * @param sink receives one impact per scenario
+     */
+    public void analyze(Consumer<Impact> sink) {
+        long startTime = System.nanoTime();
+        int size = graph.size();
+        int chunkSize = Math.max(1, size / Math.max(1, pool.getParallelism() * CHUNKS_PER_THREAD));
+        long[] totals = size == 0 ? new long[0] : pool.invoke(new SourceTask(0, size, chunkSize));
+
+        int tunnels = tunnelFrom.length;
+        for (int scenario = 0; scenario < tunnels + size; scenario++) {
+            boolean tunnel = scenario < tunnels;
+            sink.accept(new Impact(
+                    tunnel ? Impact.Type.TUNNEL : Impact.Type.STATION,
+                    tunnel ? tunnelFrom[scenario] : scenario - tunnels,
+                    tunnel ? tunnelTo[scenario] : -1,
+                    Arrays.copyOfRange(totals, scenario * FIELDS, (scenario + 1) * FIELDS)));
+        }
+        logger.info("Disruption analysis of {} scenarios finished in {} ms",
+                tunnels + size, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * Runs all scenarios and writes one CSV row per scenario. Rows are
+     * written only after the whole source sweep of {@link #analyze} has
+     * finished, the header is written before it starts.
+     *
+     * @param stations station names
+     * @param out destination (flushed, not closed)
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(StationTable stations, Writer out) throws IOException {
+        out.write("type,from,to,affected_pairs,disconnected_pairs,lost_pairs,"
+                + "total_delay,mean_delay,max_delay,recomputed_sources\n");
+        try {
+            analyze(impact -> {
+                StringBuilder row = new StringBuilder(96);
+                row.append(impact.getType() == Impact.Type.TUNNEL ? "tunnel" : "station").append(',');
+                appendCsv(row, stations.getName(impact.getFrom()));
+                row.append(',');
+                if (impact.getTo() >= 0) appendCsv(row, stations.getName(impact.getTo()));
+                row.append(',').append(impact.getAffectedPairs())
+                        .append(',').append(impact.getDisconnectedPairs())
+                        .append(',').append(impact.getLostPairs())
+                        .append(',').append(impact.getTotalDelay())
+                        .append(',').append(String.format(Locale.ROOT, "%.2f", impact.getMeanDelay()))
+                        .append(',').append(impact.getMaxDelay())
+                        .append(',').append(impact.getRecomputedSources()).append('\n');
+                try {
+                    out.write(row.toString());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private static void appendCsv(StringBuilder out, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private final class SourceTask extends RecursiveTask<long[]> {
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        SourceTask(int from, int to, int chunkSize) {
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > chunkSize) {
+                int mid = (from + to) >>> 1;
+                SourceTask left = new SourceTask(from, mid, chunkSize);
+                left.fork();
+                long[] right = new SourceTask(mid, to, chunkSize).compute();
+                long[] merged = left.join();
+                for (int i = 0; i < merged.length; i++) {
+                    merged[i] = i % FIELDS == MAX_DELAY ? Math.max(merged[i], right[i]) : merged[i] + right[i];
+                }
+                return merged;
+            }
+
+            long[] totals = new long[(tunnelFrom.length + graph.size()) * FIELDS];
+            Worker worker = new Worker(totals);
+            for (int source = from; source < to; source++) {
+                worker.process(source);
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * Per-chunk search state.
+     */
+    private final class Worker {
+        final long[] totals;
+        final int size = graph.size();
+        final int[] dist = new int[size];
+        final int[] parent = new int[size];
+        final int[] repaired = new int[size];
+        final int[] childOffsets = new int[size + 1];
+        final int[] children = new int[size];
+        final int[] preorder = new int[size];
+        final int[] position = new int[size];
+        final int[] subtreeSize = new int[size];
+        final int[] stack = new int[size];
+        final int[] mark = new int[size];
+        final CompactGraph reversed = graph.reverse();
+        final LongMinHeap heap = new LongMinHeap(graph.edgeCount() + 1);
+        int stamp;
+
+        Worker(long[] totals) {
+            this.totals = totals;
+        }
+
+        void process(int source) {
+            buildTree(source);
+            int tunnels = tunnelFrom.length;
+
+            // Поездки из закрытой станции и в неё теряются
+            int reachable = 0;
+            for (int v = 0; v < size; v++) {
+                if (dist[v] != INF && v != source) {
+                    reachable++;
+                    totals[(tunnels + v) * FIELDS + LOST]++;
+                }
+            }
+            totals[(tunnels + source) * FIELDS + LOST] += reachable;
+
+            for (int v = 0; v < size; v++) {
+                if (dist[v] == INF || v == source) continue;
+
+                // Закрытие туннеля parent[v] - v: пересчитываем поддерево v
+                int tunnel = tunnelIds.get(tunnelKey(parent[v], v));
+                repair(position[v], position[v] + subtreeSize[v], parent[v], v, -1, tunnel);
+
+                // Закрытие станции v: пересчитываем её поддерево без неё самой
+                if (subtreeSize[v] > 1) {
+                    repair(position[v] + 1, position[v] + subtreeSize[v], -1, -1, v, tunnels + v);
+                }
+            }
+        }
+
+        /**
+         * Dijkstra from source with parent pointers, then preorder of the tree.
+         */
+        private void buildTree(int source) {
+            Arrays.fill(dist, INF);
+            Arrays.fill(parent, -1);
+            heap.clear();
+            dist[source] = 0;
+            heap.push(LongMinHeap.key(0, source));
+            while (!heap.isEmpty()) {
+                long key = heap.pop();
+                int u = LongMinHeap.station(key);
+                int d = LongMinHeap.distance(key);
+                if (d > dist[u]) continue;
+                for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                    int v = graph.target(e);
+                    int alt = d + graph.weight(e);
+                    if (alt < dist[v]) {
+                        dist[v] = alt;
+                        parent[v] = u;
+                        heap.push(LongMinHeap.key(alt, v));
+                    }
+                }
+            }
+
+            Arrays.fill(childOffsets, 0);
+            for (int v = 0; v < size; v++) {
+                if (parent[v] != -1) childOffsets[parent[v] + 1]++;
+            }
+            for (int v = 0; v < size; v++) {
+                childOffsets[v + 1] += childOffsets[v];
+            }
+            int[] fill = Arrays.copyOf(childOffsets, size);
+            for (int v = 0; v < size; v++) {
+                if (parent[v] != -1) children[fill[parent[v]]++] = v;
+            }
+
+            // Итеративный обход в прямом порядке; размеры поддеревьев считаем с конца
+            int count = 0;
+            int top = 0;
+            stack[top++] = source;
+            while (top > 0) {
+                int u = stack[--top];
+                position[u] = count;
+                preorder[count++] = u;
+                for (int c = childOffsets[u]; c < childOffsets[u + 1]; c++) {
+                    stack[top++] = children[c];
+                }
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                int u = preorder[i];
+                subtreeSize[u] = 1;
+                for (int c = childOffsets[u]; c < childOffsets[u + 1]; c++) {
+                    subtreeSize[u] += subtreeSize[children[c]];
+                }
+            }
+        }
+
+        /**
+         * Checks whether station keeps its distance through an edge from
+         * outside {@code preorder[from..to)}.
+         */
+        private boolean hasBypass(int w, int from, int to, int a, int b, int closedStation) {
+            for (int e = reversed.firstEdge(w), end = reversed.firstEdge(w + 1); e < end; e++) {
+                int x = reversed.target(e);
+                if (x == closedStation || dist[x] == INF || (position[x] >= from && position[x] < to)) continue;
+                if ((x == a && w == b) || (x == b && w == a)) continue;
+                if (dist[x] + reversed.weight(e) == dist[w]) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Re-searches stations {@code preorder[from..to)} with a tunnel
+         * {@code a - b} or a station closed, and adds their delays to scenario.
+         */
+        private void repair(int from, int to, int a, int b, int closedStation, int scenario) {
+            // Если у каждого корня поддерева есть равноценный заход снаружи, времена не меняются
+            boolean bypassed = true;
+            for (int i = from; i < to && bypassed; i += subtreeSize[preorder[i]]) {
+                bypassed = hasBypass(preorder[i], from, to, a, b, closedStation);
+            }
+            if (bypassed) return;
+
+            stamp++;
+            for (int i = from; i < to; i++) {
+                mark[preorder[i]] = stamp;
+            }
+
+            // Начальные значения - через входящие рёбра из нетронутой части дерева
+            heap.clear();
+            for (int i = from; i < to; i++) {
+                int w = preorder[i];
+                int best = INF;
+                for (int e = reversed.firstEdge(w), end = reversed.firstEdge(w + 1); e < end; e++) {
+                    int x = reversed.target(e);
+                    if (mark[x] == stamp || x == closedStation || dist[x] == INF) continue;
+                    if ((x == a && w == b) || (x == b && w == a)) continue;
+                    best = Math.min(best, dist[x] + reversed.weight(e));
+                }
+                repaired[w] = best;
+                if (best != INF) heap.push(LongMinHeap.key(best, w));
+            }
+
+            while (!heap.isEmpty()) {
+                long key = heap.pop();
+                int u = LongMinHeap.station(key);
+                int d = LongMinHeap.distance(key);
+                if (d > repaired[u]) continue;
+                for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                    int v = graph.target(e);
+                    if (mark[v] != stamp || (u == a && v == b) || (u == b && v == a)) continue;
+                    int alt = d + graph.weight(e);
+                    if (alt < repaired[v]) {
+                        repaired[v] = alt;
+                        heap.push(LongMinHeap.key(alt, v));
+                    }
+                }
+            }
+
+            int base = scenario * FIELDS;
+            totals[base + RECOMPUTED]++;
+            for (int i = from; i < to; i++) {
+                int w = preorder[i];
+                if (repaired[w] == INF) {
+                    totals[base + DISCONNECTED]++;
+                } else if (repaired[w] > dist[w]) {
+                    int delay = repaired[w] - dist[w];
+                    totals[base + AFFECTED]++;
+                    totals[base + TOTAL_DELAY] += delay;
+                    totals[base + MAX_DELAY] = Math.max(totals[base + MAX_DELAY], delay);
+                }
+            }
+        }
+    }
+
+    /**
+     * Aggregate impact of one failure scenario over all origin-destination pairs.
+     */
+    public static final class Impact {
+
+        /** Kind of failure. */
+        public enum Type {
+            TUNNEL,
+            STATION
+        }
+
+        private final Type type;
+        private final int from;
+        private final int to;
+        private final long[] values;
+
+        Impact(Type type, int from, int to, long[] values) {
+            this.type = type;
+            this.from = from;
+            this.to = to;
+            this.values = values;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /** Returns closed station, or first station of closed tunnel. */
+        public int getFrom() {
+            return from;
+        }
+
+        /** Returns second station of closed tunnel, -1 for station closures. */
+        public int getTo() {
+            return to;
+        }
+
+        /** Returns number of pairs that still connect but take longer. */
+        public long getAffectedPairs() {
+            return values[AFFECTED];
+        }
+
+        /** Returns number of pairs that lose their connection. */
+        public long getDisconnectedPairs() {
+            return values[DISCONNECTED];
+        }
+
+        /** Returns number of trips starting or ending at the closed station. */
+        public long getLostPairs() {
+            return values[LOST];
+        }
+
+        /** Returns sum of extra minutes over affected pairs. */
+        public long getTotalDelay() {
+            return values[TOTAL_DELAY];
+        }
+
+        public long getMaxDelay() {
+            return values[MAX_DELAY];
+        }
+
+        /** Returns mean extra minutes per affected pair. */
+        public double getMeanDelay() {
+            return values[AFFECTED] == 0 ? 0 : (double) values[TOTAL_DELAY] / values[AFFECTED];
+        }
+
+        /** Returns number of sources whose trees had to be repaired. */
+        public long getRecomputedSources() {
+            return values[RECOMPUTED];
+        }
+    }
+}
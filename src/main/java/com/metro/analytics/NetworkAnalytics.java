@@ -0,0 +1,384 @@
+package com.metro.analytics;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.model.StationTable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Network-wide centrality measures computed from one shortest-path search
+ * per source station.
+ *
+ * <ul>
+ *     <li>betweenness of stations and edges (Brandes, weighted, directed)</li>
+ *     <li>closeness (Wasserman-Faust, valid for disconnected networks)</li>
+ *     <li>eccentricity and diameter over reachable pairs</li>
+ * </ul>
+ *
+ * Sources are split into chunks on a {@link ForkJoinPool}; every chunk owns
+ * its search buffers and betweenness accumulators, which are summed when
+ * chunks are joined. Edge weights are expected to be positive integers
+ * of modest size (minutes).
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class NetworkAnalytics {
+
+    private static final Logger logger = LogManager.getLogger(NetworkAnalytics.class);
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    /** Number of chunks per pool thread, for load balancing. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final CompactGraph graph;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates analytics on the common pool.
+     *
+     * @param graph network graph
+     */
+    public NetworkAnalytics(CompactGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public NetworkAnalytics(CompactGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Runs all searches and returns collected measures.
+     *
+     * @return analytics report
+     */
+    public Report compute() {
+        long startTime = System.nanoTime();
+        int size = graph.size();
+        int chunkSize = Math.max(1, size / Math.max(1, pool.getParallelism() * CHUNKS_PER_THREAD));
+
+        Accumulator total = size == 0 ? new Accumulator(graph)
+                : pool.invoke(new SourceTask(0, size, chunkSize));
+
+        int diameter = 0;
+        for (int e : total.eccentricity) {
+            diameter = Math.max(diameter, e);
+        }
+
+        Report report = new Report(total.betweenness, total.edgeBetweenness,
+                total.closeness, total.eccentricity, diameter, graph);
+        logger.info("Network analytics for {} stations finished in {} ms",
+                size, (System.nanoTime() - startTime) / 1_000_000);
+        return report;
+    }
+
+    /**
+     * Processes range of sources, splitting it until chunks are small.
+     */
+    private final class SourceTask extends RecursiveTask<Accumulator> {
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        SourceTask(int from, int to, int chunkSize) {
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from > chunkSize) {
+                int mid = (from + to) >>> 1;
+                SourceTask left = new SourceTask(from, mid, chunkSize);
+                left.fork();
+                Accumulator right = new SourceTask(mid, to, chunkSize).compute();
+                return left.join().merge(right);
+            }
+
+            Accumulator accumulator = new Accumulator(graph);
+            Search search = new Search(graph);
+            for (int source = from; source < to; source++) {
+                search.run(source, accumulator);
+            }
+            return accumulator;
+        }
+    }
+
+    /**
+     * Per-chunk results. Betweenness is summed over sources; closeness and
+     * eccentricity are written only for the chunk's own sources.
+     */
+    private static final class Accumulator {
+        final double[] betweenness;
+        final double[] edgeBetweenness;
+        final double[] closeness;
+        final int[] eccentricity;
+
+        Accumulator(CompactGraph graph) {
+            betweenness = new double[graph.size()];
+            edgeBetweenness = new double[graph.edgeCount()];
+            closeness = new double[graph.size()];
+            eccentricity = new int[graph.size()];
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int i = 0; i < betweenness.length; i++) {
+                betweenness[i] += other.betweenness[i];
+                closeness[i] += other.closeness[i];
+                eccentricity[i] += other.eccentricity[i];
+            }
+            for (int i = 0; i < edgeBetweenness.length; i++) {
+                edgeBetweenness[i] += other.edgeBetweenness[i];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Single-source Brandes step with reusable buffers. Travel times are
+     * small integers, so the search uses a circular bucket queue (Dial)
+     * of {@code maxWeight + 1} doubly linked buckets instead of a heap.
+     */
+    private static final class Search {
+        final CompactGraph graph;
+        final int[] dist;
+        final double[] sigma;
+        final double[] ratio;
+        final int[] order;
+        final int[] position;
+        final int[] bucketHead;
+        final int[] next;
+        final int[] prev;
+
+        Search(CompactGraph graph) {
+            this.graph = graph;
+            int size = graph.size();
+            int maxWeight = 0;
+            for (int e = 0; e < graph.edgeCount(); e++) {
+                maxWeight = Math.max(maxWeight, graph.weight(e));
+            }
+            dist = new int[size];
+            sigma = new double[size];
+            ratio = new double[size];
+            order = new int[size];
+            position = new int[size];
+            bucketHead = new int[maxWeight + 1];
+            next = new int[size];
+            prev = new int[size];
+        }
+
+        void run(int source, Accumulator accumulator) {
+            Arrays.fill(dist, INF);
+            Arrays.fill(sigma, 0);
+            Arrays.fill(position, -1);
+            Arrays.fill(bucketHead, -1);
+
+            dist[source] = 0;
+            sigma[source] = 1;
+            insert(source, 0);
+            int queued = 1;
+            int settled = 0;
+            long distanceSum = 0;
+            int eccentricity = 0;
+
+            // Дейкстра с подсчётом числа кратчайших путей
+            for (int d = 0; queued > 0; d++) {
+                int slot = d % bucketHead.length;
+                while (bucketHead[slot] != -1) {
+                    int u = bucketHead[slot];
+                    remove(u, slot);
+                    queued--;
+
+                    position[u] = settled;
+                    order[settled++] = u;
+                    distanceSum += d;
+                    eccentricity = d;
+
+                    for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                        int v = graph.target(e);
+                        int alt = d + graph.weight(e);
+                        if (alt < dist[v]) {
+                            if (dist[v] == INF) {
+                                queued++;
+                            } else {
+                                remove(v, dist[v] % bucketHead.length);
+                            }
+                            dist[v] = alt;
+                            sigma[v] = sigma[u];
+                            insert(v, alt % bucketHead.length);
+                        } else if (alt == dist[v] && position[v] == -1) {
+                            sigma[v] += sigma[u];
+                        }
+                    }
+                }
+            }
+
+            // Накопление зависимостей в обратном порядке закрепления
+            for (int i = settled - 1; i >= 0; i--) {
+                int v = order[i];
+                double sum = 0;
+                for (int e = graph.firstEdge(v), end = graph.firstEdge(v + 1); e < end; e++) {
+                    int w = graph.target(e);
+                    if (position[w] > i && dist[v] + graph.weight(e) == dist[w]) {
+                        double share = sigma[v] * ratio[w];
+                        accumulator.edgeBetweenness[e] += share;
+                        sum += share;
+                    }
+                }
+                // Храним (1 + delta) / sigma, чтобы не делить на каждом ребре
+                ratio[v] = (1 + sum) / sigma[v];
+                if (v != source) {
+                    accumulator.betweenness[v] += sum;
+                }
+            }
+
+            int size = graph.size();
+            int reachable = settled - 1;
+            accumulator.closeness[source] = reachable == 0 || size < 2 ? 0
+                    : (double) reachable / distanceSum * reachable / (size - 1);
+            accumulator.eccentricity[source] = eccentricity;
+        }
+
+        private void insert(int station, int slot) {
+            int head = bucketHead[slot];
+            next[station] = head;
+            prev[station] = -1;
+            if (head != -1) prev[head] = station;
+            bucketHead[slot] = station;
+        }
+
+        private void remove(int station, int slot) {
+            if (prev[station] != -1) {
+                next[prev[station]] = next[station];
+            } else {
+                bucketHead[slot] = next[station];
+            }
+            if (next[station] != -1) prev[next[station]] = prev[station];
+        }
+    }
+
+    /**
+     * Computed measures, indexed by station id or edge index of the graph.
+     */
+    public static final class Report {
+        private final double[] betweenness;
+        private final double[] edgeBetweenness;
+        private final double[] closeness;
+        private final int[] eccentricity;
+        private final int diameter;
+        private final CompactGraph graph;
+
+        Report(double[] betweenness, double[] edgeBetweenness, double[] closeness,
+               int[] eccentricity, int diameter, CompactGraph graph) {
+            this.betweenness = betweenness;
+            this.edgeBetweenness = edgeBetweenness;
+            this.closeness = closeness;
+            this.eccentricity = eccentricity;
+            this.diameter = diameter;
+            this.graph = graph;
+        }
+
+        /** Returns number of shortest paths between other stations through station. */
+        public double getBetweenness(int station) {
+            return betweenness[station];
+        }
+
+        /** Returns number of shortest paths using edge (index in {@link CompactGraph}). */
+        public double getEdgeBetweenness(int edge) {
+            return edgeBetweenness[edge];
+        }
+
+        public double getCloseness(int station) {
+            return closeness[station];
+        }
+
+        /** Returns longest shortest travel time from station to a reachable station. */
+        public int getEccentricity(int station) {
+            return eccentricity[station];
+        }
+
+        /** Returns longest shortest travel time between any reachable pair. */
+        public int getDiameter() {
+            return diameter;
+        }
+
+        /**
+         * Writes one row per station, most central first.
+         *
+         * @param stations station names
+         * @param out destination (flushed, not closed)
+         * @throws IOException if writing fails
+         */
+        public void writeStationCsv(StationTable stations, Writer out) throws IOException {
+            out.write("station,betweenness,closeness,eccentricity\n");
+            for (int v : sortedByDescending(betweenness)) {
+                StringBuilder row = new StringBuilder(64);
+                appendCsv(row, stations.getName(v));
+                row.append(',').append(format(betweenness[v]))
+                        .append(',').append(format(closeness[v]))
+                        .append(',').append(eccentricity[v]).append('\n');
+                out.write(row.toString());
+            }
+            out.flush();
+        }
+
+        /**
+         * Writes one row per edge (tunnel), most used first.
+         *
+         * @param stations station names
+         * @param out destination (flushed, not closed)
+         * @throws IOException if writing fails
+         */
+        public void writeEdgeCsv(StationTable stations, Writer out) throws IOException {
+            int[] source = new int[graph.edgeCount()];
+            for (int u = 0; u < graph.size(); u++) {
+                for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                    source[e] = u;
+                }
+            }
+
+            out.write("from,to,time,betweenness\n");
+            for (int e : sortedByDescending(edgeBetweenness)) {
+                StringBuilder row = new StringBuilder(64);
+                appendCsv(row, stations.getName(source[e]));
+                row.append(',');
+                appendCsv(row, stations.getName(graph.target(e)));
+                row.append(',').append(graph.weight(e))
+                        .append(',').append(format(edgeBetweenness[e])).append('\n');
+                out.write(row.toString());
+            }
+            out.flush();
+        }
+
+        private static int[] sortedByDescending(double[] values) {
+            Integer[] order = new Integer[values.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Double.compare(values[b], values[a]));
+            int[] result = new int[order.length];
+            for (int i = 0; i < order.length; i++) result[i] = order[i];
+            return result;
+        }
+
+        private static String format(double value) {
+            return String.format(Locale.ROOT, "%.4f", value);
+        }
+
+        private static void appendCsv(StringBuilder out, String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+                out.append(value);
+                return;
+            }
+            out.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.metro.batch;
+
+import com.metro.algorithm.MetroPathFinder;
+import com.metro.model.CompactPathResult;
+import com.metro.model.StationTable;
+import com.metro.utils.JsonWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams origin-destination pairs through the router.
+ * Input is read line by line ({@code from;to}), routes are computed on a
+ * worker pool, and results are written in input order. At most
+ * {@code maxInFlight} rows are buffered at any time, so memory use does not
+ * depend on input size.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public class BatchRouter {
+
+    private static final Logger logger = LogManager.getLogger(BatchRouter.class);
+
+    /** Output format of result rows. */
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    private static final String CSV_HEADER = "line,from,to,status,total_time,stations,route";
+    private static final char ROUTE_SEPARATOR = '|';
+
+    private final MetroPathFinder pathFinder;
+    private final Format format;
+    private final int threads;
+    private final int maxInFlight;
+
+    /**
+     * Creates batch router.
+     *
+     * @param pathFinder shared router
+     * @param format output format
+     * @param threads number of worker threads
+     * @param maxInFlight maximum number of rows queued or being routed
+     */
+    public BatchRouter(MetroPathFinder pathFinder, Format format, int threads, int maxInFlight) {
+        if (threads < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("threads and maxInFlight must be positive");
+        }
+        this.pathFinder = pathFinder;
+        this.format = format;
+        this.threads = threads;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Routes all pairs from input and writes one result row per pair.
+     * Empty lines and lines starting with '#' are skipped; malformed lines
+     * produce an error row. Writer is flushed but not closed.
+     *
+     * @param input source of {@code from;to} lines
+     * @param output destination for result rows
+     * @return processing statistics
+     * @throws IOException if reading or writing fails
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public Stats run(BufferedReader input, Writer output) throws IOException, InterruptedException {
+        long startTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Row>> window = new ArrayDeque<>(maxInFlight);
+        StringBuilder buffer = new StringBuilder(256);
+        long rows = 0;
+        long failed = 0;
+
+        try {
+            if (format == Format.CSV) {
+                output.write(CSV_HEADER);
+                output.write('\n');
+            }
+
+            String line;
+            long lineNumber = 0;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+
+                if (window.size() == maxInFlight) {
+                    failed += writeRow(window.removeFirst(), output, buffer);
+                    rows++;
+                }
+
+                long number = lineNumber;
+                window.addLast(executor.submit(() -> route(number, trimmed)));
+            }
+
+            while (!window.isEmpty()) {
+                failed += writeRow(window.removeFirst(), output, buffer);
+                rows++;
+            }
+
+            output.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Stats stats = new Stats(rows, failed, System.nanoTime() - startTime);
+        logger.info("Batch routing finished: {}", stats);
+        return stats;
+    }
+
+    private Row route(long lineNumber, String line) {
+        int separator = line.indexOf(';');
+        if (separator < 0 || line.indexOf(';', separator + 1) >= 0) {
+            return new Row(lineNumber, line, "",
+                    CompactPathResult.error(pathFinder.getStationTable(), "Expected 'from;to'"));
+        }
+
+        String from = line.substring(0, separator).trim();
+        String to = line.substring(separator + 1).trim();
+        return new Row(lineNumber, from, to, pathFinder.findShortestPathCompact(from, to));
+    }
+
+    /**
+     * Waits for row, formats and writes it.
+     *
+     * @return 1 if row is an error, 0 otherwise
+     */
+    private int writeRow(Future<Row> future, Writer output, StringBuilder buffer)
+            throws IOException, InterruptedException {
+        Row row;
+        try {
+            row = future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Routing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        buffer.setLength(0);
+        if (format == Format.CSV) {
+            formatCsv(row, buffer);
+        } else {
+            formatJson(row, buffer);
+        }
+        buffer.append('\n');
+        output.append(buffer);
+
+        return row.result.hasError() ? 1 : 0;
+    }
+
+    private static void formatCsv(Row row, StringBuilder out) {
+        CompactPathResult result = row.result;
+        out.append(row.lineNumber).append(',');
+        appendCsv(out, row.from);
+        out.append(',');
+        appendCsv(out, row.to);
+        out.append(',');
+
+        if (result.hasError()) {
+            out.append("error,,,");
+            appendCsv(out, result.getErrorMessage());
+            return;
+        }
+
+        out.append("ok,").append(result.getTotalTime()).append(',')
+                .append(result.getStationCount()).append(',');
+
+        // Станции маршрута одной ячейкой через '|'
+        StationTable stations = result.getStationTable();
+        StringBuilder route = new StringBuilder(result.getStationCount() * 24);
+        for (int i = 0; i < result.getStationCount(); i++) {
+            if (i > 0) route.append(ROUTE_SEPARATOR);
+            route.append(stations.getName(result.getStationId(i)));
+        }
+        appendCsv(out, route);
+    }
+
+    private static void formatJson(Row row, StringBuilder out) {
+        CompactPathResult result = row.result;
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject()
+                .name("line").value(row.lineNumber)
+                .name("from").value(row.from)
+                .name("to").value(row.to);
+
+        if (result.hasError()) {
+            json.name("error").value(result.getErrorMessage()).endObject();
+            return;
+        }
+
+        StationTable stations = result.getStationTable();
+        json.name("totalTime").value(result.getTotalTime())
+                .name("stations").beginArray();
+        for (int i = 0; i < result.getStationCount(); i++) {
+            json.value(stations.getName(result.getStationId(i)));
+        }
+        json.endArray().endObject();
+    }
+
+    /**
+     * Appends CSV field, quoting it when it contains separators or quotes.
+     */
+    static void appendCsv(StringBuilder out, CharSequence value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.append('"');
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static final class Row {
+        final long lineNumber;
+        final String from;
+        final String to;
+        final CompactPathResult result;
+
+        Row(long lineNumber, String from, String to, CompactPathResult result) {
+            this.lineNumber = lineNumber;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Batch run statistics.
+     */
+    public static final class Stats {
+        private final long rows;
+        private final long failed;
+        private final long elapsedNanos;
+
+        Stats(long rows, long failed, long elapsedNanos) {
+            this.rows = rows;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getRowsPerSecond() {
+            return rows / Math.max(elapsedNanos / 1e9, 1e-9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows (%d failed) in %.2f s, %.0f rows/s",
+                    rows, failed, elapsedNanos / 1e9, getRowsPerSecond());
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.metro.gui;
 
 import com.metro.algorithm.MetroPathFinder;
+import com.metro.algorithm.StationSearchIndex;
 import com.metro.model.PathResult;
+import com.metro.reload.NetworkDiff;
+import com.metro.reload.NetworkReloader;
+import com.metro.reload.NetworkSnapshot;
 import com.metro.utils.ResourceLoader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.AffineTransform;
@@ -17,21 +23,33 @@ import java.util.stream.Collectors;
 public class MetroGUI extends JFrame {
 
     private static final Logger logger = LogManager.getLogger(MetroGUI.class);
+    private static final int MAX_SUGGESTIONS = 8;
 
     private DrawingPanel drawingPanel;
     private JTextField startStationField;
     private JTextField endStationField;
     private List<Station> stations;
+    private StationSearchIndex stationIndex;
+    private MetroMapRenderer renderer;
     private Station selectedStart = null;
     private Station selectedEnd = null;
     private List<String> currentPath = new ArrayList<>();
+    private final NetworkReloader reloader;
 
     public MetroGUI() {
-        super("Metro Navigator");
-        stations = ResourceLoader.loadStations();
+        this(null);
+    }
 
-        // Простая инициализация смещений
-        initializeSimpleTextOffsets();
+    /**
+     * Creates window that follows network reloads.
+     *
+     * @param reloader live network source, or null to load resources once
+     */
+    public MetroGUI(NetworkReloader reloader) {
+        super("Metro Navigator");
+        this.reloader = reloader;
+        setStations(reloader != null ? new ArrayList<>(reloader.current().getStations())
+                : ResourceLoader.loadStations());
 
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setSize(1100, 1000);
@@ -48,6 +66,40 @@ public class MetroGUI extends JFrame {
         add(createInputPanel(), BorderLayout.SOUTH);
         setLocationRelativeTo(null); // Центрируем окно
         setVisible(true);
+
+        if (reloader != null) {
+            reloader.addListener(new NetworkReloader.Listener() {
+                @Override
+                public void networkReloaded(NetworkSnapshot previous, NetworkSnapshot current, NetworkDiff diff) {
+                    List<Station> updated = new ArrayList<>(current.getStations());
+                    SwingUtilities.invokeLater(() -> applyNetwork(updated));
+                }
+            });
+        }
+    }
+
+    private void setStations(List<Station> newStations) {
+        stations = newStations;
+        stationIndex = new StationSearchIndex(
+                stations.stream().map(s -> s.name).collect(Collectors.toList()));
+
+        // Простая инициализация смещений
+        MetroMapRenderer.initializeSimpleTextOffsets(stations);
+        renderer = new MetroMapRenderer(stations);
+    }
+
+    /**
+     * Switches map to reloaded stations; the shown route is dropped
+     * because it was computed on the previous network.
+     */
+    private void applyNetwork(List<Station> newStations) {
+        setStations(newStations);
+        selectedStart = null;
+        selectedEnd = null;
+        currentPath = new ArrayList<>();
+        drawingPanel.clearAll();
+        drawingPanel.repaint();
+        logger.info("Map updated to reloaded network with {} stations", stations.size());
     }
 
     public static class Station {
@@ -64,64 +116,21 @@ public class MetroGUI extends JFrame {
             this.textX = x + 8; // По умолчанию справа
             this.textY = y + 4; // По умолчанию немного ниже
         }
-    }
 
-    // Простая инициализация смещений текста
-    private void initializeSimpleTextOffsets() {
-        // Только для самых проблемных станций
-        for (Station station : stations) {
-            // По умолчанию все станции имеют текст справа
-            station.textX = station.x + 8;
-            station.textY = station.y + 4;
-
-            // Для станций слева от линии - сдвигаем текст влево
-            if (station.x < 300) {
-                station.textX = station.x - 60;
-                station.textY = station.y;
-            }
+        public String getName() {
+            return name;
+        }
 
-            // Для станций в центре - сдвигаем текст вверх
-            if (station.y > 300 && station.y < 600 && station.x > 300 && station.x < 600) {
-                station.textY = station.y - 10;
-            }
+        public String getLine() {
+            return line;
+        }
 
-            // Особые случаи для конкретных станций
-            switch (station.name) {
-                case "Невский проспект":
-                    station.textY = station.y - 15;
-                    break;
-                case "Маяковская":
-                    station.textY = station.y - 25;
-                    station.textX = station.x - 10;
-                    break;
-                case "Владимирская":
-                case "Пушкинская":
-                case "Достоевская":
-                    station.textX = station.x - 15;
-                    station.textY = station.y;
-                    break;
-                case "Чернышевская":
-                case "Площадь Ленина":
-                    station.textX = station.x + 10;
-                    station.textY = station.y;
-                    break;
-                case "Гостиный двор":
-                    station.textX = station.x - 75;
-                    station.textY = station.y + 4;
-                    break;
-                case "Технологический институт-1":
-                case "Технологический институт-2":
-                case "Площадь Александра Невского-1":
-                case "Площадь Александра Невского-2":
-                    station.textY = station.y - 15;
-                    break;
-                case "Сенная площадь":
-                case "Спасская":
-                case "Садовая":
-                case "Адмиралтейская":
-                    station.textY = station.y + 5;
-                    break;
-            }
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
         }
     }
 
@@ -137,7 +146,120 @@ public class MetroGUI extends JFrame {
             }
         }
 
-        return null;
+        // Регистр, ё/е и опечатки
+        int index = stationIndex.resolve(normalizedName);
+        return index != -1 ? stations.get(index) : null;
+    }
+
+    // Выпадающий список подсказок под полем ввода станции
+    private void installAutocomplete(JTextField field) {
+        DefaultListModel<String> model = new DefaultListModel<>();
+        JList<String> list = new JList<>(model);
+        list.setFocusable(false);
+        list.setFont(field.getFont());
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        JPopupMenu popup = new JPopupMenu();
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(list));
+
+        boolean[] updating = {false};
+
+        Runnable accept = () -> {
+            String value = list.getSelectedValue();
+            if (value != null) {
+                updating[0] = true;
+                field.setText(value);
+                updating[0] = false;
+            }
+            popup.setVisible(false);
+        };
+
+        Runnable refresh = () -> {
+            if (!field.isFocusOwner()) {
+                return;
+            }
+
+            List<String> suggestions = stationIndex.suggest(field.getText(), MAX_SUGGESTIONS);
+            model.clear();
+            for (String suggestion : suggestions) {
+                model.addElement(suggestion);
+            }
+
+            boolean exactMatch = suggestions.size() == 1
+                    && suggestions.get(0).equals(field.getText().trim());
+            if (suggestions.isEmpty() || exactMatch) {
+                popup.setVisible(false);
+                return;
+            }
+
+            list.setSelectedIndex(0);
+            list.setVisibleRowCount(Math.min(suggestions.size(), MAX_SUGGESTIONS));
+            popup.pack();
+            popup.show(field, 0, field.getHeight());
+        };
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            // События от setText в accept приходят синхронно, пока флаг поднят;
+            // refresh выполняется позже, поэтому проверяем флаг здесь
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                if (!updating[0]) SwingUtilities.invokeLater(refresh);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                if (!updating[0]) SwingUtilities.invokeLater(refresh);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) {
+                    return;
+                }
+
+                int selected = list.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        list.setSelectedIndex(Math.min(selected + 1, model.getSize() - 1));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        list.setSelectedIndex(Math.max(selected - 1, 0));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        accept.run();
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        popup.setVisible(false);
+                        e.consume();
+                        break;
+                }
+            }
+        });
+
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                popup.setVisible(false);
+            }
+        });
+
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                list.setSelectedIndex(list.locationToIndex(e.getPoint()));
+                accept.run();
+            }
+        });
     }
 
     private JPanel createInputPanel() {
@@ -163,6 +285,9 @@ public class MetroGUI extends JFrame {
         startStationField.setFont(fieldFont);
         endStationField.setFont(fieldFont);
 
+        installAutocomplete(startStationField);
+        installAutocomplete(endStationField);
+
         findButton.addActionListener(e -> {
             String startText = startStationField.getText().trim();
             String endText = endStationField.getText().trim();
@@ -210,7 +335,8 @@ public class MetroGUI extends JFrame {
             selectedEnd = endStation;
 
             try {
-                MetroPathFinder pathFinder = new MetroPathFinder("metro.txt");
+                MetroPathFinder pathFinder = reloader != null
+                        ? reloader.getPathFinder() : new MetroPathFinder("metro.txt");
                 PathResult result = pathFinder.findShortestPath(
                         selectedStart.name,
                         selectedEnd.name
@@ -422,43 +548,11 @@ public class MetroGUI extends JFrame {
             return null;
         }
 
-        private void drawMetroLine(Graphics2D g2, String lineCode, Color color) {
-            g2.setColor(color);
-            g2.setStroke(new BasicStroke(5.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-
-            List<Station> lineStations = stations.stream()
-                    .filter(s -> lineCode.equals(s.line))
-                    .sorted(Comparator.comparingInt(s -> s.y))
-                    .collect(Collectors.toList());
-
-            for (int i = 0; i < lineStations.size() - 1; i++) {
-                Station s1 = lineStations.get(i);
-                Station s2 = lineStations.get(i + 1);
-                g2.drawLine(s1.x, s1.y, s2.x, s2.y);
-            }
-        }
-
-        private void drawMetroLineWithConnections(Graphics2D g2, String lineCode, Color color,
-                                                  List<Connection> connections) {
-            drawMetroLine(g2, lineCode, color);
-
-            g2.setStroke(new BasicStroke(3.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-            for (Connection conn : connections) {
-                Station s1 = findStationByName(conn.station1);
-                Station s2 = findStationByName(conn.station2);
-                if (s1 != null && s2 != null) {
-                    g2.drawLine(s1.x, s1.y, s2.x, s2.y);
-                }
-            }
-        }
-
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
 
             Graphics2D g2 = (Graphics2D) g;
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
             AffineTransform saved = g2.getTransform();
 
             g2.translate(offsetX, offsetY);
@@ -468,116 +562,10 @@ public class MetroGUI extends JFrame {
             g2.setColor(Color.WHITE);
             g2.fillRect(0, 0, getWidth(), getHeight());
 
-            // Рисуем линии метро
-            List<Connection> redConnections = List.of(
-                    new Connection("Площадь Восстания", "Маяковская"),
-                    new Connection("Владимирская", "Достоевская"),
-                    new Connection("Пушкинская", "Звенигородская"),
-                    new Connection("Технологический институт-1", "Технологический институт-2")
-            );
-            drawMetroLineWithConnections(g2, "r", Color.RED, redConnections);
-
-            List<Connection> blueConnections = List.of(
-                    new Connection("Невский проспект", "Гостиный двор")
-            );
-            drawMetroLineWithConnections(g2, "b", new Color(0, 120, 190), blueConnections);
-
-            List<Connection> greenConnections = List.of(
-                    new Connection("Гостиный двор", "Маяковская"),
-                    new Connection("Василеостровская", "Гостиный двор"),
-                    new Connection("Площадь Александра Невского-1", "Площадь Александра Невского-2")
-            );
-            drawMetroLineWithConnections(g2, "g", new Color(70, 180, 90), greenConnections);
-
-            List<Connection> orangeConnections = List.of(
-                    new Connection("Спасская", "Садовая"),
-                    new Connection("Спасская", "Достоевская")
-            );
-            drawMetroLineWithConnections(g2, "o", new Color(245, 130, 30), orangeConnections);
-
-            List<Connection> purpleConnections = List.of(
-                    new Connection("Садовая", "Звенигородская"),
-                    new Connection("Адмиралтейская", "Садовая")
-            );
-            drawMetroLineWithConnections(g2, "p", new Color(145, 75, 155), purpleConnections);
-
-            // Рисуем станции
-            for (Station s : stations) {
-                boolean isInPath = currentPath.contains(s.name);
-                boolean isStartOrEnd = (selectedStart != null && s.name.equals(selectedStart.name)) ||
-                        (selectedEnd != null && s.name.equals(selectedEnd.name));
-                boolean isHovered = hoveredStation != null && s.name.equals(hoveredStation.name);
-
-                // Определяем цвет для станции
-                Color stationColor;
-                switch (s.line) {
-                    case "r": stationColor = Color.RED; break;
-                    case "b": stationColor = new Color(0, 120, 190); break;
-                    case "g": stationColor = new Color(70, 180, 90); break;
-                    case "o": stationColor = new Color(245, 130, 30); break;
-                    case "p": stationColor = new Color(145, 75, 155); break;
-                    default: stationColor = Color.BLACK;
-                }
-
-                // Рисуем станцию
-                drawStation(g2, s, stationColor, isInPath, isStartOrEnd, isHovered);
-
-                // Рисуем название станции
-                drawStationName(g2, s, isInPath, isStartOrEnd, isHovered);
-            }
+            renderer.paint(g2, currentPath, selectedStart, selectedEnd, hoveredStation);
 
             g2.setTransform(saved);
         }
-
-        private void drawStation(Graphics2D g2, Station s, Color stationColor,
-                                 boolean isInPath, boolean isStartOrEnd, boolean isHovered) {
-            // Внешний круг (цвет линии)
-            g2.setColor(stationColor);
-            g2.fillOval(s.x - 6, s.y - 6, 12, 12);
-
-            // Внутренний круг
-            Color innerColor;
-            if (isHovered || isStartOrEnd || isInPath) {
-                innerColor = Color.RED; // Красный при активности
-            } else {
-                innerColor = Color.WHITE; // Белый по умолчанию
-            }
-
-            g2.setColor(innerColor);
-            g2.fillOval(s.x - 3, s.y - 3, 6, 6);
-
-            // Черная обводка
-            g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(1f));
-            g2.drawOval(s.x - 6, s.y - 6, 12, 12);
-        }
-
-        private void drawStationName(Graphics2D g2, Station s,
-                                     boolean isInPath, boolean isStartOrEnd, boolean isHovered) {
-            // Цвет текста
-            Color textColor;
-            if (isHovered || isStartOrEnd || isInPath) {
-                textColor = Color.RED; // Красный при активности
-            } else {
-                textColor = Color.BLACK; // Черный по умолчанию
-            }
-
-            g2.setColor(textColor);
-            g2.setFont(new Font("Arial", Font.BOLD, 11)); // Жирный шрифт, немного меньше
-
-            // Рисуем текст в предопределенных координатах
-            g2.drawString(s.name, s.textX, s.textY);
-        }
-    }
-
-    private static class Connection {
-        String station1;
-        String station2;
-
-        Connection(String station1, String station2) {
-            this.station1 = station1;
-            this.station2 = station2;
-        }
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,309 @@
+package com.metro.gui;
+
+import com.metro.algorithm.StationSearchIndex;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Paints the metro map onto any {@link Graphics2D}.
+ * Used both by the on-screen panel and for headless image export
+ * ({@code java.awt.headless=true}).
+ *
+ * <p>The static network layer (lines, transfers, stations in their default
+ * state) is rendered once into a cached image; route images are produced by
+ * copying that layer and painting only the highlighted stations on top.
+ * A renderer is safe to use from several threads once created.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public class MetroMapRenderer {
+
+    /** Default image width covering the whole map. */
+    public static final int MAP_WIDTH = 1080;
+
+    /** Default image height covering the whole map. */
+    public static final int MAP_HEIGHT = 950;
+
+    private static final Color RED_LINE = Color.RED;
+    private static final Color BLUE_LINE = new Color(0, 120, 190);
+    private static final Color GREEN_LINE = new Color(70, 180, 90);
+    private static final Color ORANGE_LINE = new Color(245, 130, 30);
+    private static final Color PURPLE_LINE = new Color(145, 75, 155);
+
+    private static final Stroke LINE_STROKE =
+            new BasicStroke(5.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke CONNECTION_STROKE =
+            new BasicStroke(3.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke OUTLINE_STROKE = new BasicStroke(1f);
+    private static final Font NAME_FONT = new Font("Arial", Font.BOLD, 11);
+
+    private static final String[][] RED_CONNECTIONS = {
+            {"Площадь Восстания", "Маяковская"},
+            {"Владимирская", "Достоевская"},
+            {"Пушкинская", "Звенигородская"},
+            {"Технологический институт-1", "Технологический институт-2"}
+    };
+    private static final String[][] BLUE_CONNECTIONS = {
+            {"Невский проспект", "Гостиный двор"}
+    };
+    private static final String[][] GREEN_CONNECTIONS = {
+            {"Гостиный двор", "Маяковская"},
+            {"Василеостровская", "Гостиный двор"},
+            {"Площадь Александра Невского-1", "Площадь Александра Невского-2"}
+    };
+    private static final String[][] ORANGE_CONNECTIONS = {
+            {"Спасская", "Садовая"},
+            {"Спасская", "Достоевская"}
+    };
+    private static final String[][] PURPLE_CONNECTIONS = {
+            {"Садовая", "Звенигородская"},
+            {"Адмиралтейская", "Садовая"}
+    };
+
+    private final List<MetroGUI.Station> stations;
+    private volatile BufferedImage baseLayer;
+
+    /**
+     * Creates renderer over station list. Text offsets must already be set.
+     *
+     * @param stations stations with map coordinates
+     */
+    public MetroMapRenderer(List<MetroGUI.Station> stations) {
+        this.stations = stations;
+    }
+
+    /**
+     * Paints full map in map coordinates. Caller sets up transform.
+     *
+     * @param g2 target graphics
+     * @param path station names of current route (may be empty)
+     * @param selectedStart selected start station or null
+     * @param selectedEnd selected end station or null
+     * @param hovered station under cursor or null
+     */
+    public void paint(Graphics2D g2, Collection<String> path, MetroGUI.Station selectedStart,
+                      MetroGUI.Station selectedEnd, MetroGUI.Station hovered) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        paintLines(g2);
+
+        Set<String> pathKeys = normalizedNames(path);
+        for (MetroGUI.Station s : stations) {
+            boolean active = pathKeys.contains(StationSearchIndex.normalize(s.name))
+                    || s == selectedStart || s == selectedEnd || s == hovered;
+            paintStation(g2, s, active);
+        }
+    }
+
+    /**
+     * Renders image of route with default map size.
+     *
+     * @param path station names of route
+     * @return new image
+     */
+    public BufferedImage renderRoute(Collection<String> path) {
+        BufferedImage base = getBaseLayer();
+        BufferedImage image = new BufferedImage(base.getWidth(), base.getHeight(), BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.drawImage(base, 0, 0, null);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            Set<String> pathKeys = normalizedNames(path);
+            for (MetroGUI.Station s : stations) {
+                if (pathKeys.contains(StationSearchIndex.normalize(s.name))) {
+                    paintStation(g2, s, true);
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+
+        return image;
+    }
+
+    /**
+     * Returns cached image with lines and all stations in default state.
+     *
+     * @return shared base layer, must not be modified
+     */
+    public BufferedImage getBaseLayer() {
+        BufferedImage layer = baseLayer;
+        if (layer == null) {
+            synchronized (this) {
+                layer = baseLayer;
+                if (layer == null) {
+                    layer = new BufferedImage(MAP_WIDTH, MAP_HEIGHT, BufferedImage.TYPE_INT_RGB);
+                    Graphics2D g2 = layer.createGraphics();
+                    try {
+                        g2.setColor(Color.WHITE);
+                        g2.fillRect(0, 0, MAP_WIDTH, MAP_HEIGHT);
+                        paint(g2, Collections.emptyList(), null, null, null);
+                    } finally {
+                        g2.dispose();
+                    }
+                    baseLayer = layer;
+                }
+            }
+        }
+        return layer;
+    }
+
+    /**
+     * Sets label positions for stations: to the right by default,
+     * with manual adjustments for crowded areas of the map.
+     *
+     * @param stations stations to update
+     */
+    public static void initializeSimpleTextOffsets(List<MetroGUI.Station> stations) {
+        // Только для самых проблемных станций
+        for (MetroGUI.Station station : stations) {
+            // По умолчанию все станции имеют текст справа
+            station.textX = station.x + 8;
+            station.textY = station.y + 4;
+
+            // Для станций слева от линии - сдвигаем текст влево
+            if (station.x < 300) {
+                station.textX = station.x - 60;
+                station.textY = station.y;
+            }
+
+            // Для станций в центре - сдвигаем текст вверх
+            if (station.y > 300 && station.y < 600 && station.x > 300 && station.x < 600) {
+                station.textY = station.y - 10;
+            }
+
+            // Особые случаи для конкретных станций
+            switch (station.name) {
+                case "Невский проспект":
+                    station.textY = station.y - 15;
+                    break;
+                case "Маяковская":
+                    station.textY = station.y - 25;
+                    station.textX = station.x - 10;
+                    break;
+                case "Владимирская":
+                case "Пушкинская":
+                case "Достоевская":
+                    station.textX = station.x - 15;
+                    station.textY = station.y;
+                    break;
+                case "Чернышевская":
+                case "Площадь Ленина":
+                    station.textX = station.x + 10;
+                    station.textY = station.y;
+                    break;
+                case "Гостиный двор":
+                    station.textX = station.x - 75;
+                    station.textY = station.y + 4;
+                    break;
+                case "Технологический институт-1":
+                case "Технологический институт-2":
+                case "Площадь Александра Невского-1":
+                case "Площадь Александра Невского-2":
+                    station.textY = station.y - 15;
+                    break;
+                case "Сенная площадь":
+                case "Спасская":
+                case "Садовая":
+                case "Адмиралтейская":
+                    station.textY = station.y + 5;
+                    break;
+            }
+        }
+    }
+
+    private void paintLines(Graphics2D g2) {
+        paintLineWithConnections(g2, "r", RED_LINE, RED_CONNECTIONS);
+        paintLineWithConnections(g2, "b", BLUE_LINE, BLUE_CONNECTIONS);
+        paintLineWithConnections(g2, "g", GREEN_LINE, GREEN_CONNECTIONS);
+        paintLineWithConnections(g2, "o", ORANGE_LINE, ORANGE_CONNECTIONS);
+        paintLineWithConnections(g2, "p", PURPLE_LINE, PURPLE_CONNECTIONS);
+    }
+
+    private void paintLineWithConnections(Graphics2D g2, String lineCode, Color color,
+                                          String[][] connections) {
+        g2.setColor(color);
+        g2.setStroke(LINE_STROKE);
+
+        List<MetroGUI.Station> lineStations = stations.stream()
+                .filter(s -> lineCode.equals(s.line))
+                .sorted(Comparator.comparingInt(s -> s.y))
+                .collect(Collectors.toList());
+
+        for (int i = 0; i < lineStations.size() - 1; i++) {
+            MetroGUI.Station s1 = lineStations.get(i);
+            MetroGUI.Station s2 = lineStations.get(i + 1);
+            g2.drawLine(s1.x, s1.y, s2.x, s2.y);
+        }
+
+        g2.setStroke(CONNECTION_STROKE);
+        for (String[] conn : connections) {
+            MetroGUI.Station s1 = findStation(conn[0]);
+            MetroGUI.Station s2 = findStation(conn[1]);
+            if (s1 != null && s2 != null) {
+                g2.drawLine(s1.x, s1.y, s2.x, s2.y);
+            }
+        }
+    }
+
+    private void paintStation(Graphics2D g2, MetroGUI.Station s, boolean active) {
+        // Внешний круг (цвет линии)
+        g2.setColor(lineColor(s.line));
+        g2.fillOval(s.x - 6, s.y - 6, 12, 12);
+
+        // Внутренний круг: красный при активности
+        g2.setColor(active ? Color.RED : Color.WHITE);
+        g2.fillOval(s.x - 3, s.y - 3, 6, 6);
+
+        // Черная обводка
+        g2.setColor(Color.BLACK);
+        g2.setStroke(OUTLINE_STROKE);
+        g2.drawOval(s.x - 6, s.y - 6, 12, 12);
+
+        // Название в предопределенных координатах
+        g2.setColor(active ? Color.RED : Color.BLACK);
+        g2.setFont(NAME_FONT);
+        g2.drawString(s.name, s.textX, s.textY);
+    }
+
+    private MetroGUI.Station findStation(String name) {
+        for (MetroGUI.Station s : stations) {
+            if (s.name.equals(name)) {
+                return s;
+            }
+        }
+        return null;
+    }
+
+    private static Color lineColor(String line) {
+        switch (line) {
+            case "r": return RED_LINE;
+            case "b": return BLUE_LINE;
+            case "g": return GREEN_LINE;
+            case "o": return ORANGE_LINE;
+            case "p": return PURPLE_LINE;
+            default: return Color.BLACK;
+        }
+    }
+
+    private static Set<String> normalizedNames(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> keys = new HashSet<>(names.size() * 2);
+        for (String name : names) {
+            keys.add(StationSearchIndex.normalize(name));
+        }
+        return keys;
+    }
+}
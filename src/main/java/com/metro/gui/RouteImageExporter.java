@@ -0,0 +1,142 @@
+package com.metro.gui;
+
+import com.metro.algorithm.MetroPathFinder;
+import com.metro.model.PathResult;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Batch export of route diagrams to PNG files without a display.
+ * Routes are searched and rendered in parallel; every image starts from the
+ * renderer's cached network layer, so per-image cost is mostly PNG encoding.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public class RouteImageExporter {
+
+    private static final Logger logger = LogManager.getLogger(RouteImageExporter.class);
+
+    private final MetroPathFinder pathFinder;
+    private final MetroMapRenderer renderer;
+
+    /**
+     * Creates exporter.
+     *
+     * @param pathFinder router used for all routes
+     * @param renderer map renderer with prepared station layout
+     */
+    public RouteImageExporter(MetroPathFinder pathFinder, MetroMapRenderer renderer) {
+        this.pathFinder = pathFinder;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Renders one PNG per origin-destination pair into output directory.
+     * Files are named by 1-based position of the pair in the list,
+     * zero-padded: {@code route-00001.png}, {@code route-00002.png}, ...
+     * Pairs without a route are logged and skipped, leaving a gap in numbering.
+     *
+     * @param pairs origin-destination pairs, each {@code {from, to}}
+     * @param outputDir target directory (created if missing)
+     * @param threads number of worker threads
+     * @return number of images written
+     * @throws IOException if directory cannot be created or image cannot be written
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public int exportAll(List<String[]> pairs, Path outputDir, int threads)
+            throws IOException, InterruptedException {
+        Files.createDirectories(outputDir);
+
+        // Прогреваем кэш статического слоя до старта потоков
+        renderer.getBaseLayer();
+
+        long startTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        int written = 0;
+
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>(pairs.size());
+            for (int i = 0; i < pairs.size(); i++) {
+                String[] pair = pairs.get(i);
+                Path file = outputDir.resolve(String.format("route-%05d.png", i + 1));
+                futures.add(executor.submit(() -> exportRoute(pair[0], pair[1], file)));
+            }
+
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    written++;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Route export failed: " + cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        logger.info("Exported {} of {} route images in {} s ({} images/s)",
+                written, pairs.size(), String.format("%.2f", seconds),
+                String.format("%.1f", written / Math.max(seconds, 1e-9)));
+        return written;
+    }
+
+    /**
+     * Searches and renders single route.
+     *
+     * @return true if image was written
+     */
+    boolean exportRoute(String from, String to, Path file) throws IOException {
+        PathResult result = pathFinder.findShortestPath(from, to);
+        if (result.hasError()) {
+            logger.warn("Skipping route {} -> {}: {}", from, to, result.getErrorMessage());
+            return false;
+        }
+
+        BufferedImage image = renderer.renderRoute(result.getPath());
+        return ImageIO.write(image, "png", file.toFile());
+    }
+
+    /**
+     * Reads origin-destination pairs, one {@code from;to} per line.
+     * Empty lines and lines starting with '#' are ignored.
+     *
+     * @param file pairs file
+     * @return list of pairs
+     * @throws IOException if file cannot be read or line is malformed
+     */
+    public static List<String[]> readPairs(Path file) throws IOException {
+        List<String[]> pairs = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] parts = line.split(";");
+            if (parts.length != 2) {
+                throw new IOException("Invalid pair at line " + (i + 1) + ": " + line);
+            }
+            pairs.add(new String[]{parts[0].trim(), parts[1].trim()});
+        }
+
+        return pairs;
+    }
+}
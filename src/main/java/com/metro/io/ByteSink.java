@@ -0,0 +1,164 @@
+package com.metro.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Unsynchronized output buffer with varint and UTF-8 encoding.
+ * Text is encoded straight from the characters, no intermediate byte arrays.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+final class ByteSink {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    ByteSink(OutputStream out) {
+        this.out = out;
+    }
+
+    void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            drain();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Writes unsigned LEB128 varint (7 bits per byte).
+     */
+    void writeVarint(int value) throws IOException {
+        if (buffer.length - position < 5) {
+            drain();
+        }
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Writes non-negative int as ASCII decimal digits.
+     */
+    void writeDecimal(int value) throws IOException {
+        if (buffer.length - position < 10) {
+            drain();
+        }
+        if (value == 0) {
+            buffer[position++] = '0';
+            return;
+        }
+        int start = position;
+        while (value > 0) {
+            buffer[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        // Цифры записаны в обратном порядке
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte swap = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = swap;
+        }
+    }
+
+    void writeUtf8(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); ) {
+            i = writeUtf8Char(text, i);
+        }
+    }
+
+    /**
+     * Writes character at index (a surrogate pair counts as one).
+     * Unpaired surrogates are written as '?'.
+     *
+     * @return index of next character
+     */
+    int writeUtf8Char(CharSequence text, int index) throws IOException {
+        char c = text.charAt(index);
+        if (Character.isHighSurrogate(c) && index + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            writeCodePoint(Character.toCodePoint(c, text.charAt(index + 1)));
+            return index + 2;
+        }
+        writeCodePoint(Character.isSurrogate(c) ? '?' : c);
+        return index + 1;
+    }
+
+    void writeCodePoint(int cp) throws IOException {
+        if (buffer.length - position < 4) {
+            drain();
+        }
+        if (cp < 0x80) {
+            buffer[position++] = (byte) cp;
+        } else if (cp < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (cp >> 6));
+            buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            buffer[position++] = (byte) (0xE0 | (cp >> 12));
+            buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+        } else {
+            buffer[position++] = (byte) (0xF0 | (cp >> 18));
+            buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+        }
+    }
+
+    /**
+     * Returns number of UTF-8 bytes {@link #writeUtf8} produces for text.
+     */
+    static int utf8Length(CharSequence text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        return length;
+    }
+
+    void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
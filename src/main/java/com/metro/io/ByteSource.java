@@ -0,0 +1,83 @@
+package com.metro.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unsynchronized input buffer with varint decoding.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+final class ByteSource {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    ByteSource(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads next byte.
+     *
+     * @return byte value 0-255 or -1 at end of stream
+     */
+    int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    int readRequired() throws IOException {
+        int value = read();
+        if (value < 0) {
+            throw new EOFException("Unexpected end of stream");
+        }
+        return value;
+    }
+
+    int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readRequired();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    String readUtf8(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int done = 0;
+        while (done < length) {
+            if (position == limit && !fill()) {
+                throw new EOFException("Unexpected end of stream");
+            }
+            int chunk = Math.min(length - done, limit - position);
+            System.arraycopy(buffer, position, bytes, done, chunk);
+            position += chunk;
+            done += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
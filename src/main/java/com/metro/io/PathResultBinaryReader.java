@@ -0,0 +1,133 @@
+package com.metro.io;
+
+import com.metro.model.CompactPathResult;
+import com.metro.model.StationTable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads route results written by {@link PathResultBinaryWriter}.
+ * All results share the station table restored from the stream header.
+ * Not thread-safe.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class PathResultBinaryReader implements Closeable {
+
+    private static final int MAX_ROUTE_LENGTH = PathResultBinaryWriter.MAX_ROUTE_LENGTH;
+    private static final int MAX_STATIONS = PathResultBinaryWriter.MAX_STATIONS;
+    private static final int MAX_STRING_LENGTH = PathResultBinaryWriter.MAX_STRING_LENGTH;
+
+    private final InputStream in;
+    private final ByteSource source;
+    private final StationTable stations;
+    private boolean finished;
+
+    /**
+     * Creates reader and reads stream header.
+     *
+     * @param in source stream
+     * @throws IOException if header is missing or malformed
+     */
+    public PathResultBinaryReader(InputStream in) throws IOException {
+        this.in = in;
+        this.source = new ByteSource(in);
+
+        for (byte b : PathResultBinaryWriter.MAGIC) {
+            if (source.read() != b) {
+                throw new IOException("Not a path result stream");
+            }
+        }
+        int version = source.readRequired();
+        if (version != PathResultBinaryWriter.VERSION) {
+            throw new IOException("Unsupported path result stream version: " + version);
+        }
+
+        // Защита от огромных выделений при повреждённом заголовке
+        int count = source.readVarint();
+        if (count < 0 || count > MAX_STATIONS) {
+            throw new IOException("Invalid station count: " + count);
+        }
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(readString());
+        }
+        this.stations = new StationTable(names);
+    }
+
+    /**
+     * Returns station table from the stream header.
+     *
+     * @return station table shared by all results
+     */
+    public StationTable getStationTable() {
+        return stations;
+    }
+
+    /**
+     * Reads next result.
+     *
+     * @return result or null after end marker
+     * @throws IOException if stream is truncated or malformed
+     */
+    public CompactPathResult read() throws IOException {
+        if (finished) {
+            return null;
+        }
+
+        int tag = source.read();
+        switch (tag) {
+            case PathResultBinaryWriter.TAG_END:
+                finished = true;
+                return null;
+            case PathResultBinaryWriter.TAG_ROUTE:
+                return readRoute();
+            case PathResultBinaryWriter.TAG_ERROR:
+                return CompactPathResult.error(stations, readString());
+            case -1:
+                throw new IOException("Path result stream ended without end marker");
+            default:
+                throw new IOException("Unknown record tag: " + tag);
+        }
+    }
+
+    private CompactPathResult readRoute() throws IOException {
+        int totalTime = source.readVarint();
+        if (totalTime < 0) {
+            throw new IOException("Invalid travel time: " + totalTime);
+        }
+        // Защита от огромного массива при повреждённом потоке
+        int length = source.readVarint();
+        if (length <= 0 || length > MAX_ROUTE_LENGTH) {
+            throw new IOException("Invalid route length: " + length);
+        }
+
+        int[] path = new int[length];
+        for (int i = 0; i < length; i++) {
+            int id = source.readVarint();
+            if (id < 0 || id >= stations.size()) {
+                throw new IOException("Invalid station id: " + id);
+            }
+            path[i] = id;
+        }
+        return CompactPathResult.success(stations, path, totalTime);
+    }
+
+    private String readString() throws IOException {
+        int length = source.readVarint();
+        if (length < 0 || length > MAX_STRING_LENGTH) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        return source.readUtf8(length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,214 @@
+package com.metro.io;
+
+import com.metro.model.CompactPathResult;
+import com.metro.model.PathResult;
+import com.metro.model.StationTable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streams route results in compact binary form.
+ *
+ * <p>Layout (all integers are unsigned LEB128 varints):
+ * <pre>
+ * header:  'M' 'P' 'R' version
+ *          stationCount, then per station: byteLength, UTF-8 name
+ * record:  1 totalTime stationCount id...      - route
+ *          2 byteLength UTF-8 message          - error
+ * end:     0
+ * </pre>
+ * Station names are written once in the header; a route costs one or two
+ * bytes per station. Bytes are encoded directly into the output buffer.
+ * Not thread-safe.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ * @see PathResultBinaryReader
+ */
+public final class PathResultBinaryWriter implements Closeable {
+
+    static final byte[] MAGIC = {'M', 'P', 'R'};
+    static final int VERSION = 1;
+    static final int TAG_END = 0;
+    static final int TAG_ROUTE = 1;
+    static final int TAG_ERROR = 2;
+
+    // Ограничения формата; читатель отвергает потоки, которые их превышают
+    static final int MAX_STATIONS = 1 << 20;
+    static final int MAX_ROUTE_LENGTH = 1 << 16;
+    static final int MAX_STRING_LENGTH = 1 << 16;
+
+    private final StationTable stations;
+    private final ByteSink sink;
+    private Map<String, Integer> idsByName;
+    private boolean finished;
+
+    /**
+     * Creates writer and writes header with station dictionary.
+     *
+     * @param stations station table all written results refer to
+     * @param out target stream
+     * @throws IOException if header cannot be written
+     * @throws IllegalArgumentException if table has more than 2^20 stations
+     *                                  or a name longer than 64 KB in UTF-8
+     */
+    public PathResultBinaryWriter(StationTable stations, OutputStream out) throws IOException {
+        if (stations.size() > MAX_STATIONS) {
+            throw new IllegalArgumentException("Too many stations: " + stations.size());
+        }
+        for (int id = 0; id < stations.size(); id++) {
+            if (ByteSink.utf8Length(stations.getName(id)) > MAX_STRING_LENGTH) {
+                throw new IllegalArgumentException("Station name too long: station " + id);
+            }
+        }
+        this.stations = stations;
+        this.sink = new ByteSink(out);
+
+        sink.writeBytes(MAGIC);
+        sink.writeByte(VERSION);
+        sink.writeVarint(stations.size());
+        for (int id = 0; id < stations.size(); id++) {
+            String name = stations.getName(id);
+            sink.writeVarint(ByteSink.utf8Length(name));
+            sink.writeUtf8(name);
+        }
+    }
+
+    /**
+     * Writes compact result. Error messages longer than 64 KB in UTF-8 are
+     * truncated.
+     *
+     * @param result result over the writer's station table
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if result uses another station table
+     *                                  or route has more than 65536 stations
+     */
+    public void write(CompactPathResult result) throws IOException {
+        ensureOpen();
+        if (result.hasError()) {
+            writeError(result.getErrorMessage());
+            return;
+        }
+
+        StationTable table = result.getStationTable();
+        if (table != stations && !stations.equals(table)) {
+            throw new IllegalArgumentException("Result refers to another station table");
+        }
+        checkRouteLength(result.getStationCount());
+
+        sink.writeByte(TAG_ROUTE);
+        sink.writeVarint(result.getTotalTime());
+        sink.writeVarint(result.getStationCount());
+        for (int i = 0; i < result.getStationCount(); i++) {
+            sink.writeVarint(result.getStationId(i));
+        }
+    }
+
+    /**
+     * Writes result with station names; names are mapped to ids of the
+     * writer's station table. Error messages longer than 64 KB in UTF-8 are
+     * truncated.
+     *
+     * @param result route result
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if route contains unknown station
+     *                                  or has more than 65536 stations
+     */
+    public void write(PathResult result) throws IOException {
+        ensureOpen();
+        if (result.hasError()) {
+            writeError(result.getErrorMessage());
+            return;
+        }
+
+        if (idsByName == null) {
+            idsByName = new HashMap<>(stations.size() * 2);
+            for (int id = 0; id < stations.size(); id++) {
+                idsByName.put(stations.getName(id), id);
+            }
+        }
+
+        // Сначала проверяем весь маршрут, чтобы не оставить в потоке половину записи
+        checkRouteLength(result.getStationCount());
+        int[] ids = new int[result.getStationCount()];
+        for (int i = 0; i < ids.length; i++) {
+            Integer id = idsByName.get(result.getPath().get(i));
+            if (id == null) {
+                throw new IllegalArgumentException("Unknown station: " + result.getPath().get(i));
+            }
+            ids[i] = id;
+        }
+
+        sink.writeByte(TAG_ROUTE);
+        sink.writeVarint(result.getTotalTime());
+        sink.writeVarint(ids.length);
+        for (int id : ids) {
+            sink.writeVarint(id);
+        }
+    }
+
+    /**
+     * Writes end marker and flushes. The underlying stream stays open.
+     *
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            sink.writeByte(TAG_END);
+            sink.flush();
+            finished = true;
+        }
+    }
+
+    /**
+     * Finishes stream if needed and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        finish();
+        sink.close();
+    }
+
+    private void writeError(String message) throws IOException {
+        // Сообщение может содержать ввод пользователя ("Station not found: ...")
+        String text = truncate(message, MAX_STRING_LENGTH);
+        sink.writeByte(TAG_ERROR);
+        sink.writeVarint(ByteSink.utf8Length(text));
+        sink.writeUtf8(text);
+    }
+
+    private static void checkRouteLength(int length) {
+        if (length > MAX_ROUTE_LENGTH) {
+            throw new IllegalArgumentException("Route too long: " + length + " stations");
+        }
+    }
+
+    /**
+     * Cuts text to at most maxBytes of UTF-8 without splitting a character.
+     */
+    static String truncate(String text, int maxBytes) {
+        if (ByteSink.utf8Length(text) <= maxBytes) {
+            return text;
+        }
+        int bytes = 0;
+        int end = 0;
+        while (end < text.length()) {
+            int next = end + Character.charCount(text.codePointAt(end));
+            int length = ByteSink.utf8Length(text.subSequence(end, next));
+            if (bytes + length > maxBytes) break;
+            bytes += length;
+            end = next;
+        }
+        return text.substring(0, end);
+    }
+
+    private void ensureOpen() {
+        if (finished) {
+            throw new IllegalStateException("Writer is already finished");
+        }
+    }
+}
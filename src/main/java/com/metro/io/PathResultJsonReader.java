@@ -0,0 +1,303 @@
+package com.metro.io;
+
+import com.metro.model.CompactPathResult;
+import com.metro.model.StationTable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads route results written by {@link PathResultJsonWriter}.
+ * Station names are resolved against a known station table; unknown
+ * fields are skipped. Not thread-safe.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class PathResultJsonReader implements Closeable {
+
+    private final InputStream in;
+    private final ByteSource source;
+    private final StationTable stations;
+    private final Map<String, Integer> idsByName;
+
+    private byte[] text = new byte[128];
+    private int[] ids = new int[64];
+    private int current;
+
+    /**
+     * Creates reader.
+     *
+     * @param stations station table to resolve names against
+     * @param in source stream
+     */
+    public PathResultJsonReader(StationTable stations, InputStream in) {
+        this.in = in;
+        this.source = new ByteSource(in);
+        this.stations = stations;
+        this.idsByName = new HashMap<>(stations.size() * 2);
+        for (int id = 0; id < stations.size(); id++) {
+            idsByName.put(stations.getName(id), id);
+        }
+    }
+
+    /**
+     * Reads next line.
+     *
+     * @return result or null at end of stream
+     * @throws IOException if line is malformed or contains unknown station
+     */
+    public CompactPathResult read() throws IOException {
+        // Пустые строки между записями допускаются
+        do {
+            current = source.read();
+            skipWhitespace();
+        } while (current == '\n');
+        if (current == -1) {
+            return null;
+        }
+
+        expect('{');
+        skipWhitespace();
+
+        int totalTime = -1;
+        int length = -1;
+        String error = null;
+
+        if (current != '}') {
+            while (true) {
+                String field = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+
+                switch (field) {
+                    case "totalTime":
+                        totalTime = readNumber();
+                        break;
+                    case "stations":
+                        length = readStations();
+                        break;
+                    case "error":
+                        error = readString();
+                        break;
+                    default:
+                        skipValue();
+                }
+
+                skipWhitespace();
+                if (current == ',') {
+                    advance();
+                    skipWhitespace();
+                    continue;
+                }
+                break;
+            }
+        }
+        expect('}');
+        skipWhitespace();
+        if (current != '\n' && current != -1) {
+            throw new IOException("Unexpected data after JSON object");
+        }
+
+        if (error != null) {
+            return CompactPathResult.error(stations, error);
+        }
+        if (totalTime < 0 || length <= 0) {
+            throw new IOException("Route line requires 'totalTime' and non-empty 'stations'");
+        }
+        return CompactPathResult.success(stations, Arrays.copyOf(ids, length), totalTime);
+    }
+
+    private int readStations() throws IOException {
+        expect('[');
+        skipWhitespace();
+        int length = 0;
+        if (current == ']') {
+            advance();
+            return 0;
+        }
+
+        while (true) {
+            String name = readString();
+            Integer id = idsByName.get(name);
+            if (id == null) {
+                throw new IOException("Unknown station: " + name);
+            }
+            if (length == ids.length) {
+                ids = Arrays.copyOf(ids, length * 2);
+            }
+            ids[length++] = id;
+
+            skipWhitespace();
+            if (current == ',') {
+                advance();
+                skipWhitespace();
+            } else {
+                expect(']');
+                return length;
+            }
+        }
+    }
+
+    private int readNumber() throws IOException {
+        if (current < '0' || current > '9') {
+            throw new IOException("Expected non-negative integer");
+        }
+        long value = 0;
+        while (current >= '0' && current <= '9') {
+            value = value * 10 + (current - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException("Number is too large");
+            }
+            advance();
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads JSON string; current byte must be the opening quote.
+     */
+    private String readString() throws IOException {
+        expect('"');
+        int length = 0;
+        while (current != '"') {
+            if (current == -1 || current == '\n') {
+                throw new IOException("Unterminated string");
+            }
+            if (length + 4 > text.length) {
+                text = Arrays.copyOf(text, text.length * 2);
+            }
+
+            if (current != '\\') {
+                text[length++] = (byte) current;
+                advance();
+                continue;
+            }
+
+            advance();
+            switch (current) {
+                case '"': case '\\': case '/': text[length++] = (byte) current; break;
+                case 'n': text[length++] = '\n'; break;
+                case 'r': text[length++] = '\r'; break;
+                case 't': text[length++] = '\t'; break;
+                case 'b': text[length++] = '\b'; break;
+                case 'f': text[length++] = '\f'; break;
+                case 'u': length = appendEscapedChar(length); break;
+                default: throw new IOException("Invalid escape in string");
+            }
+            advance();
+        }
+        advance();
+        return new String(text, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes four-digit unicode escape (current byte is 'u') and appends it as UTF-8,
+     * combining an escaped surrogate pair into one code point.
+     */
+    private int appendEscapedChar(int length) throws IOException {
+        int c = readHex4();
+        if (Character.isHighSurrogate((char) c)) {
+            advance();
+            expect('\\');
+            if (current != 'u') {
+                throw new IOException("Unpaired surrogate escape");
+            }
+            int low = readHex4();
+            if (!Character.isLowSurrogate((char) low)) {
+                throw new IOException("Unpaired surrogate escape");
+            }
+            c = Character.toCodePoint((char) c, (char) low);
+        }
+
+        if (c < 0x80) {
+            text[length++] = (byte) c;
+        } else if (c < 0x800) {
+            text[length++] = (byte) (0xC0 | (c >> 6));
+            text[length++] = (byte) (0x80 | (c & 0x3F));
+        } else if (c < 0x10000) {
+            text[length++] = (byte) (0xE0 | (c >> 12));
+            text[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            text[length++] = (byte) (0x80 | (c & 0x3F));
+        } else {
+            text[length++] = (byte) (0xF0 | (c >> 18));
+            text[length++] = (byte) (0x80 | ((c >> 12) & 0x3F));
+            text[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            text[length++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return length;
+    }
+
+    /**
+     * Reads four hex digits following current 'u'.
+     */
+    private int readHex4() throws IOException {
+        int c = 0;
+        for (int i = 0; i < 4; i++) {
+            advance();
+            int digit = Character.digit(current, 16);
+            if (digit < 0) {
+                throw new IOException("Invalid unicode escape");
+            }
+            c = (c << 4) | digit;
+        }
+        return c;
+    }
+
+    /**
+     * Skips string, number, literal or array/object value.
+     */
+    private void skipValue() throws IOException {
+        if (current == '"') {
+            readString();
+            return;
+        }
+        if (current == '[' || current == '{') {
+            int depth = 0;
+            do {
+                if (current == '"') {
+                    readString();
+                    continue;
+                }
+                if (current == '[' || current == '{') depth++;
+                if (current == ']' || current == '}') depth--;
+                if (current == -1 || current == '\n') {
+                    throw new IOException("Unterminated value");
+                }
+                advance();
+            } while (depth > 0);
+            return;
+        }
+        while (current != ',' && current != '}' && current != -1 && current != '\n') {
+            advance();
+        }
+    }
+
+    private void expect(int expected) throws IOException {
+        if (current != expected) {
+            throw new IOException("Expected '" + (char) expected + "' in JSON line");
+        }
+        advance();
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (current == ' ' || current == '\t' || current == '\r') {
+            advance();
+        }
+    }
+
+    private void advance() throws IOException {
+        current = source.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,168 @@
+package com.metro.io;
+
+import com.metro.model.CompactPathResult;
+import com.metro.model.PathResult;
+import com.metro.model.StationTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams route results as JSON lines (UTF-8), one object per result:
+ * <pre>
+ * {"totalTime":12,"stations":["A","B","C"]}
+ * {"error":"Station not found: X"}
+ * </pre>
+ * Station names of the table are escaped and encoded once; numbers and
+ * other text are encoded directly into the output buffer. Not thread-safe.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ * @see PathResultJsonReader
+ */
+public final class PathResultJsonWriter implements Closeable {
+
+    private static final byte[] ROUTE_PREFIX = ascii("{\"totalTime\":");
+    private static final byte[] STATIONS_PREFIX = ascii(",\"stations\":[");
+    private static final byte[] ROUTE_SUFFIX = ascii("]}\n");
+    private static final byte[] ERROR_PREFIX = ascii("{\"error\":");
+    private static final byte[] ERROR_SUFFIX = ascii("}\n");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private final StationTable stations;
+    private final byte[][] encodedNames;
+    private final ByteSink sink;
+
+    /**
+     * Creates writer.
+     *
+     * @param stations station table compact results refer to
+     * @param out target stream
+     * @throws IOException if station names cannot be encoded
+     */
+    public PathResultJsonWriter(StationTable stations, OutputStream out) throws IOException {
+        this.stations = stations;
+        this.sink = new ByteSink(out);
+
+        // Имена станций кодируются один раз как готовые JSON-строки
+        encodedNames = new byte[stations.size()][];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        for (int id = 0; id < stations.size(); id++) {
+            bytes.reset();
+            ByteSink nameSink = new ByteSink(bytes);
+            writeString(nameSink, stations.getName(id));
+            nameSink.flush();
+            encodedNames[id] = bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Writes compact result as one line.
+     *
+     * @param result result over the writer's station table
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if result uses another station table
+     */
+    public void write(CompactPathResult result) throws IOException {
+        if (result.hasError()) {
+            writeError(result.getErrorMessage());
+            return;
+        }
+
+        StationTable table = result.getStationTable();
+        if (table != stations && !stations.equals(table)) {
+            throw new IllegalArgumentException("Result refers to another station table");
+        }
+
+        sink.writeBytes(ROUTE_PREFIX);
+        sink.writeDecimal(result.getTotalTime());
+        sink.writeBytes(STATIONS_PREFIX);
+        for (int i = 0; i < result.getStationCount(); i++) {
+            if (i > 0) sink.writeByte(',');
+            sink.writeBytes(encodedNames[result.getStationId(i)]);
+        }
+        sink.writeBytes(ROUTE_SUFFIX);
+    }
+
+    /**
+     * Writes result with station names as one line.
+     *
+     * @param result route result
+     * @throws IOException if writing fails
+     */
+    public void write(PathResult result) throws IOException {
+        if (result.hasError()) {
+            writeError(result.getErrorMessage());
+            return;
+        }
+
+        sink.writeBytes(ROUTE_PREFIX);
+        sink.writeDecimal(result.getTotalTime());
+        sink.writeBytes(STATIONS_PREFIX);
+        for (int i = 0; i < result.getStationCount(); i++) {
+            if (i > 0) sink.writeByte(',');
+            writeString(sink, result.getPath().get(i));
+        }
+        sink.writeBytes(ROUTE_SUFFIX);
+    }
+
+    /**
+     * Flushes buffered lines. The underlying stream stays open.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        sink.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        sink.close();
+    }
+
+    private void writeError(String message) throws IOException {
+        sink.writeBytes(ERROR_PREFIX);
+        writeString(sink, message);
+        sink.writeBytes(ERROR_SUFFIX);
+    }
+
+    /**
+     * Writes quoted JSON string with the same escaping as {@code JsonWriter}.
+     */
+    private static void writeString(ByteSink out, CharSequence value) throws IOException {
+        out.writeByte('"');
+        for (int i = 0; i < value.length(); ) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':  out.writeByte('\\'); out.writeByte('"'); i++; break;
+                case '\\': out.writeByte('\\'); out.writeByte('\\'); i++; break;
+                case '\n': out.writeByte('\\'); out.writeByte('n'); i++; break;
+                case '\r': out.writeByte('\\'); out.writeByte('r'); i++; break;
+                case '\t': out.writeByte('\\'); out.writeByte('t'); i++; break;
+                default:
+                    if (c < 0x20) {
+                        out.writeByte('\\');
+                        out.writeByte('u');
+                        out.writeByte('0');
+                        out.writeByte('0');
+                        out.writeByte(HEX[c >> 4]);
+                        out.writeByte(HEX[c & 0xF]);
+                        i++;
+                    } else {
+                        i = out.writeUtf8Char(value, i);
+                    }
+            }
+        }
+        out.writeByte('"');
+    }
+
+    private static byte[] ascii(String text) {
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return bytes;
+    }
+}
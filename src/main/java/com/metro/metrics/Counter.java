@@ -0,0 +1,34 @@
+package com.metro.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic lock-free counter. Increments from many threads do not contend
+ * on a single memory location.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    void reset() {
+        value.reset();
+    }
+}
@@ -0,0 +1,38 @@
+package com.metro.metrics;
+
+import java.util.Map;
+
+/**
+ * MXBean adapter over a registry.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+final class Metrics implements MetricsMXBean {
+
+    private final MetricsRegistry registry;
+
+    Metrics(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        return registry.counterValues();
+    }
+
+    @Override
+    public Map<String, Long> getHistograms() {
+        return registry.histogramValues();
+    }
+
+    @Override
+    public String dump() {
+        return registry.dump();
+    }
+
+    @Override
+    public void reset() {
+        registry.reset();
+    }
+}
@@ -0,0 +1,20 @@
+package com.metro.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link MetricsRegistry}.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public interface MetricsMXBean {
+
+    Map<String, Long> getCounters();
+
+    Map<String, Long> getHistograms();
+
+    String dump();
+
+    void reset();
+}
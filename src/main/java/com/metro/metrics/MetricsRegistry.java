@@ -0,0 +1,127 @@
+package com.metro.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Named counters and histograms of the application.
+ * Metrics are created once (usually into static fields) and then updated
+ * without any lookup, so the registry itself is never on the hot path.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class MetricsRegistry {
+
+    /** JMX object name of the default registry. */
+    public static final String OBJECT_NAME = "com.metro:type=Metrics";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p99", "p999"};
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Returns process-wide registry.
+     *
+     * @return default registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns counter with name, creating it on first use.
+     *
+     * @param name metric name
+     * @return counter
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    /**
+     * Returns histogram with name, creating it on first use.
+     * By convention the name ends with the unit, e.g. {@code .ns}.
+     *
+     * @param name metric name
+     * @return histogram
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * Returns current counter values sorted by name.
+     *
+     * @return counter values
+     */
+    public Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        return values;
+    }
+
+    /**
+     * Returns histogram summaries sorted by name. Keys are
+     * {@code <histogram>.count|mean|max|p50|p99|p999}.
+     *
+     * @return histogram summaries
+     */
+    public Map<String, Long> histogramValues() {
+        Map<String, Long> values = new TreeMap<>();
+        histograms.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".mean", Math.round(histogram.getMean()));
+            values.put(name + ".max", histogram.getMax());
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                values.put(name + "." + PERCENTILE_NAMES[i], histogram.getPercentile(PERCENTILES[i]));
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Returns plain-text dump, one {@code name value} pair per line.
+     *
+     * @return text dump
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder(1024);
+        counterValues().forEach((name, value) ->
+                builder.append(name).append(' ').append(value).append('\n'));
+        histogramValues().forEach((name, value) ->
+                builder.append(name).append(' ').append(value).append('\n'));
+        return builder.toString();
+    }
+
+    /**
+     * Resets all metrics to zero.
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Registers default registry in platform MBean server under {@link #OBJECT_NAME}.
+     * Repeated calls are ignored.
+     *
+     * @throws JMException if registration fails
+     */
+    public static synchronized void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(new Metrics(DEFAULT), name);
+        }
+    }
+}
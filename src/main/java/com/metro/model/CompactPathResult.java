@@ -0,0 +1,228 @@
+package com.metro.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Memory-compact variant of {@link PathResult}.
+ * The route is stored as an {@code int[]} of station ids that refer to a
+ * shared {@link StationTable}; text is produced only on request, either into
+ * a caller-supplied {@link StringBuilder} or into a per-thread buffer.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class CompactPathResult {
+
+    private static final int[] EMPTY_PATH = new int[0];
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private final StationTable stations;
+    private final int[] path;
+    private final int totalTime;
+    private final String errorMessage;
+
+    private CompactPathResult(StationTable stations, int[] path, int totalTime, String errorMessage) {
+        this.stations = stations;
+        this.path = path;
+        this.totalTime = totalTime;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Creates successful result. The id array is owned by the result afterwards.
+     *
+     * @param stations station table the ids refer to
+     * @param path station ids of the route
+     * @param totalTime total travel time in minutes
+     * @return compact result
+     * @throws IllegalArgumentException if arguments are invalid
+     */
+    public static CompactPathResult success(StationTable stations, int[] path, int totalTime) {
+        if (stations == null || path == null || path.length == 0) {
+            throw new IllegalArgumentException("Station table and non-empty path are required");
+        }
+        if (totalTime < 0) {
+            throw new IllegalArgumentException("Travel time cannot be negative");
+        }
+        for (int id : path) {
+            if (id < 0 || id >= stations.size()) {
+                throw new IllegalArgumentException("Unknown station id: " + id);
+            }
+        }
+        return new CompactPathResult(stations, path, totalTime, null);
+    }
+
+    /**
+     * Creates error result.
+     *
+     * @param stations station table of the network
+     * @param errorMessage error message
+     * @return compact result
+     * @throws IllegalArgumentException if error message is null or empty
+     */
+    public static CompactPathResult error(StationTable stations, String errorMessage) {
+        if (errorMessage == null || errorMessage.trim().isEmpty()) {
+            throw new IllegalArgumentException("Error message cannot be empty");
+        }
+        return new CompactPathResult(stations, EMPTY_PATH, 0, errorMessage);
+    }
+
+    public boolean isSuccess() {
+        return errorMessage == null;
+    }
+
+    public boolean hasError() {
+        return errorMessage != null;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public int getTotalTime() {
+        return totalTime;
+    }
+
+    public int getStationCount() {
+        return path.length;
+    }
+
+    public StationTable getStationTable() {
+        return stations;
+    }
+
+    /**
+     * Returns station id at position in route.
+     *
+     * @param index position in route
+     * @return station id
+     */
+    public int getStationId(int index) {
+        return path[index];
+    }
+
+    /**
+     * Returns copy of station ids of the route.
+     *
+     * @return station ids
+     */
+    public int[] getStationIds() {
+        return path.clone();
+    }
+
+    /**
+     * Returns unmodifiable list view of station names; names are looked up
+     * in the station table on access, nothing is copied.
+     *
+     * @return station names of the route
+     */
+    public List<String> getPath() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return stations.getName(path[index]);
+            }
+
+            @Override
+            public int size() {
+                return path.length;
+            }
+        };
+    }
+
+    /**
+     * Appends the same text as {@link PathResult#getFormattedResult()}.
+     *
+     * @param out target buffer
+     * @return target buffer
+     */
+    public StringBuilder appendFormattedResult(StringBuilder out) {
+        if (hasError()) {
+            return out.append("Error: ").append(errorMessage);
+        }
+
+        out.append("Path found!\n");
+        out.append("Total time: ").append(totalTime).append(" minutes\n");
+        out.append("Number of stations: ").append(path.length).append("\n");
+        out.append("Route:\n");
+
+        for (int i = 0; i < path.length; i++) {
+            if (i + 1 < 10) out.append(' ');
+            out.append(i + 1).append(". ").append(stations.getName(path[i])).append('\n');
+        }
+        return out;
+    }
+
+    /**
+     * Appends the same text as {@link PathResult#getShortDescription()}.
+     *
+     * @param out target buffer
+     * @return target buffer
+     */
+    public StringBuilder appendShortDescription(StringBuilder out) {
+        if (hasError()) {
+            return out.append("Path search error");
+        }
+
+        return out.append(stations.getName(path[0]))
+                .append(" → ")
+                .append(stations.getName(path[path.length - 1]))
+                .append(" (").append(totalTime).append(" min, ")
+                .append(path.length).append(" stations)");
+    }
+
+    public String getFormattedResult() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return appendFormattedResult(buffer).toString();
+    }
+
+    public String getShortDescription() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return appendShortDescription(buffer).toString();
+    }
+
+    /**
+     * Converts to regular result with a list of names.
+     *
+     * @return equivalent path result
+     */
+    public PathResult toPathResult() {
+        return hasError() ? new PathResult(errorMessage) : new PathResult(getPath(), totalTime);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        CompactPathResult that = (CompactPathResult) obj;
+
+        return totalTime == that.totalTime &&
+                Arrays.equals(path, that.path) &&
+                Objects.equals(errorMessage, that.errorMessage) &&
+                Objects.equals(stations, that.stations);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(path);
+        result = 31 * result + totalTime;
+        result = 31 * result + Objects.hashCode(errorMessage);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactPathResult{" +
+                "path=" + Arrays.toString(path) +
+                ", totalTime=" + totalTime +
+                ", errorMessage='" + errorMessage + '\'' +
+                '}';
+    }
+}
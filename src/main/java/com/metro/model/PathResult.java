@@ -157,7 +157,8 @@ public final class PathResult {
         builder.append("Route:\n");
 
         for (int i = 0; i < path.size(); i++) {
-            builder.append(String.format("%2d. %s\n", i + 1, path.get(i)));
+            if (i + 1 < 10) builder.append(' ');
+            builder.append(i + 1).append(". ").append(path.get(i)).append('\n');
         }
 
         return builder.toString();
@@ -0,0 +1,66 @@
+package com.metro.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable table of station names indexed by station id.
+ * One table is shared by all compact results of a network, so results
+ * store only primitive ids.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class StationTable {
+
+    private final String[] names;
+    private final int hash;
+
+    /**
+     * Creates table from names in id order.
+     *
+     * @param names station names
+     * @throws IllegalArgumentException if names is null or contains null
+     */
+    public StationTable(List<String> names) {
+        if (names == null || names.contains(null)) {
+            throw new IllegalArgumentException("Station names cannot be null");
+        }
+        this.names = names.toArray(new String[0]);
+        this.hash = Arrays.hashCode(this.names);
+    }
+
+    /**
+     * Returns station name by id.
+     *
+     * @param id station id
+     * @return station name
+     * @throws IndexOutOfBoundsException if id is out of range
+     */
+    public String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * Returns number of stations.
+     *
+     * @return station count
+     */
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        StationTable that = (StationTable) obj;
+        return hash == that.hash && Arrays.equals(names, that.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
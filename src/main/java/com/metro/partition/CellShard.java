@@ -0,0 +1,185 @@
+package com.metro.partition;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.LongMinHeap;
+import com.metro.algorithm.MetroPathFinder;
+
+import java.util.Arrays;
+
+/**
+ * In-process shard holding only the subgraph of its cell.
+ * The overlay clique is computed once at construction with one search per
+ * boundary station. Thread-safe once created.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class CellShard implements RoutingShard {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final int cell;
+    private final int[] stations;
+    private final CompactGraph local;
+    private final CompactGraph localReversed;
+    private final int[] boundary;
+    private final int[] boundaryLocal;
+    private final int[] clique;
+
+    /**
+     * Extracts cell from network and precomputes its clique.
+     *
+     * @param graph full network graph (not retained)
+     * @param partition station to cell assignment
+     * @param cell cell to serve
+     */
+    public CellShard(CompactGraph graph, Partition partition, int cell) {
+        if (cell < 0 || cell >= partition.cellCount()) {
+            throw new IllegalArgumentException("Unknown cell: " + cell);
+        }
+        this.cell = cell;
+        this.stations = partition.stationsOf(cell);
+        this.local = graph.induced(stations);
+        this.localReversed = local.reverse();
+
+        // Граничные станции: есть ребро в другую ячейку или из неё
+        CompactGraph reversed = graph.reverse();
+        int count = 0;
+        int[] found = new int[stations.length];
+        for (int i = 0; i < stations.length; i++) {
+            if (crossesCell(graph, stations[i], partition) || crossesCell(reversed, stations[i], partition)) {
+                found[count++] = i;
+            }
+        }
+        boundaryLocal = Arrays.copyOf(found, count);
+        boundary = new int[count];
+        for (int i = 0; i < count; i++) {
+            boundary[i] = stations[boundaryLocal[i]];
+        }
+
+        clique = new int[count * count];
+        int[] dist = new int[stations.length];
+        for (int i = 0; i < count; i++) {
+            search(local, boundaryLocal[i], dist, null);
+            for (int j = 0; j < count; j++) {
+                clique[i * count + j] = toTime(dist[boundaryLocal[j]]);
+            }
+        }
+    }
+
+    private boolean crossesCell(CompactGraph graph, int station, Partition partition) {
+        for (int e = graph.firstEdge(station); e < graph.firstEdge(station + 1); e++) {
+            if (partition.cellOf(graph.target(e)) != cell) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int getCell() {
+        return cell;
+    }
+
+    @Override
+    public int[] getBoundary() {
+        return boundary.clone();
+    }
+
+    @Override
+    public int[] getClique() {
+        return clique.clone();
+    }
+
+    @Override
+    public int[] distancesFrom(int station) {
+        return boundaryTimes(local, station);
+    }
+
+    @Override
+    public int[] distancesTo(int station) {
+        return boundaryTimes(localReversed, station);
+    }
+
+    @Override
+    public int distance(int from, int to) {
+        int[] dist = new int[stations.length];
+        search(local, localId(from), dist, null);
+        return toTime(dist[localId(to)]);
+    }
+
+    @Override
+    public int[] path(int from, int to) {
+        int source = localId(from);
+        int target = localId(to);
+        int[] dist = new int[stations.length];
+        int[] prev = new int[stations.length];
+        search(local, source, dist, prev);
+        if (dist[target] == INF) {
+            return null;
+        }
+
+        int length = 0;
+        for (int current = target; current != -1; current = prev[current]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int current = target, i = length - 1; i >= 0; i--, current = prev[current]) {
+            path[i] = stations[current];
+        }
+        return path;
+    }
+
+    /** Returns number of stations held by this shard. */
+    public int stationCount() {
+        return stations.length;
+    }
+
+    private int[] boundaryTimes(CompactGraph graph, int station) {
+        int[] dist = new int[stations.length];
+        search(graph, localId(station), dist, null);
+        int[] times = new int[boundaryLocal.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = toTime(dist[boundaryLocal[i]]);
+        }
+        return times;
+    }
+
+    private int localId(int station) {
+        int index = Arrays.binarySearch(stations, station);
+        if (index < 0) {
+            throw new IllegalArgumentException("Station " + station + " is not in cell " + cell);
+        }
+        return index;
+    }
+
+    private static int toTime(int distance) {
+        return distance == INF ? MetroPathFinder.UNREACHABLE : distance;
+    }
+
+    /**
+     * Dijkstra over local graph; fills prev when it is not null.
+     */
+    private static void search(CompactGraph graph, int source, int[] dist, int[] prev) {
+        Arrays.fill(dist, INF);
+        if (prev != null) Arrays.fill(prev, -1);
+        LongMinHeap heap = new LongMinHeap(graph.edgeCount() + 1);
+        dist[source] = 0;
+        heap.push(LongMinHeap.key(0, source));
+
+        while (!heap.isEmpty()) {
+            long key = heap.pop();
+            int u = LongMinHeap.station(key);
+            int d = LongMinHeap.distance(key);
+            if (d > dist[u]) continue;
+
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                int alt = d + graph.weight(e);
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    if (prev != null) prev[v] = u;
+                    heap.push(LongMinHeap.key(alt, v));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.metro.partition;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.LongMinHeap;
+import com.metro.algorithm.MetroPathFinder;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Coordinator of multi-level routing over cell shards.
+ *
+ * <p>The coordinator keeps only the overlay graph: boundary stations of all
+ * cells, connected by the precomputed cliques of the shards and by the
+ * edges that cross cell borders. A query asks the source and target shards
+ * for times to and from their boundary, runs Dijkstra on the overlay and
+ * asks the shards along the way to unpack clique edges into stations.
+ * Thread-safe if the shards are.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class OverlayCoordinator {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+    private static final int CUT_EDGE = -1;
+
+    private final Partition partition;
+    private final RoutingShard[] shards;
+    private final int[] overlayStations;
+    private final int[] overlayIndex;
+    private final int[][] cellBoundary;
+
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final int[] edgeWeights;
+    private final int[] edgeCells;
+
+    /**
+     * Builds overlay from shard cliques and cut edges of the network.
+     *
+     * @param graph full network graph, used only to collect cut edges (not retained)
+     * @param partition station to cell assignment shared with the shards
+     * @param shards one shard per cell
+     * @throws IllegalArgumentException if shards do not cover every cell exactly once
+     */
+    public OverlayCoordinator(CompactGraph graph, Partition partition, List<? extends RoutingShard> shards) {
+        this.partition = partition;
+        this.shards = new RoutingShard[partition.cellCount()];
+        for (RoutingShard shard : shards) {
+            int cell = shard.getCell();
+            if (cell < 0 || cell >= this.shards.length || this.shards[cell] != null) {
+                throw new IllegalArgumentException("Invalid or duplicate shard for cell " + cell);
+            }
+            this.shards[cell] = shard;
+        }
+        for (int cell = 0; cell < this.shards.length; cell++) {
+            if (this.shards[cell] == null) {
+                throw new IllegalArgumentException("No shard for cell " + cell);
+            }
+        }
+
+        // Вершины оверлея - граничные станции всех ячеек
+        overlayIndex = new int[partition.size()];
+        Arrays.fill(overlayIndex, -1);
+        cellBoundary = new int[this.shards.length][];
+        int[][] cliques = new int[this.shards.length][];
+        int count = 0;
+        for (int cell = 0; cell < this.shards.length; cell++) {
+            cellBoundary[cell] = this.shards[cell].getBoundary();
+            cliques[cell] = this.shards[cell].getClique();
+            count += cellBoundary[cell].length;
+        }
+        overlayStations = new int[count];
+        for (int cell = 0, next = 0; cell < this.shards.length; cell++) {
+            for (int station : cellBoundary[cell]) {
+                overlayStations[next] = station;
+                overlayIndex[station] = next++;
+            }
+        }
+
+        int[] degree = new int[count + 1];
+        forEachEdge(graph, cliques, (from, to, weight, cell) -> degree[from + 1]++);
+        for (int i = 0; i < count; i++) {
+            degree[i + 1] += degree[i];
+        }
+        edgeOffsets = degree;
+        edgeTargets = new int[degree[count]];
+        edgeWeights = new int[degree[count]];
+        edgeCells = new int[degree[count]];
+        int[] fill = Arrays.copyOf(degree, count);
+        forEachEdge(graph, cliques, (from, to, weight, cell) -> {
+            int slot = fill[from]++;
+            edgeTargets[slot] = to;
+            edgeWeights[slot] = weight;
+            edgeCells[slot] = cell;
+        });
+    }
+
+    @FunctionalInterface
+    private interface EdgeConsumer {
+        void accept(int from, int to, int weight, int cell);
+    }
+
+    private void forEachEdge(CompactGraph graph, int[][] cliques, EdgeConsumer consumer) {
+        for (int cell = 0; cell < cellBoundary.length; cell++) {
+            int[] boundary = cellBoundary[cell];
+            int n = boundary.length;
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    int weight = cliques[cell][i * n + j];
+                    if (i != j && weight != MetroPathFinder.UNREACHABLE) {
+                        consumer.accept(overlayIndex[boundary[i]], overlayIndex[boundary[j]], weight, cell);
+                    }
+                }
+            }
+        }
+        for (int u = 0; u < graph.size(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                int v = graph.target(e);
+                if (partition.cellOf(u) != partition.cellOf(v)) {
+                    consumer.accept(overlayIndex[u], overlayIndex[v], graph.weight(e), CUT_EDGE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns shortest travel time.
+     *
+     * @param from source station id
+     * @param to target station id
+     * @return time in minutes or {@link MetroPathFinder#UNREACHABLE}
+     */
+    public int distance(int from, int to) {
+        Query query = run(from, to);
+        return query.best == INF ? MetroPathFinder.UNREACHABLE : query.best;
+    }
+
+    /**
+     * Returns shortest route as station ids.
+     *
+     * @param from source station id
+     * @param to target station id
+     * @return route including both ends, or null if target is unreachable
+     */
+    public int[] path(int from, int to) {
+        Query query = run(from, to);
+        if (query.best == INF) {
+            return null;
+        }
+        int fromCell = partition.cellOf(from);
+        int toCell = partition.cellOf(to);
+        if (query.lastOverlay == -1) {
+            return shards[fromCell].path(from, to);
+        }
+
+        // Цепочка вершин оверлея от последней к первой
+        int[] chain = new int[overlayStations.length];
+        int length = 0;
+        for (int v = query.lastOverlay; v != -1; v = query.prev[v]) {
+            chain[length++] = v;
+        }
+
+        int[] route = shards[fromCell].path(from, overlayStations[chain[length - 1]]);
+        int size = route.length;
+        for (int k = length - 1; k > 0; k--) {
+            int edge = query.prevEdge[chain[k - 1]];
+            int a = overlayStations[chain[k]];
+            int b = overlayStations[chain[k - 1]];
+            int[] segment = edgeCells[edge] == CUT_EDGE
+                    ? new int[]{a, b}
+                    : shards[edgeCells[edge]].path(a, b);
+            route = append(route, size, segment);
+            size += segment.length - 1;
+        }
+        int[] tail = shards[toCell].path(overlayStations[chain[0]], to);
+        route = append(route, size, tail);
+        size += tail.length - 1;
+        return Arrays.copyOf(route, size);
+    }
+
+    /**
+     * Appends segment without its first station (equal to the current last one).
+     */
+    private static int[] append(int[] route, int size, int[] segment) {
+        if (size + segment.length - 1 > route.length) {
+            route = Arrays.copyOf(route, Math.max(route.length * 2, size + segment.length));
+        }
+        System.arraycopy(segment, 1, route, size, segment.length - 1);
+        return route;
+    }
+
+    private Query run(int from, int to) {
+        if (from < 0 || from >= partition.size() || to < 0 || to >= partition.size()) {
+            throw new IllegalArgumentException("Unknown station id: " + (from < 0 || from >= partition.size() ? from : to));
+        }
+        int fromCell = partition.cellOf(from);
+        int toCell = partition.cellOf(to);
+        Query query = new Query(overlayStations.length);
+
+        if (fromCell == toCell) {
+            int inner = shards[fromCell].distance(from, to);
+            if (inner != MetroPathFinder.UNREACHABLE) {
+                query.best = inner;
+            }
+        }
+
+        int[] targetBoundary = cellBoundary[toCell];
+        int[] toTarget = targetBoundary.length == 0 ? new int[0] : shards[toCell].distancesTo(to);
+        int[] targetPosition = new int[overlayStations.length];
+        Arrays.fill(targetPosition, -1);
+        for (int j = 0; j < targetBoundary.length; j++) {
+            targetPosition[overlayIndex[targetBoundary[j]]] = j;
+        }
+
+        int[] dist = query.dist;
+        LongMinHeap heap = new LongMinHeap(edgeTargets.length + 1);
+        int[] sourceBoundary = cellBoundary[fromCell];
+        int[] fromSource = sourceBoundary.length == 0 ? new int[0] : shards[fromCell].distancesFrom(from);
+        for (int i = 0; i < sourceBoundary.length; i++) {
+            if (fromSource[i] != MetroPathFinder.UNREACHABLE) {
+                int v = overlayIndex[sourceBoundary[i]];
+                dist[v] = fromSource[i];
+                heap.push(LongMinHeap.key(fromSource[i], v));
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            long key = heap.pop();
+            int u = LongMinHeap.station(key);
+            int d = LongMinHeap.distance(key);
+            if (d >= query.best) break;
+            if (d > dist[u]) continue;
+
+            int position = targetPosition[u];
+            if (position >= 0 && toTarget[position] != MetroPathFinder.UNREACHABLE
+                    && d + toTarget[position] < query.best) {
+                query.best = d + toTarget[position];
+                query.lastOverlay = u;
+            }
+
+            for (int e = edgeOffsets[u], end = edgeOffsets[u + 1]; e < end; e++) {
+                int v = edgeTargets[e];
+                int alt = d + edgeWeights[e];
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    query.prev[v] = u;
+                    query.prevEdge[v] = e;
+                    heap.push(LongMinHeap.key(alt, v));
+                }
+            }
+        }
+        return query;
+    }
+
+    /** Returns number of overlay stations (boundary stations of all cells). */
+    public int overlayStationCount() {
+        return overlayStations.length;
+    }
+
+    /** Returns number of overlay edges (clique and cut edges). */
+    public int overlayEdgeCount() {
+        return edgeTargets.length;
+    }
+
+    private static final class Query {
+        final int[] dist;
+        final int[] prev;
+        final int[] prevEdge;
+        int best = INF;
+        int lastOverlay = -1;
+
+        Query(int overlaySize) {
+            dist = new int[overlaySize];
+            prev = new int[overlaySize];
+            prevEdge = new int[overlaySize];
+            Arrays.fill(dist, INF);
+            Arrays.fill(prev, -1);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.metro.partition;
+
+import com.metro.algorithm.CompactGraph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assignment of stations to cells for multi-level routing.
+ * Cells are numbered {@code 0 .. cellCount() - 1}; every cell is non-empty.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class Partition {
+
+    private final int[] cellOf;
+    private final int cellCount;
+
+    private Partition(int[] cellOf, int cellCount) {
+        this.cellOf = cellOf;
+        this.cellCount = cellCount;
+    }
+
+    /**
+     * Creates partition from cell ids; ids are renumbered densely in order
+     * of first appearance.
+     *
+     * @param cells cell id per station
+     * @return partition
+     */
+    public static Partition of(int[] cells) {
+        Map<Integer, Integer> dense = new HashMap<>();
+        int[] cellOf = new int[cells.length];
+        for (int v = 0; v < cells.length; v++) {
+            Integer cell = dense.get(cells[v]);
+            if (cell == null) {
+                cell = dense.size();
+                dense.put(cells[v], cell);
+            }
+            cellOf[v] = cell;
+        }
+        return new Partition(cellOf, dense.size());
+    }
+
+    /**
+     * Creates partition with one cell per distinct label, e.g. per line code.
+     *
+     * @param labels label per station
+     * @return partition
+     */
+    public static Partition byLabel(String[] labels) {
+        Map<String, Integer> ids = new HashMap<>();
+        int[] cells = new int[labels.length];
+        for (int v = 0; v < labels.length; v++) {
+            cells[v] = ids.computeIfAbsent(labels[v], key -> ids.size());
+        }
+        return new Partition(cells, ids.size());
+    }
+
+    /**
+     * Grows connected cells of at most {@code maxCellSize} stations by
+     * breadth-first search, ignoring edge directions.
+     *
+     * @param graph network graph
+     * @param maxCellSize maximum stations per cell
+     * @return partition
+     */
+    public static Partition grow(CompactGraph graph, int maxCellSize) {
+        if (maxCellSize < 1) {
+            throw new IllegalArgumentException("maxCellSize must be positive");
+        }
+        CompactGraph reversed = graph.reverse();
+        int[] cellOf = new int[graph.size()];
+        Arrays.fill(cellOf, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int cells = 0;
+
+        for (int seed = 0; seed < graph.size(); seed++) {
+            if (cellOf[seed] != -1) continue;
+
+            int cell = cells++;
+            int cellSize = 0;
+            queue.clear();
+            queue.add(seed);
+            cellOf[seed] = cell;
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                cellSize++;
+                for (CompactGraph g : new CompactGraph[]{graph, reversed}) {
+                    for (int e = g.firstEdge(u); e < g.firstEdge(u + 1); e++) {
+                        int v = g.target(e);
+                        if (cellOf[v] == -1 && cellSize + queue.size() < maxCellSize) {
+                            cellOf[v] = cell;
+                            queue.add(v);
+                        }
+                    }
+                }
+            }
+        }
+        return new Partition(cellOf, cells);
+    }
+
+    /** Returns cell of station. */
+    public int cellOf(int station) {
+        return cellOf[station];
+    }
+
+    /** Returns number of cells. */
+    public int cellCount() {
+        return cellCount;
+    }
+
+    /** Returns number of stations. */
+    public int size() {
+        return cellOf.length;
+    }
+
+    /**
+     * Returns stations of cell in ascending id order.
+     *
+     * @param cell cell id
+     * @return global station ids
+     */
+    public int[] stationsOf(int cell) {
+        int count = 0;
+        for (int c : cellOf) {
+            if (c == cell) count++;
+        }
+        int[] stations = new int[count];
+        for (int v = 0, i = 0; v < cellOf.length; v++) {
+            if (cellOf[v] == cell) stations[i++] = v;
+        }
+        return stations;
+    }
+}
@@ -0,0 +1,65 @@
+package com.metro.partition;
+
+/**
+ * Router for one cell of a partitioned network. Stations are identified
+ * by global ids; all distances are travel times within the cell and
+ * {@link com.metro.algorithm.MetroPathFinder#UNREACHABLE} if there is no
+ * path inside the cell.
+ *
+ * <p>{@link CellShard} is the in-process implementation; a remote shard
+ * implements the same calls over its transport.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public interface RoutingShard {
+
+    /** Returns cell served by this shard. */
+    int getCell();
+
+    /**
+     * Returns boundary stations of the cell: stations with an edge to or
+     * from another cell, in ascending id order.
+     */
+    int[] getBoundary();
+
+    /**
+     * Returns overlay clique: travel times between boundary stations,
+     * row-major, {@code clique[i * n + j]} from boundary {@code i} to {@code j}.
+     */
+    int[] getClique();
+
+    /**
+     * Returns travel times from station to every boundary station.
+     *
+     * @param station station of this cell
+     * @return times indexed like {@link #getBoundary()}
+     */
+    int[] distancesFrom(int station);
+
+    /**
+     * Returns travel times from every boundary station to station.
+     *
+     * @param station station of this cell
+     * @return times indexed like {@link #getBoundary()}
+     */
+    int[] distancesTo(int station);
+
+    /**
+     * Returns shortest travel time inside the cell.
+     *
+     * @param from station of this cell
+     * @param to station of this cell
+     * @return time in minutes
+     */
+    int distance(int from, int to);
+
+    /**
+     * Returns shortest path inside the cell.
+     *
+     * @param from station of this cell
+     * @param to station of this cell
+     * @return global station ids or null if there is no path inside the cell
+     */
+    int[] path(int from, int to);
+}
@@ -0,0 +1,285 @@
+package com.metro.registry;
+
+import com.metro.algorithm.MetroPathFinder;
+import com.metro.metrics.Counter;
+import com.metro.metrics.Histogram;
+import com.metro.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Networks of several cities served from one process, keyed by network id.
+ *
+ * <p>A network is registered with a loader and built on first use. Threads
+ * asking for a network that is being loaded wait for that one load instead
+ * of starting their own; a failed load is not cached, the next request
+ * tries again. After each load, least recently used networks are dropped
+ * until the estimated size of resident networks
+ * ({@link MetroPathFinder#estimatedMemoryBytes()}) fits the budget. The
+ * network just loaded is always kept, even if it alone exceeds the budget.
+ * Sizes are re-read on every check, so growth of a resident network after
+ * its load (lazily built landmark tables, added profiles) is counted at the
+ * next load.
+ * A dropped network is loaded again when requested; requests already
+ * holding its router finish on it.
+ *
+ * <p>Lookup of a resident network takes no lock.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class NetworkRegistry {
+
+    private static final Logger logger = LogManager.getLogger(NetworkRegistry.class);
+
+    /**
+     * Memory budget for resident networks
+     * ({@code -Dmetro.registry.budgetMb}, default 256).
+     */
+    public static final long DEFAULT_BUDGET_BYTES =
+            Math.max(1, Long.getLong("metro.registry.budgetMb", 256)) << 20;
+
+    private static final Histogram LOAD_TIME =
+            MetricsRegistry.getDefault().histogram("registry.load.time.ns");
+    private static final Counter LOADS =
+            MetricsRegistry.getDefault().counter("registry.loads");
+    private static final Counter LOAD_FAILURES =
+            MetricsRegistry.getDefault().counter("registry.failures");
+    private static final Counter EVICTIONS =
+            MetricsRegistry.getDefault().counter("registry.evictions");
+
+    /**
+     * Builds network of one id; may be called again after eviction.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        MetroPathFinder load() throws Exception;
+    }
+
+    private final long budgetBytes;
+    private final Map<String, Loader> loaders = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> networks = new ConcurrentHashMap<>();
+
+    public NetworkRegistry() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    /**
+     * Creates registry with memory budget.
+     *
+     * @param budgetBytes estimated bytes of resident networks to keep
+     * @throws IllegalArgumentException if budget is not positive
+     */
+    public NetworkRegistry(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + budgetBytes);
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Registers network read from matrix and stations files.
+     *
+     * @param id network id
+     * @param fileName matrix resource name or file path
+     * @param stationsFileName stations resource name or file path
+     */
+    public void register(String id, String fileName, String stationsFileName) {
+        register(id, () -> new MetroPathFinder(fileName, stationsFileName));
+    }
+
+    /**
+     * Registers network; nothing is loaded until {@link #get(String)}.
+     *
+     * @param id network id
+     * @param loader builds the network
+     * @throws IllegalArgumentException if id is already registered
+     */
+    public void register(String id, Loader loader) {
+        if (loaders.putIfAbsent(id, loader) != null) {
+            throw new IllegalArgumentException("Network already registered: " + id);
+        }
+    }
+
+    /**
+     * Returns router of network, loading it if it is not resident.
+     *
+     * @param id network id
+     * @return router
+     * @throws IllegalArgumentException if id is not registered
+     * @throws IllegalStateException if network cannot be loaded
+     */
+    public MetroPathFinder get(String id) {
+        CompletableFuture<Entry> future = networks.get(id);
+        if (future == null) {
+            Loader loader = loaders.get(id);
+            if (loader == null) {
+                throw new IllegalArgumentException("Unknown network: " + id);
+            }
+            CompletableFuture<Entry> created = new CompletableFuture<>();
+            future = networks.putIfAbsent(id, created);
+            if (future == null) {
+                future = created;
+                load(id, loader, created);
+            }
+        }
+
+        Entry entry;
+        try {
+            entry = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading network " + id, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to load network " + id + ": "
+                    + e.getCause().getMessage(), e.getCause());
+        }
+        entry.lastUsed = System.nanoTime();
+        return entry.pathFinder;
+    }
+
+    private void load(String id, Loader loader, CompletableFuture<Entry> future) {
+        long startTime = System.nanoTime();
+        MetroPathFinder pathFinder;
+        try {
+            pathFinder = loader.load();
+        } catch (Throwable e) {
+            LOAD_FAILURES.increment();
+            // Ошибку не кэшируем: следующий запрос загрузит сеть заново
+            networks.remove(id, future);
+            future.completeExceptionally(e);
+            logger.error("Failed to load network {}: {}", id, e.getMessage());
+            if (e instanceof Error) throw (Error) e;
+            return;
+        }
+
+        Entry entry = new Entry(id, pathFinder);
+        entry.lastUsed = System.nanoTime();
+        future.complete(entry);
+        long elapsed = System.nanoTime() - startTime;
+        LOAD_TIME.record(elapsed);
+        LOADS.increment();
+        logger.info("Network {} loaded in {} ms, ~{} KB", id, elapsed / 1_000_000,
+                pathFinder.estimatedMemoryBytes() >> 10);
+
+        evictOverBudget(entry);
+    }
+
+    /**
+     * Drops least recently used networks until resident ones fit the budget.
+     *
+     * @param keep network that must stay resident
+     */
+    private synchronized void evictOverBudget(Entry keep) {
+        while (true) {
+            long total = 0;
+            Entry oldest = null;
+            long oldestBytes = 0;
+            CompletableFuture<Entry> oldestFuture = null;
+            for (CompletableFuture<Entry> future : networks.values()) {
+                Entry entry = loaded(future);
+                if (entry == null) continue;
+                // Размер читаем заново: сеть могла вырасти после загрузки
+                long bytes = entry.pathFinder.estimatedMemoryBytes();
+                total += bytes;
+                if (entry != keep && (oldest == null || entry.lastUsed - oldest.lastUsed < 0)) {
+                    oldest = entry;
+                    oldestBytes = bytes;
+                    oldestFuture = future;
+                }
+            }
+            if (total <= budgetBytes || oldest == null) {
+                if (total > budgetBytes) {
+                    logger.warn("Network {} (~{} KB) alone exceeds memory budget of {} KB",
+                            keep.id, total >> 10, budgetBytes >> 10);
+                }
+                return;
+            }
+            // Только эту загрузку: evict() и новый get() могли уже поставить другую
+            if (networks.remove(oldest.id, oldestFuture)) {
+                EVICTIONS.increment();
+                logger.info("Network {} evicted, ~{} KB freed", oldest.id, oldestBytes >> 10);
+            }
+        }
+    }
+
+    /**
+     * Drops network from memory; it stays registered and is loaded again
+     * on next use.
+     *
+     * @param id network id
+     * @return true if network was resident
+     */
+    public boolean evict(String id) {
+        CompletableFuture<Entry> future = networks.get(id);
+        if (future == null || loaded(future) == null) {
+            return false;
+        }
+        return networks.remove(id, future);
+    }
+
+    public boolean isRegistered(String id) {
+        return loaders.containsKey(id);
+    }
+
+    /** Returns whether network is loaded and resident now. */
+    public boolean isLoaded(String id) {
+        CompletableFuture<Entry> future = networks.get(id);
+        return future != null && loaded(future) != null;
+    }
+
+    /** Returns registered ids in alphabetical order. */
+    public Set<String> getNetworkIds() {
+        return new TreeSet<>(loaders.keySet());
+    }
+
+    /** Returns ids of resident networks in alphabetical order. */
+    public Set<String> getLoadedIds() {
+        Set<String> ids = new TreeSet<>();
+        for (Map.Entry<String, CompletableFuture<Entry>> network : networks.entrySet()) {
+            if (loaded(network.getValue()) != null) ids.add(network.getKey());
+        }
+        return ids;
+    }
+
+    /** Returns estimated size of resident networks in bytes. */
+    public long getResidentBytes() {
+        long total = 0;
+        for (CompletableFuture<Entry> future : networks.values()) {
+            Entry entry = loaded(future);
+            if (entry != null) total += entry.pathFinder.estimatedMemoryBytes();
+        }
+        return total;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /** Returns entry of finished load, null while loading or after failure. */
+    private static Entry loaded(CompletableFuture<Entry> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * Resident network. Last use is written on every lookup without a
+     * lock; a slightly stale value only makes eviction order approximate.
+     */
+    private static final class Entry {
+        final String id;
+        final MetroPathFinder pathFinder;
+        volatile long lastUsed;
+
+        Entry(String id, MetroPathFinder pathFinder) {
+            this.id = id;
+            this.pathFinder = pathFinder;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.metro.reload;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.gui.MetroGUI;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes between two network snapshots: stations added, removed or
+ * moved on the map (position or line), and directed edges added,
+ * removed or with a new travel time.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class NetworkDiff {
+
+    /** Travel time of an edge that does not exist in a snapshot. */
+    public static final int ABSENT = -1;
+
+    private final List<String> addedStations;
+    private final List<String> removedStations;
+    private final List<String> changedStations;
+    private final List<EdgeChange> edgeChanges;
+
+    private NetworkDiff(List<String> addedStations, List<String> removedStations,
+                        List<String> changedStations, List<EdgeChange> edgeChanges) {
+        this.addedStations = Collections.unmodifiableList(addedStations);
+        this.removedStations = Collections.unmodifiableList(removedStations);
+        this.changedStations = Collections.unmodifiableList(changedStations);
+        this.edgeChanges = Collections.unmodifiableList(edgeChanges);
+    }
+
+    /**
+     * Compares two snapshots. Stations are matched by name, so edges keep
+     * their identity even if station order in the matrix changed.
+     *
+     * @param before previous snapshot
+     * @param after new snapshot
+     * @return differences, empty if networks are equal
+     */
+    public static NetworkDiff between(NetworkSnapshot before, NetworkSnapshot after) {
+        List<String> oldNames = before.getPathFinder().getAllStations();
+        List<String> newNames = after.getPathFinder().getAllStations();
+        Map<String, Integer> oldIds = indexOf(oldNames);
+        Map<String, Integer> newIds = indexOf(newNames);
+
+        List<String> added = new ArrayList<>();
+        for (String name : newNames) {
+            if (!oldIds.containsKey(name)) added.add(name);
+        }
+        List<String> removed = new ArrayList<>();
+        for (String name : oldNames) {
+            if (!newIds.containsKey(name)) removed.add(name);
+        }
+
+        // Станция изменена, если сдвинута на карте или перенесена на другую линию
+        Map<String, MetroGUI.Station> oldStations = new HashMap<>();
+        for (MetroGUI.Station station : before.getStations()) {
+            oldStations.put(station.getName(), station);
+        }
+        List<String> changed = new ArrayList<>();
+        for (MetroGUI.Station station : after.getStations()) {
+            MetroGUI.Station old = oldStations.get(station.getName());
+            if (old != null && (old.getX() != station.getX() || old.getY() != station.getY()
+                    || !old.getLine().equals(station.getLine()))) {
+                changed.add(station.getName());
+            }
+        }
+
+        CompactGraph oldGraph = before.getGraph();
+        CompactGraph newGraph = after.getGraph();
+        List<EdgeChange> edges = new ArrayList<>();
+        for (int u = 0; u < oldGraph.size(); u++) {
+            Integer newU = newIds.get(oldNames.get(u));
+            for (int e = oldGraph.firstEdge(u); e < oldGraph.firstEdge(u + 1); e++) {
+                int v = oldGraph.target(e);
+                Integer newV = newIds.get(oldNames.get(v));
+                int newEdge = newU == null || newV == null ? -1 : newGraph.edgeIndex(newU, newV);
+                int newTime = newEdge == -1 ? ABSENT : newGraph.weight(newEdge);
+                if (newTime != oldGraph.weight(e)) {
+                    edges.add(new EdgeChange(oldNames.get(u), oldNames.get(v), oldGraph.weight(e), newTime));
+                }
+            }
+        }
+        for (int u = 0; u < newGraph.size(); u++) {
+            Integer oldU = oldIds.get(newNames.get(u));
+            for (int e = newGraph.firstEdge(u); e < newGraph.firstEdge(u + 1); e++) {
+                Integer oldV = oldIds.get(newNames.get(newGraph.target(e)));
+                if (oldU == null || oldV == null || oldGraph.edgeIndex(oldU, oldV) == -1) {
+                    edges.add(new EdgeChange(newNames.get(u), newNames.get(newGraph.target(e)),
+                            ABSENT, newGraph.weight(e)));
+                }
+            }
+        }
+
+        return new NetworkDiff(added, removed, changed, edges);
+    }
+
+    private static Map<String, Integer> indexOf(List<String> names) {
+        Map<String, Integer> ids = new HashMap<>(names.size() * 2);
+        for (int i = 0; i < names.size(); i++) {
+            ids.put(names.get(i), i);
+        }
+        return ids;
+    }
+
+    public List<String> getAddedStations() {
+        return addedStations;
+    }
+
+    public List<String> getRemovedStations() {
+        return removedStations;
+    }
+
+    /** Returns stations present in both snapshots whose position or line changed. */
+    public List<String> getChangedStations() {
+        return changedStations;
+    }
+
+    /** Returns changed edges: removed and retimed edges first, then added ones. */
+    public List<EdgeChange> getEdgeChanges() {
+        return edgeChanges;
+    }
+
+    public boolean isEmpty() {
+        return addedStations.isEmpty() && removedStations.isEmpty()
+                && changedStations.isEmpty() && edgeChanges.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        int addedEdges = 0;
+        int removedEdges = 0;
+        for (EdgeChange change : edgeChanges) {
+            if (change.isAdded()) addedEdges++;
+            if (change.isRemoved()) removedEdges++;
+        }
+        return "NetworkDiff{stations: +" + addedStations.size() + " -" + removedStations.size()
+                + " ~" + changedStations.size() + ", edges: +" + addedEdges + " -" + removedEdges
+                + " ~" + (edgeChanges.size() - addedEdges - removedEdges) + "}";
+    }
+
+    /**
+     * Directed edge whose travel time differs between snapshots.
+     */
+    public static final class EdgeChange {
+        private final String from;
+        private final String to;
+        private final int oldTime;
+        private final int newTime;
+
+        EdgeChange(String from, String to, int oldTime, int newTime) {
+            this.from = from;
+            this.to = to;
+            this.oldTime = oldTime;
+            this.newTime = newTime;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        /** Returns previous travel time, or {@link #ABSENT} for a new edge. */
+        public int getOldTime() {
+            return oldTime;
+        }
+
+        /** Returns new travel time, or {@link #ABSENT} for a removed edge. */
+        public int getNewTime() {
+            return newTime;
+        }
+
+        public boolean isAdded() {
+            return oldTime == ABSENT;
+        }
+
+        public boolean isRemoved() {
+            return newTime == ABSENT;
+        }
+
+        @Override
+        public String toString() {
+            return from + " -> " + to + ": "
+                    + (isAdded() ? "none" : String.valueOf(oldTime)) + " -> "
+                    + (isRemoved() ? "none" : String.valueOf(newTime));
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.metro.reload;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.MetroPathFinder;
+import com.metro.gui.MetroGUI;
+import com.metro.metrics.Counter;
+import com.metro.metrics.Histogram;
+import com.metro.metrics.MetricsRegistry;
+import com.metro.utils.ResourceLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the live network in sync with matrix and stations files on disk.
+ *
+ * <p>A daemon thread watches both files with a {@link WatchService}. When
+ * a change settles (no further events for the debounce interval), the new
+ * network is parsed and validated on that thread, then published with a
+ * single atomic reference swap. Readers take the current snapshot once
+ * per request and never block: queries in flight finish on the old
+ * router, the next ones see the new one. An invalid or half-written file
+ * is rejected and the previous network stays live.
+ *
+ * <p>Weight profiles of the live router and its active profile are carried
+ * over to the reloaded network (see
+ * {@link MetroPathFinder#restoreProfiles(MetroPathFinder)}); a profile
+ * that no longer fits the network is dropped with a warning, and if it was
+ * the active one the default profile takes over.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class NetworkReloader implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(NetworkReloader.class);
+
+    /**
+     * Quiet time after the last file event before reloading
+     * ({@code -Dmetro.reload.debounceMillis}, default 500).
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS =
+            Math.max(0, Long.getLong("metro.reload.debounceMillis", 500));
+
+    private static final Histogram RELOAD_TIME =
+            MetricsRegistry.getDefault().histogram("reload.time.ns");
+    private static final Counter RELOADS =
+            MetricsRegistry.getDefault().counter("reload.swaps");
+    private static final Counter RELOAD_FAILURES =
+            MetricsRegistry.getDefault().counter("reload.failures");
+
+    private final Path matrixFile;
+    private final Path stationsFile;
+    private final long debounceMillis;
+    private final AtomicReference<NetworkSnapshot> current = new AtomicReference<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private WatchService watchService;
+    private Thread watcher;
+    private volatile boolean closed;
+
+    /**
+     * Loads initial network with default debounce interval.
+     *
+     * @param matrixFile weight matrix file
+     * @param stationsFile stations file ({@code name;x;y;line})
+     * @throws Exception if files cannot be loaded or are inconsistent
+     */
+    public NetworkReloader(Path matrixFile, Path stationsFile) throws Exception {
+        this(matrixFile, stationsFile, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    public NetworkReloader(Path matrixFile, Path stationsFile, long debounceMillis) throws Exception {
+        // Абсолютные пути, чтобы ResourceLoader не подхватил одноимённый ресурс из classpath
+        this.matrixFile = matrixFile.toAbsolutePath().normalize();
+        this.stationsFile = stationsFile.toAbsolutePath().normalize();
+        this.debounceMillis = debounceMillis;
+        current.set(load(1));
+    }
+
+    /**
+     * Callback for network changes. Called on the reloading thread, so
+     * GUI listeners must hand updates over to the event dispatch thread.
+     */
+    public interface Listener {
+
+        /**
+         * Called after new network was published.
+         *
+         * @param previous network that was live before
+         * @param current network that is live now
+         * @param diff changes from previous to current
+         */
+        void networkReloaded(NetworkSnapshot previous, NetworkSnapshot current, NetworkDiff diff);
+
+        /**
+         * Called when changed files were rejected; the previous network stays live.
+         *
+         * @param error parse or validation error
+         */
+        default void reloadFailed(Exception error) {
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Returns network that is live now. */
+    public NetworkSnapshot current() {
+        return current.get();
+    }
+
+    /** Returns router of the live network; take it once per request. */
+    public MetroPathFinder getPathFinder() {
+        return current.get().getPathFinder();
+    }
+
+    /**
+     * Starts watching directories of both files on a daemon thread.
+     *
+     * @throws IOException if a directory cannot be watched
+     * @throws IllegalStateException if already started or closed
+     */
+    public synchronized void start() throws IOException {
+        if (watcher != null || closed) {
+            throw new IllegalStateException("Reloader already started or closed");
+        }
+        watchService = matrixFile.getFileSystem().newWatchService();
+        Set<Path> directories = new LinkedHashSet<>();
+        directories.add(matrixFile.getParent());
+        directories.add(stationsFile.getParent());
+        for (Path directory : directories) {
+            // CREATE ловит замену файла переименованием (редакторы, mv)
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+
+        watcher = new Thread(this::watchLoop, "network-reloader");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching {} and {} for network changes", matrixFile, stationsFile);
+    }
+
+    /**
+     * Loads files now and publishes the result if it is valid and differs
+     * from the live network. Reloads are serialized.
+     *
+     * @return true if a new network was published
+     */
+    public synchronized boolean reloadNow() {
+        long startTime = System.nanoTime();
+        NetworkSnapshot previous = current.get();
+        NetworkSnapshot next;
+        try {
+            next = load(previous.getVersion() + 1);
+        } catch (Exception e) {
+            RELOAD_FAILURES.increment();
+            logger.warn("Network reload rejected, keeping version {}: {}", previous.getVersion(), e.getMessage());
+            for (Listener listener : listeners) {
+                try {
+                    listener.reloadFailed(e);
+                } catch (RuntimeException listenerError) {
+                    logger.error("Reload listener failed: {}", listenerError.getMessage(), listenerError);
+                }
+            }
+            return false;
+        }
+
+        NetworkDiff diff = NetworkDiff.between(previous, next);
+        if (diff.isEmpty()) {
+            logger.debug("Network files changed without network changes, keeping version {}",
+                    previous.getVersion());
+            return false;
+        }
+
+        restoreProfiles(next.getPathFinder(), previous.getPathFinder(), next.getVersion());
+        current.set(next);
+        long elapsed = System.nanoTime() - startTime;
+        RELOAD_TIME.record(elapsed);
+        RELOADS.increment();
+
+        logger.info("Network reloaded to version {} in {} ms: {}", next.getVersion(), elapsed / 1_000_000, diff);
+        if (logger.isDebugEnabled()) {
+            for (NetworkDiff.EdgeChange change : diff.getEdgeChanges()) {
+                logger.debug("Edge changed: {}", change);
+            }
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.networkReloaded(previous, next, diff);
+            } catch (RuntimeException e) {
+                logger.error("Reload listener failed: {}", e.getMessage(), e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops watching. The live network remains available.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (!closed) {
+                boolean changed = drain(watchService.take());
+                // Ждём, пока запись файлов затихнет, чтобы не читать их наполовину
+                while (changed) {
+                    WatchKey key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                    if (key == null) break;
+                    drain(key);
+                }
+                if (changed && !closed) {
+                    reloadNow();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Остановлен через close()
+        }
+        logger.debug("Network watcher stopped");
+    }
+
+    /**
+     * Consumes events of key and re-arms it.
+     *
+     * @return true if one of the watched files was touched
+     */
+    private boolean drain(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+                continue;
+            }
+            Path file = directory.resolve((Path) event.context());
+            if (file.equals(matrixFile) || file.equals(stationsFile)) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private NetworkSnapshot load(long version) throws Exception {
+        MetroPathFinder pathFinder = new MetroPathFinder(matrixFile.toString(), stationsFile.toString());
+        List<MetroGUI.Station> stations = ResourceLoader.loadStations(stationsFile.toString());
+        validate(pathFinder, stations);
+        return new NetworkSnapshot(version, pathFinder, stations);
+    }
+
+    /**
+     * Carries weight profiles and the active profile over to the new router
+     * before it is published; profiles that do not fit are logged.
+     */
+    private void restoreProfiles(MetroPathFinder pathFinder, MetroPathFinder previous, long version) {
+        Map<String, String> failed = pathFinder.restoreProfiles(previous);
+        for (Map.Entry<String, String> profile : failed.entrySet()) {
+            logger.warn("Weight profile '{}' dropped in version {}: {}", profile.getKey(), version, profile.getValue());
+        }
+        String active = previous.getActiveProfile().getName();
+        if (failed.containsKey(active)) {
+            logger.warn("Active weight profile '{}' not restored, version {} uses '{}'",
+                    active, version, pathFinder.getActiveProfile().getName());
+        }
+    }
+
+    /**
+     * Checks that matrix and stations file describe the same stations and
+     * that travel times are non-negative. An edit of both files is only
+     * accepted once both are saved.
+     */
+    private void validate(MetroPathFinder pathFinder, List<MetroGUI.Station> stations) {
+        if (stations.isEmpty()) {
+            throw new IllegalArgumentException("Stations file is empty or not found: " + stationsFile);
+        }
+
+        List<String> names = pathFinder.getAllStations();
+        Set<String> matrixNames = new HashSet<>();
+        for (String name : names) {
+            if (!matrixNames.add(name)) {
+                throw new IllegalArgumentException("Duplicate station in matrix: " + name);
+            }
+        }
+        Set<String> stationNames = new HashSet<>();
+        for (MetroGUI.Station station : stations) {
+            if (!stationNames.add(station.getName())) {
+                throw new IllegalArgumentException("Duplicate station in stations file: " + station.getName());
+            }
+            if (!matrixNames.contains(station.getName())) {
+                throw new IllegalArgumentException("Station missing in matrix: " + station.getName());
+            }
+        }
+        if (stationNames.size() != matrixNames.size()) {
+            for (String name : names) {
+                if (!stationNames.contains(name)) {
+                    throw new IllegalArgumentException("Station missing in stations file: " + name);
+                }
+            }
+        }
+
+        CompactGraph graph = pathFinder.getProfile(MetroPathFinder.DEFAULT_PROFILE).getGraph();
+        for (int u = 0; u < graph.size(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                if (graph.weight(e) < 0) {
+                    throw new IllegalArgumentException("Negative travel time: "
+                            + names.get(u) + " -> " + names.get(graph.target(e)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.metro.reload;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.MetroPathFinder;
+import com.metro.gui.MetroGUI;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One loaded version of the network: router built from the matrix file
+ * and station positions from the stations file. Snapshots are never
+ * modified; a reload publishes a new one.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class NetworkSnapshot {
+
+    private final long version;
+    private final MetroPathFinder pathFinder;
+    private final List<MetroGUI.Station> stations;
+    private final long loadedAtMillis;
+
+    NetworkSnapshot(long version, MetroPathFinder pathFinder, List<MetroGUI.Station> stations) {
+        this.version = version;
+        this.pathFinder = pathFinder;
+        this.stations = Collections.unmodifiableList(stations);
+        this.loadedAtMillis = System.currentTimeMillis();
+    }
+
+    /** Returns sequence number, 1 for the network loaded at startup. */
+    public long getVersion() {
+        return version;
+    }
+
+    public MetroPathFinder getPathFinder() {
+        return pathFinder;
+    }
+
+    /** Returns graph of the default profile, as read from the matrix file. */
+    public CompactGraph getGraph() {
+        return pathFinder.getProfile(MetroPathFinder.DEFAULT_PROFILE).getGraph();
+    }
+
+    /** Returns stations with map positions, in stations file order. */
+    public List<MetroGUI.Station> getStations() {
+        return stations;
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkSnapshot{version=" + version + ", stations=" + pathFinder.getAllStations().size()
+                + ", edges=" + getGraph().edgeCount() + "}";
+    }
+}
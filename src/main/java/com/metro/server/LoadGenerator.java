@@ -0,0 +1,268 @@
+package com.metro.server;
+
+import com.metro.metrics.Histogram;
+import com.metro.metrics.MetricsRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for the {@code /route} endpoint. Every
+ * connection is a keep-alive socket driven by its own thread that sends the
+ * next request as soon as the previous response is read, so throughput is
+ * limited by the server (and, on a shared machine, by the generator itself).
+ *
+ * <p>Requests are written and responses parsed by hand: the client does
+ * only socket I/O and header scanning, which keeps its own cost well below
+ * that of the server. Origin-destination pairs are drawn at random from the
+ * given station list. Latency is measured from writing a request to reading
+ * the last byte of its response; requests finished during warm-up are not
+ * counted.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public class LoadGenerator {
+
+    private static final int REQUEST_POOL_SIZE = 4096;
+    private static final int SOCKET_TIMEOUT_MILLIS = 10_000;
+
+    private final String host;
+    private final int port;
+    private final int connections;
+    private final byte[][] requests;
+
+    /**
+     * Creates generator.
+     *
+     * @param host server host
+     * @param port server port
+     * @param stations station names to build routes from (at least two)
+     * @param connections number of concurrent keep-alive connections
+     * @param seed random seed for origin-destination pairs
+     * @throws IllegalArgumentException if there are fewer than two stations
+     *                                  or connections is not positive
+     */
+    public LoadGenerator(String host, int port, List<String> stations, int connections, long seed) {
+        if (stations.size() < 2) {
+            throw new IllegalArgumentException("At least two stations are required");
+        }
+        if (connections <= 0) {
+            throw new IllegalArgumentException("Connections must be positive: " + connections);
+        }
+        this.host = host;
+        this.port = port;
+        this.connections = connections;
+        this.requests = buildRequests(host, stations, new Random(seed));
+    }
+
+    private static byte[][] buildRequests(String host, List<String> stations, Random random) {
+        byte[][] pool = new byte[REQUEST_POOL_SIZE][];
+        for (int i = 0; i < pool.length; i++) {
+            int from = random.nextInt(stations.size());
+            int to = random.nextInt(stations.size() - 1);
+            if (to >= from) to++;
+            String request = "GET /route?from=" + URLEncoder.encode(stations.get(from), StandardCharsets.UTF_8)
+                    + "&to=" + URLEncoder.encode(stations.get(to), StandardCharsets.UTF_8)
+                    + " HTTP/1.1\r\nHost: " + host + "\r\n\r\n";
+            pool[i] = request.getBytes(StandardCharsets.US_ASCII);
+        }
+        return pool;
+    }
+
+    /**
+     * Runs load for warm-up plus measured period.
+     *
+     * @param warmupMillis time before measurement starts
+     * @param durationMillis measured time
+     * @return measured throughput and latency
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public Result run(long warmupMillis, long durationMillis) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmupMillis * 1_000_000L;
+        long measureTo = measureFrom + durationMillis * 1_000_000L;
+
+        // Отдельный реестр, чтобы не смешивать с метриками сервера в том же процессе
+        Histogram latency = new MetricsRegistry().histogram("loadtest.latency.ns");
+        LongAdder errors = new LongAdder();
+
+        List<Thread> workers = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            int offset = i * (REQUEST_POOL_SIZE / connections + 1);
+            Thread worker = new Thread(() -> drive(offset, measureFrom, measureTo, latency, errors),
+                    "load-generator-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        return new Result(latency.getCount(), errors.sum(), measureTo - measureFrom,
+                latency.getPercentile(50), latency.getPercentile(99), latency.getMax());
+    }
+
+    /**
+     * Sends requests over one connection until end time, reconnecting after
+     * I/O errors.
+     */
+    private void drive(int offset, long measureFrom, long measureTo, Histogram latency, LongAdder errors) {
+        int next = offset;
+        while (System.nanoTime() < measureTo) {
+            try (Socket socket = new Socket()) {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+                socket.connect(new InetSocketAddress(host, port), SOCKET_TIMEOUT_MILLIS);
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+                InputStream in = new BufferedInputStream(socket.getInputStream(), 1 << 14);
+
+                long now;
+                while ((now = System.nanoTime()) < measureTo) {
+                    out.write(requests[next++ % REQUEST_POOL_SIZE]);
+                    out.flush();
+                    int status = readResponse(in);
+                    long end = System.nanoTime();
+                    if (now >= measureFrom) {
+                        if (status == 200) {
+                            latency.record(end - now);
+                        } else {
+                            errors.increment();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                if (System.nanoTime() >= measureFrom) {
+                    errors.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads one response with {@code Content-Length} body.
+     *
+     * @return HTTP status code
+     * @throws IOException if connection is closed or response is malformed
+     */
+    static int readResponse(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        if (!statusLine.startsWith("HTTP/1.1 ") || statusLine.length() < 12) {
+            throw new IOException("Invalid status line: " + statusLine);
+        }
+        int status;
+        try {
+            status = Integer.parseInt(statusLine.substring(9, 12));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid status line: " + statusLine);
+        }
+
+        long length = -1;
+        String header;
+        while (!(header = readLine(in)).isEmpty()) {
+            int colon = header.indexOf(':');
+            if (colon > 0 && header.substring(0, colon).trim().equalsIgnoreCase("Content-Length")) {
+                try {
+                    length = Long.parseLong(header.substring(colon + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid header: " + header);
+                }
+            }
+        }
+        if (length < 0) {
+            throw new IOException("Response without Content-Length");
+        }
+
+        while (length > 0) {
+            long skipped = in.skip(length);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new IOException("Connection closed in response body");
+                }
+                skipped = 1;
+            }
+            length -= skipped;
+        }
+        return status;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new IOException("Connection closed");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Outcome of a load run. Latencies are in nanoseconds, with the
+     * histogram's bucket precision.
+     */
+    public static final class Result {
+        private final long requests;
+        private final long errors;
+        private final long elapsedNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        Result(long requests, long errors, long elapsedNanos, long p50Nanos, long p99Nanos, long maxNanos) {
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /** Returns number of successful responses in measured period. */
+        public long getRequests() {
+            return requests;
+        }
+
+        /** Returns non-200 responses and connection errors in measured period. */
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getRequestsPerSecond() {
+            return requests / Math.max(elapsedNanos / 1e9, 1e-9);
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests (%d failed) in %.2f s, %.0f req/s, p50 %d us, p99 %d us, max %d us",
+                    requests, errors, elapsedNanos / 1e9, getRequestsPerSecond(),
+                    p50Nanos / 1000, p99Nanos / 1000, maxNanos / 1000);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.metro.server;
+
+import com.metro.algorithm.MetroPathFinder;
+import com.metro.algorithm.RouteRestrictions;
+import com.metro.metrics.MetricsRegistry;
+import com.metro.model.PathResult;
+import com.metro.registry.NetworkRegistry;
+import com.metro.utils.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Headless HTTP routing service on top of the JDK built-in server.
+ * Every request runs on its own virtual thread and uses one shared,
+ * read-only {@link MetroPathFinder}. The router is taken from a supplier
+ * once per request, so a reloaded network can be swapped in while the
+ * server is running. Served from a {@link NetworkRegistry}, every endpoint
+ * accepts {@code network=id} to pick the city; without it the default
+ * network is used.
+ *
+ * <p>Endpoints (GET, JSON responses):
+ * <ul>
+ *     <li>{@code /route?from=A&to=B[&profile=name][&avoid=X,Y]} - shortest route,
+ *     optionally with travel times of a weight profile instead of the active
+ *     one and avoiding listed stations</li>
+ *     <li>{@code /isochrone?from=A&maxTime=15} - stations reachable within time</li>
+ *     <li>{@code /stations?q=text&limit=10} - station list or suggestions</li>
+ *     <li>{@code /metrics} - plain-text metrics dump</li>
+ * </ul>
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public class MetroHttpServer {
+
+    private static final Logger logger = LogManager.getLogger(MetroHttpServer.class);
+
+    /** Default listening port. */
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final int BACKLOG = 1024;
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final Function<String, MetroPathFinder> networks;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates server bound to port. Call {@link #start()} to accept requests.
+     *
+     * @param pathFinder shared router
+     * @param port port to listen on (0 for any free port)
+     * @throws IOException if port cannot be bound
+     */
+    public MetroHttpServer(MetroPathFinder pathFinder, int port) throws IOException {
+        this(() -> pathFinder, port);
+    }
+
+    /**
+     * Creates server that asks supplier for the live router on every request.
+     *
+     * @param pathFinders supplier of current router, e.g. a network reloader
+     * @param port port to listen on (0 for any free port)
+     * @throws IOException if port cannot be bound
+     */
+    public MetroHttpServer(Supplier<MetroPathFinder> pathFinders, int port) throws IOException {
+        this(id -> {
+            if (id != null) {
+                throw new IllegalArgumentException("Unknown network: " + id);
+            }
+            return pathFinders.get();
+        }, port);
+    }
+
+    /**
+     * Creates server for many networks; each is loaded on first request.
+     *
+     * @param registry registered networks
+     * @param defaultNetwork id used when request has no {@code network} parameter
+     * @param port port to listen on (0 for any free port)
+     * @throws IOException if port cannot be bound
+     * @throws IllegalArgumentException if default network is not registered
+     */
+    public MetroHttpServer(NetworkRegistry registry, String defaultNetwork, int port) throws IOException {
+        this(lookup(registry, defaultNetwork), port);
+    }
+
+    private static Function<String, MetroPathFinder> lookup(NetworkRegistry registry, String defaultNetwork) {
+        if (!registry.isRegistered(defaultNetwork)) {
+            throw new IllegalArgumentException("Unknown network: " + defaultNetwork);
+        }
+        return id -> registry.get(id != null ? id : defaultNetwork);
+    }
+
+    private MetroHttpServer(Function<String, MetroPathFinder> networks, int port) throws IOException {
+        // Без TCP_NODELAY ответы keep-alive ждут delayed ACK клиента (~40 мс)
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+
+        this.networks = networks;
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        server.createContext("/route", exchange -> handle(exchange, this::route));
+        server.createContext("/isochrone", exchange -> handle(exchange, this::isochrone));
+        server.createContext("/stations", exchange -> handle(exchange, this::stations));
+        server.createContext("/metrics", this::metrics);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("HTTP routing service listening on port {}", getPort());
+    }
+
+    /**
+     * Stops server, waiting up to a second for in-flight exchanges.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        logger.info("HTTP routing service stopped");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private Response route(Map<String, String> params) {
+        String from = params.get("from");
+        String to = params.get("to");
+        if (from == null || to == null) {
+            return Response.error(400, "Parameters 'from' and 'to' are required");
+        }
+
+        String profile = params.get("profile");
+        String avoid = params.get("avoid");
+        MetroPathFinder pathFinder = networks.apply(params.get("network"));
+
+        PathResult result;
+        try {
+            if (profile == null && avoid == null) {
+                result = pathFinder.findShortestPath(from, to);
+            } else {
+                RouteRestrictions restrictions = avoid != null ? avoiding(pathFinder, avoid) : RouteRestrictions.NONE;
+                String profileName = profile != null ? profile : pathFinder.getActiveProfile().getName();
+                result = pathFinder.findShortestPathCompactInProfile(from, to, profileName, restrictions)
+                        .toPathResult();
+            }
+        } catch (IllegalArgumentException e) {
+            return Response.error(400, e.getMessage());
+        }
+        if (result.hasError()) {
+            return Response.error(404, result.getErrorMessage());
+        }
+
+        List<String> path = result.getPath();
+        StringBuilder body = new StringBuilder(64 + path.size() * 32);
+        JsonWriter json = new JsonWriter(body);
+        json.beginObject()
+                .name("from").value(path.get(0))
+                .name("to").value(path.get(path.size() - 1))
+                .name("totalTime").value(result.getTotalTime())
+                .name("stations").beginArray();
+        for (String station : path) {
+            json.value(station);
+        }
+        json.endArray().endObject();
+
+        return new Response(200, body);
+    }
+
+    /**
+     * Builds restrictions from comma-separated station names.
+     *
+     * @throws IllegalArgumentException if a station is unknown
+     */
+    private RouteRestrictions avoiding(MetroPathFinder pathFinder, String names) {
+        RouteRestrictions.Builder builder = RouteRestrictions.builder();
+        for (String name : names.split(",")) {
+            if (name.trim().isEmpty()) continue;
+            int id = pathFinder.getSearchIndex().resolve(name);
+            if (id == -1) {
+                throw new IllegalArgumentException("Station not found: " + name.trim());
+            }
+            builder.blockStation(id);
+        }
+        return builder.build();
+    }
+
+    private Response isochrone(Map<String, String> params) {
+        String from = params.get("from");
+        if (from == null) {
+            return Response.error(400, "Parameter 'from' is required");
+        }
+
+        int maxTime;
+        try {
+            maxTime = Integer.parseInt(params.getOrDefault("maxTime", String.valueOf(Integer.MAX_VALUE)));
+        } catch (NumberFormatException e) {
+            return Response.error(400, "Parameter 'maxTime' must be an integer");
+        }
+
+        MetroPathFinder pathFinder = networks.apply(params.get("network"));
+        int[] times = pathFinder.travelTimesFrom(from);
+        if (times == null) {
+            return Response.error(404, "Station not found: " + from);
+        }
+
+        // Сортируем индексы станций по времени в пути
+        List<String> names = pathFinder.getAllStations();
+        long[] order = new long[times.length];
+        int count = 0;
+        for (int i = 0; i < times.length; i++) {
+            if (times[i] != MetroPathFinder.UNREACHABLE && times[i] <= maxTime) {
+                order[count++] = ((long) times[i] << 32) | i;
+            }
+        }
+        Arrays.sort(order, 0, count);
+
+        StringBuilder body = new StringBuilder(64 + count * 48);
+        JsonWriter json = new JsonWriter(body);
+        json.beginObject()
+                .name("from").value(pathFinder.resolveStation(from))
+                .name("maxTime").value(maxTime)
+                .name("stations").beginArray();
+        for (int i = 0; i < count; i++) {
+            int index = (int) order[i];
+            json.beginObject()
+                    .name("name").value(names.get(index))
+                    .name("time").value(times[index])
+                    .endObject();
+        }
+        json.endArray().endObject();
+
+        return new Response(200, body);
+    }
+
+    private Response stations(Map<String, String> params) {
+        String query = params.get("q");
+        MetroPathFinder pathFinder = networks.apply(params.get("network"));
+        List<String> names;
+
+        if (query == null || query.trim().isEmpty()) {
+            names = pathFinder.getAllStations();
+        } else {
+            int limit;
+            try {
+                limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_SUGGESTIONS)));
+            } catch (NumberFormatException e) {
+                return Response.error(400, "Parameter 'limit' must be an integer");
+            }
+            names = pathFinder.suggestStations(query, limit);
+        }
+
+        StringBuilder body = new StringBuilder(16 + names.size() * 32);
+        JsonWriter json = new JsonWriter(body);
+        json.beginObject().name("stations").beginArray();
+        for (String name : names) {
+            json.value(name);
+        }
+        json.endArray().endObject();
+
+        return new Response(200, body);
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        byte[] bytes = MetricsRegistry.getDefault().dump().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        Response response;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                response = Response.error(405, "Only GET is supported");
+            } else {
+                response = handler.handle(parseQuery(exchange.getRequestURI().getRawQuery()));
+            }
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (IllegalStateException e) {
+            // Сеть не удалось загрузить
+            logger.error("Request {} failed: {}", exchange.getRequestURI(), e.getMessage());
+            response = Response.error(503, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Request {} failed: {}", exchange.getRequestURI(), e.getMessage(), e);
+            response = Response.error(500, "Internal error");
+        }
+
+        byte[] bytes = response.body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    /**
+     * Parses URL query string. Later duplicates override earlier ones.
+     */
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Response handle(Map<String, String> params);
+    }
+
+    private static final class Response {
+        final int status;
+        final CharSequence body;
+
+        Response(int status, CharSequence body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response error(int status, String message) {
+            StringBuilder body = new StringBuilder(32 + message.length());
+            new JsonWriter(body).beginObject().name("error").value(message).endObject();
+            return new Response(status, body);
+        }
+    }
+}
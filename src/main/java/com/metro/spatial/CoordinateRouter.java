@@ -0,0 +1,247 @@
+package com.metro.spatial;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.LongMinHeap;
+import com.metro.algorithm.MetroPathFinder;
+import com.metro.gui.MetroGUI;
+import com.metro.model.CompactPathResult;
+import com.metro.model.StationTable;
+import com.metro.utils.ResourceLoader;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes between map points (coordinates of stations.txt) instead of
+ * station names. The k stations nearest to each point are looked up in a
+ * {@link KdTree}; walking to an entry station and from an exit station is
+ * charged by straight-line distance.
+ *
+ * <p>All entries and exits are solved by one search: Dijkstra starts from
+ * every entry station with its walking time, each settled exit station
+ * offers a total with its walking time, and the search stops once no
+ * unsettled station can beat the best total. Walking directly between the
+ * points is also a candidate. Thread-safe; uses the active weight profile.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public class CoordinateRouter {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    /** Default number of entry and exit candidates. */
+    public static final int DEFAULT_CANDIDATES = 3;
+
+    private final MetroPathFinder pathFinder;
+    private final KdTree tree;
+    private final int[] stationIds;
+    private final double[] xs;
+    private final double[] ys;
+    private final double walkMinutesPerUnit;
+
+    /**
+     * Creates router.
+     *
+     * @param pathFinder network router
+     * @param positions map position by station name; stations without position are never entries or exits
+     * @param walkMinutesPerUnit walking minutes per map coordinate unit
+     * @throws IllegalArgumentException if no position matches a station or walking speed is not positive
+     */
+    public CoordinateRouter(MetroPathFinder pathFinder, Map<String, Point2D> positions, double walkMinutesPerUnit) {
+        if (!(walkMinutesPerUnit > 0)) {
+            throw new IllegalArgumentException("Walking minutes per unit must be positive");
+        }
+        this.pathFinder = pathFinder;
+        this.walkMinutesPerUnit = walkMinutesPerUnit;
+
+        StationTable table = pathFinder.getStationTable();
+        int[] ids = new int[table.size()];
+        double[] x = new double[table.size()];
+        double[] y = new double[table.size()];
+        int count = 0;
+        for (int id = 0; id < table.size(); id++) {
+            Point2D position = positions.get(table.getName(id));
+            if (position != null) {
+                ids[count] = id;
+                x[count] = position.getX();
+                y[count] = position.getY();
+                count++;
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("No station of the network has a map position");
+        }
+        this.stationIds = Arrays.copyOf(ids, count);
+        this.xs = Arrays.copyOf(x, count);
+        this.ys = Arrays.copyOf(y, count);
+        this.tree = new KdTree(xs, ys);
+    }
+
+    /**
+     * Creates router with station positions from stations.txt.
+     *
+     * @param pathFinder network router
+     * @param walkMinutesPerUnit walking minutes per map coordinate unit
+     * @return router
+     */
+    public static CoordinateRouter fromResources(MetroPathFinder pathFinder, double walkMinutesPerUnit) {
+        List<MetroGUI.Station> stations = ResourceLoader.loadStations();
+        Map<String, Point2D> positions = new HashMap<>();
+        for (MetroGUI.Station station : stations) {
+            positions.put(station.getName(), new Point2D.Double(station.getX(), station.getY()));
+        }
+        return new CoordinateRouter(pathFinder, positions, walkMinutesPerUnit);
+    }
+
+    /**
+     * Returns ids of stations nearest to point.
+     *
+     * @param x map x
+     * @param y map y
+     * @param k maximum number of stations
+     * @return station ids, nearest first
+     */
+    public int[] nearestStations(double x, double y, int k) {
+        int[] indexes = tree.nearest(x, y, k);
+        int[] result = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) result[i] = stationIds[indexes[i]];
+        return result;
+    }
+
+    /**
+     * Finds fastest trip between two map points.
+     *
+     * @param fromX start x
+     * @param fromY start y
+     * @param toX end x
+     * @param toY end y
+     * @param k number of entry and exit candidates
+     * @return trip, walking only if that is not slower
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public Trip route(double fromX, double fromY, double toX, double toY, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Number of candidates must be positive");
+        }
+        CompactGraph graph = pathFinder.getGraph();
+        int[] entries = tree.nearest(fromX, fromY, k);
+        int[] exits = tree.nearest(toX, toY, k);
+
+        int size = graph.size();
+        int[] dist = new int[size];
+        int[] prev = new int[size];
+        int[] exitWalk = new int[size];
+        Arrays.fill(dist, INF);
+        Arrays.fill(exitWalk, -1);
+        LongMinHeap heap = new LongMinHeap(graph.edgeCount() + entries.length);
+
+        for (int index : exits) {
+            exitWalk[stationIds[index]] = walkMinutes(xs[index], ys[index], toX, toY);
+        }
+        for (int index : entries) {
+            int station = stationIds[index];
+            int walk = walkMinutes(fromX, fromY, xs[index], ys[index]);
+            if (walk < dist[station]) {
+                dist[station] = walk;
+                prev[station] = -1;
+                heap.push(LongMinHeap.key(walk, station));
+            }
+        }
+
+        int best = walkMinutes(fromX, fromY, toX, toY);
+        int bestExit = -1;
+        while (!heap.isEmpty()) {
+            long key = heap.pop();
+            int u = LongMinHeap.station(key);
+            int d = LongMinHeap.distance(key);
+            if (d >= best) break;
+            if (d > dist[u]) continue;
+
+            if (exitWalk[u] >= 0 && d + exitWalk[u] < best) {
+                best = d + exitWalk[u];
+                bestExit = u;
+            }
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                int alt = d + graph.weight(e);
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    prev[v] = u;
+                    heap.push(LongMinHeap.key(alt, v));
+                }
+            }
+        }
+
+        if (bestExit == -1) {
+            return new Trip(best, 0, 0, null);
+        }
+
+        int length = 0;
+        for (int v = bestExit; v != -1; v = prev[v]) length++;
+        int[] path = new int[length];
+        int current = bestExit;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = current;
+            current = prev[current];
+        }
+        int walkTo = dist[path[0]];
+        int ride = dist[bestExit] - walkTo;
+        return new Trip(best, walkTo, exitWalk[bestExit],
+                CompactPathResult.success(pathFinder.getStationTable(), path, ride));
+    }
+
+    private int walkMinutes(double x1, double y1, double x2, double y2) {
+        return (int) Math.ceil(Math.hypot(x2 - x1, y2 - y1) * walkMinutesPerUnit);
+    }
+
+    /**
+     * Trip between two map points: walk, ride, walk.
+     */
+    public static final class Trip {
+        private final int totalTime;
+        private final int walkToStation;
+        private final int walkFromStation;
+        private final CompactPathResult ride;
+
+        Trip(int totalTime, int walkToStation, int walkFromStation, CompactPathResult ride) {
+            this.totalTime = totalTime;
+            this.walkToStation = walkToStation;
+            this.walkFromStation = walkFromStation;
+            this.ride = ride;
+        }
+
+        /** Returns door-to-door minutes. */
+        public int getTotalTime() {
+            return totalTime;
+        }
+
+        public int getWalkToStation() {
+            return walkToStation;
+        }
+
+        public int getWalkFromStation() {
+            return walkFromStation;
+        }
+
+        /** Returns metro part of the trip, or null if walking is faster. */
+        public CompactPathResult getRide() {
+            return ride;
+        }
+
+        public boolean isWalkOnly() {
+            return ride == null;
+        }
+
+        @Override
+        public String toString() {
+            return isWalkOnly()
+                    ? "walk " + totalTime + " min"
+                    : "walk " + walkToStation + " min, " + ride.getShortDescription()
+                    + ", walk " + walkFromStation + " min (" + totalTime + " min)";
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.metro.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Static 2-d tree over points for k-nearest-neighbour queries. Points are
+ * reordered once at build time into flat arrays; the tree is implicit
+ * (median of a range is its root, halves are subtrees), so there are no
+ * node objects. Immutable and thread-safe.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class KdTree {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] ids;
+
+    /**
+     * Builds tree; point {@code i} is reported as id {@code i}.
+     *
+     * @param xs x coordinates
+     * @param ys y coordinates
+     * @throws IllegalArgumentException if arrays differ in length
+     */
+    public KdTree(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Coordinate arrays must have equal length");
+        }
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.ids = new int[xs.length];
+        for (int i = 0; i < ids.length; i++) ids[i] = i;
+        build(0, ids.length, true);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Finds nearest points.
+     *
+     * @param x query x
+     * @param y query y
+     * @param k maximum number of points
+     * @return ids of up to k nearest points, nearest first
+     */
+    public int[] nearest(double x, double y, int k) {
+        int limit = Math.min(k, ids.length);
+        if (limit <= 0) return new int[0];
+
+        Candidates candidates = new Candidates(limit);
+        search(0, ids.length, true, x, y, candidates);
+
+        // Кандидаты лежат в max-куче; сортируем по расстоянию
+        Integer[] order = new Integer[candidates.size];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(candidates.distances[a], candidates.distances[b]));
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) result[i] = candidates.ids[order[i]];
+        return result;
+    }
+
+    /**
+     * Puts median of range by axis in the middle, smaller coordinates to
+     * the left, and recurses with the other axis.
+     */
+    private void build(int from, int to, boolean byX) {
+        if (to - from <= 1) return;
+        int mid = (from + to) >>> 1;
+        select(from, to - 1, mid, byX);
+        build(from, mid, !byX);
+        build(mid + 1, to, !byX);
+    }
+
+    private void select(int left, int right, int k, boolean byX) {
+        while (left < right) {
+            double pivot = coordinate((left + right) >>> 1, byX);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(i, byX) < pivot) i++;
+                while (coordinate(j, byX) > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void search(int from, int to, boolean byX, double x, double y, Candidates candidates) {
+        if (from >= to) return;
+        int mid = (from + to) >>> 1;
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        candidates.offer(ids[mid], dx * dx + dy * dy);
+
+        double diff = byX ? x - xs[mid] : y - ys[mid];
+        boolean leftFirst = diff < 0;
+        if (leftFirst) {
+            search(from, mid, !byX, x, y, candidates);
+        } else {
+            search(mid + 1, to, !byX, x, y, candidates);
+        }
+        // Вторую половину смотрим, только если плоскость разбиения ближе худшего кандидата
+        if (!candidates.isFull() || diff * diff < candidates.worst()) {
+            if (leftFirst) {
+                search(mid + 1, to, !byX, x, y, candidates);
+            } else {
+                search(from, mid, !byX, x, y, candidates);
+            }
+        }
+    }
+
+    private double coordinate(int index, boolean byX) {
+        return byX ? xs[index] : ys[index];
+    }
+
+    private void swap(int a, int b) {
+        double x = xs[a];
+        xs[a] = xs[b];
+        xs[b] = x;
+        double y = ys[a];
+        ys[a] = ys[b];
+        ys[b] = y;
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+
+    /**
+     * Bounded max-heap of squared distances.
+     */
+    private static final class Candidates {
+        final int[] ids;
+        final double[] distances;
+        int size;
+
+        Candidates(int capacity) {
+            ids = new int[capacity];
+            distances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        double worst() {
+            return distances[0];
+        }
+
+        void offer(int id, double distance) {
+            if (!isFull()) {
+                int i = size++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    ids[i] = ids[(i - 1) / 2];
+                    distances[i] = distances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                ids[i] = id;
+                distances[i] = distance;
+                return;
+            }
+            if (distance >= distances[0]) return;
+
+            // Заменяем корень и просеиваем вниз
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && distances[child + 1] > distances[child]) child++;
+                if (distances[child] <= distance) break;
+                ids[i] = ids[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            ids[i] = id;
+            distances[i] = distance;
+        }
+    }
+}
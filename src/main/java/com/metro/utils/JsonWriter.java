@@ -0,0 +1,107 @@
+package com.metro.utils;
+
+/**
+ * Minimal hand-written JSON builder over a {@link StringBuilder}.
+ * Handles commas between members automatically; the caller is responsible
+ * for balanced begin/end calls.
+ *
+ * @author Metro Navigator Team
+ * @version 1.0.0
+ */
+public final class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder out;
+    private boolean needComma;
+
+    public JsonWriter(StringBuilder out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() {
+        separator();
+        out.append('{');
+        needComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        out.append('}');
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        separator();
+        out.append('[');
+        needComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        out.append(']');
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separator();
+        quote(name);
+        out.append(':');
+        needComma = false;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        separator();
+        if (value == null) {
+            out.append("null");
+        } else {
+            quote(value);
+        }
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separator();
+        out.append(value);
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separator();
+        out.append(value);
+        needComma = true;
+        return this;
+    }
+
+    private void separator() {
+        if (needComma) {
+            out.append(',');
+        }
+    }
+
+    private void quote(String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
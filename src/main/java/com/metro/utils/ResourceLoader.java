@@ -12,7 +12,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ResourceLoader {
 
@@ -52,9 +54,37 @@ public class ResourceLoader {
         return lines;
     }
 
+    /**
+     * Reads resource or file as raw bytes.
+     *
+     * @param fileName resource name or file path
+     * @return content, or null if not found or unreadable
+     */
+    public static byte[] readBytes(String fileName) {
+        InputStream is = getResourceStream(fileName);
+        if (is == null) {
+            return null;
+        }
+        try (InputStream input = is) {
+            return input.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     public static List<MetroGUI.Station> loadStations() {
+        return loadStations("stations.txt");
+    }
+
+    /**
+     * Reads stations in {@code name;x;y;line} format.
+     *
+     * @param fileName resource name or file path
+     * @return stations in file order, empty if file is missing
+     */
+    public static List<MetroGUI.Station> loadStations(String fileName) {
         List<MetroGUI.Station> stations = new ArrayList<>();
-        List<String> lines = readTextFile("stations.txt");
+        List<String> lines = readTextFile(fileName);
 
         for (String line : lines) {
             line = line.trim();
@@ -77,6 +107,29 @@ public class ResourceLoader {
         return stations;
     }
 
+    /**
+     * Reads line code of every station from stations.txt.
+     *
+     * @return line code by station name, empty if file is missing
+     */
+    public static Map<String, String> loadStationLines() {
+        return loadStationLines("stations.txt");
+    }
+
+    /**
+     * Reads line code of every station from stations file.
+     *
+     * @param fileName resource name or file path
+     * @return line code by station name, empty if file is missing
+     */
+    public static Map<String, String> loadStationLines(String fileName) {
+        Map<String, String> lines = new HashMap<>();
+        for (MetroGUI.Station station : loadStations(fileName)) {
+            lines.put(station.getName(), station.getLine());
+        }
+        return lines;
+    }
+
     private static InputStream getResourceStream(String fileName) {
         InputStream is = ResourceLoader.class.getClassLoader()
                 .getResourceAsStream(fileName);
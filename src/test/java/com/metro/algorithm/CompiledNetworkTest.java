@@ -0,0 +1,96 @@
+package com.metro.algorithm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileWriter;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompiledNetwork Tests")
+class CompiledNetworkTest {
+
+    @TempDir
+    Path tempDir;
+    private String matrixFile;
+    private String stationsFile;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        int size = 40;
+        matrixFile = TestNetworks.writeRandomNetwork(tempDir.resolve("metro.txt"), size, 17).toString();
+        stationsFile = tempDir.resolve("stations.txt").toString();
+        try (FileWriter writer = new FileWriter(stationsFile)) {
+            for (int i = 0; i < size; i++) {
+                writer.write("S" + i + ";" + i * 10 + ";0;" + (i % 3 == 0 ? "r" : "b") + "\n");
+            }
+        }
+        snapshotFile = tempDir.resolve("metro.txt" + CompiledNetwork.SUFFIX);
+    }
+
+    private void compile() throws Exception {
+        try (OutputStream output = Files.newOutputStream(snapshotFile)) {
+            CompiledNetwork.compile(matrixFile, stationsFile, output);
+        }
+    }
+
+    @Test
+    @DisplayName("Network from snapshot equals parsed network")
+    void snapshotMatchesParsed() throws Exception {
+        compile();
+        MetroPathFinder parsed = new MetroPathFinder(matrixFile, stationsFile, false);
+        MetroPathFinder compiled = new MetroPathFinder(matrixFile, stationsFile, true);
+        LandmarkIndex parsedLandmarks = parsed.getLandmarkIndex();
+        LandmarkIndex compiledLandmarks = compiled.getLandmarkIndex();
+
+        assertNotNull(CompiledNetwork.find(matrixFile, stationsFile));
+        assertAll(
+                () -> assertEquals(parsed.getAllStations(), compiled.getAllStations()),
+                () -> assertEquals(parsed.getGraph().fingerprint(), compiled.getGraph().fingerprint()),
+                () -> assertArrayEquals(parsed.getLineCodes(), compiled.getLineCodes()),
+                () -> assertArrayEquals(parsedLandmarks.getLandmarks(), compiledLandmarks.getLandmarks()),
+                () -> assertArrayEquals(parsedLandmarks.fromTable(), compiledLandmarks.fromTable()),
+                () -> assertArrayEquals(parsedLandmarks.toTable(), compiledLandmarks.toTable()),
+                () -> assertEquals(parsed.findShortestPath("S0", "S30").getTotalTime(),
+                        compiled.findShortestPath("S0", "S30").getTotalTime()),
+                () -> assertArrayEquals(parsed.travelTimesFrom("S5"), compiled.travelTimesFrom("S5"))
+        );
+    }
+
+    @Test
+    @DisplayName("Snapshot of changed files is ignored")
+    void staleSnapshotIgnored() throws Exception {
+        compile();
+        TestNetworks.writeRandomNetwork(Path.of(matrixFile), 40, 18);
+
+        MetroPathFinder loaded = new MetroPathFinder(matrixFile, stationsFile, true);
+        MetroPathFinder parsed = new MetroPathFinder(matrixFile, stationsFile, false);
+
+        assertAll(
+                () -> assertNull(CompiledNetwork.find(matrixFile, stationsFile)),
+                () -> assertEquals(parsed.getGraph().fingerprint(), loaded.getGraph().fingerprint())
+        );
+    }
+
+    @Test
+    @DisplayName("Corrupted or missing snapshot is ignored")
+    void corruptedSnapshotIgnored() throws Exception {
+        boolean missing = CompiledNetwork.find(matrixFile, stationsFile) == null;
+        compile();
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        Files.write(snapshotFile, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertAll(
+                () -> assertTrue(missing),
+                () -> assertNull(CompiledNetwork.find(matrixFile, stationsFile)),
+                () -> assertEquals(40, new MetroPathFinder(matrixFile, stationsFile, true).getAllStations().size())
+        );
+    }
+}
@@ -0,0 +1,108 @@
+package com.metro.algorithm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeltaSteppingSearch Tests")
+class DeltaSteppingSearchTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Same distances as MetroPathFinder for every source and delta")
+    void matchesPathFinder() throws Exception {
+        MetroPathFinder pathFinder = new MetroPathFinder(
+                TestNetworks.writeRandomNetwork(tempDir.resolve("random.txt"), 50, 3).toString());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int delta : new int[]{1, 3, 100}) {
+                DeltaSteppingSearch search = new DeltaSteppingSearch(pathFinder.getGraph(), delta, pool);
+                for (int source = 0; source < 50; source++) {
+                    assertArrayEquals(pathFinder.travelTimesFrom("S" + source), search.distancesFrom(source),
+                            "delta " + delta + ", source S" + source);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Large generated grid with parallel relaxation steps")
+    void largeGeneratedGrid() {
+        CompactGraph graph = DeltaSteppingBenchmark.grid(150, 9);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] expected = dijkstra(graph, 0);
+            assertArrayEquals(expected, new DeltaSteppingSearch(graph, 40, pool).distancesFrom(0));
+            assertArrayEquals(expected, new DeltaSteppingSearch(graph).distancesFrom(0));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark compares both searches and isochrones switch above threshold")
+    void benchmarkAndThreshold() {
+        DeltaSteppingBenchmark.Result result = DeltaSteppingBenchmark.run(DeltaSteppingBenchmark.grid(40, 1), 2, 3, 5);
+
+        assertAll(
+                () -> assertEquals(2, result.getThreads()),
+                () -> assertTrue(result.getDijkstraNanos() > 0),
+                () -> assertTrue(result.getDeltaSteppingNanos() > 0),
+                () -> assertTrue(result.getSpeedup() > 0),
+                () -> assertFalse(MetroPathFinder.useDeltaStepping(1_000_000, 1)),
+                () -> assertFalse(MetroPathFinder.useDeltaStepping(50, 8)),
+                () -> assertTrue(MetroPathFinder.useDeltaStepping(1_000_000, 8))
+        );
+    }
+
+    @Test
+    @DisplayName("Rejects invalid arguments")
+    void invalidArguments() {
+        CompactGraph graph = CompactGraph.fromEdges(2, new int[]{0}, new int[]{1}, new int[]{4});
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{MetroPathFinder.UNREACHABLE, 0},
+                        new DeltaSteppingSearch(graph).distancesFrom(1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new DeltaSteppingSearch(graph).distancesFrom(2)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new DeltaSteppingSearch(graph, 0, ForkJoinPool.commonPool())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CompactGraph.fromEdges(2, new int[]{0}, new int[]{2}, new int[]{1}))
+        );
+    }
+
+    private static int[] dijkstra(CompactGraph graph, int source) {
+        int[] dist = new int[graph.size()];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        LongMinHeap heap = new LongMinHeap(16);
+        dist[source] = 0;
+        heap.push(LongMinHeap.key(0, source));
+        while (!heap.isEmpty()) {
+            long key = heap.pop();
+            int u = LongMinHeap.station(key);
+            if (LongMinHeap.distance(key) > dist[u]) continue;
+            for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                int alt = dist[u] + graph.weight(e);
+                if (alt < dist[graph.target(e)]) {
+                    dist[graph.target(e)] = alt;
+                    heap.push(LongMinHeap.key(alt, graph.target(e)));
+                }
+            }
+        }
+        for (int v = 0; v < dist.length; v++) {
+            if (dist[v] == Integer.MAX_VALUE) dist[v] = MetroPathFinder.UNREACHABLE;
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,100 @@
+package com.metro.algorithm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HubLabelIndex Tests")
+class HubLabelIndexTest {
+
+    private static final int SIZE = 40;
+
+    @TempDir
+    Path tempDir;
+    private MetroPathFinder pathFinder;
+    private HubLabelIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pathFinder = new MetroPathFinder(TestNetworks.writeRandomNetwork(tempDir.resolve("random.txt"), SIZE, 7).toString());
+        index = HubLabelIndex.build(pathFinder.getGraph());
+    }
+
+    @Test
+    @DisplayName("Distances match Dijkstra for all pairs")
+    void distancesMatchDijkstra() {
+        int[] all = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) all[i] = i;
+        int[] expected = pathFinder.distanceTable(all, all);
+
+        for (int s = 0; s < SIZE; s++) {
+            for (int t = 0; t < SIZE; t++) {
+                assertEquals(expected[s * SIZE + t], index.distance(s, t), "S" + s + " -> S" + t);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Unpacked paths follow edges and have optimal length")
+    void pathsAreValid() {
+        CompactGraph graph = pathFinder.getGraph();
+        for (int s = 0; s < SIZE; s++) {
+            for (int t = 0; t < SIZE; t++) {
+                int[] path = index.path(s, t);
+                int distance = index.distance(s, t);
+                if (distance == MetroPathFinder.UNREACHABLE) {
+                    assertNull(path);
+                    continue;
+                }
+
+                assertEquals(s, path[0]);
+                assertEquals(t, path[path.length - 1]);
+                int total = 0;
+                for (int k = 0; k + 1 < path.length; k++) {
+                    total += TestNetworks.edgeWeight(graph, path[k], path[k + 1]);
+                }
+                assertEquals(distance, total, "S" + s + " -> S" + t);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Labels are much smaller than the distance matrix")
+    void labelsAreSmall() {
+        assertAll(
+                () -> assertTrue(index.averageLabelSize() < SIZE / 2.0),
+                () -> assertTrue(index.memoryBytes() > 0),
+                () -> assertTrue(index.matches(pathFinder.getGraph())),
+                () -> assertThrows(IllegalArgumentException.class, () -> index.distance(0, SIZE))
+        );
+    }
+
+    @Test
+    @DisplayName("Save and load round trip, rejecting other networks")
+    void persistence() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.save(bytes);
+
+        HubLabelIndex loaded = HubLabelIndex.load(new ByteArrayInputStream(bytes.toByteArray()),
+                pathFinder.getGraph());
+        MetroPathFinder other = new MetroPathFinder(TestNetworks.writeRandomNetwork(tempDir.resolve("other.txt"), SIZE, 8).toString());
+
+        assertAll(
+                () -> assertEquals(index.entryCount(), loaded.entryCount()),
+                () -> assertEquals(index.distance(3, 30), loaded.distance(3, 30)),
+                () -> assertArrayEquals(index.path(30, 3), loaded.path(30, 3)),
+                () -> assertThrows(IOException.class, () -> HubLabelIndex.load(
+                        new ByteArrayInputStream(bytes.toByteArray()), other.getGraph())),
+                () -> assertThrows(IOException.class, () -> HubLabelIndex.load(
+                        new ByteArrayInputStream(new byte[]{1, 2, 3, 4}), pathFinder.getGraph()))
+        );
+    }
+}
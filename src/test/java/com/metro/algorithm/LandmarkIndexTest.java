@@ -0,0 +1,114 @@
+package com.metro.algorithm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LandmarkIndex Tests")
+class LandmarkIndexTest {
+
+    private static final int SIZE = 60;
+
+    @TempDir
+    Path tempDir;
+    private MetroPathFinder pathFinder;
+    private LandmarkIndex index;
+    private int[] distances;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pathFinder = new MetroPathFinder(
+                TestNetworks.writeRandomNetwork(tempDir.resolve("random.txt"), SIZE, 11).toString());
+        index = LandmarkIndex.build(pathFinder.getGraph(), 6);
+
+        int[] all = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) all[i] = i;
+        distances = pathFinder.distanceTable(all, all);
+    }
+
+    @Test
+    @DisplayName("Landmarks are distinct and cover the isolated station")
+    void landmarkSelection() {
+        int[] landmarks = index.getLandmarks();
+
+        assertAll(
+                () -> assertEquals(6, landmarks.length),
+                () -> assertEquals(6, Arrays.stream(landmarks).distinct().count()),
+                () -> assertTrue(Arrays.stream(landmarks).anyMatch(id -> id == SIZE - 1)),
+                () -> assertNotNull(pathFinder.getLandmarkIndex())
+        );
+    }
+
+    @Test
+    @DisplayName("Bounds never exceed true distances")
+    void boundsAreAdmissible() {
+        for (int s = 0; s < SIZE; s++) {
+            for (int t = 0; t < SIZE; t++) {
+                int distance = distances[s * SIZE + t];
+                if (distance != MetroPathFinder.UNREACHABLE) {
+                    assertTrue(index.lowerBound(s, t) <= distance, "S" + s + " -> S" + t);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Search is exact and settles fewer stations than Dijkstra")
+    void searchIsExactAndFocused() {
+        long altSettled = 0;
+        long dijkstraSettled = 0;
+
+        for (int s = 0; s < SIZE; s++) {
+            for (int t = 0; t < SIZE; t++) {
+                LandmarkIndex.SearchResult alt = index.search(s, t);
+                LandmarkIndex.SearchResult plain = index.searchWithoutLandmarks(s, t);
+                assertEquals(distances[s * SIZE + t], alt.getDistance(), "S" + s + " -> S" + t);
+                assertEquals(plain.getDistance(), alt.getDistance());
+
+                int[] path = alt.getPath();
+                if (path != null) {
+                    int total = 0;
+                    for (int k = 0; k + 1 < path.length; k++) {
+                        total += TestNetworks.edgeWeight(pathFinder.getGraph(), path[k], path[k + 1]);
+                    }
+                    assertEquals(alt.getDistance(), total);
+                }
+                altSettled += alt.getSettled();
+                dijkstraSettled += plain.getSettled();
+            }
+        }
+
+        assertTrue(altSettled < dijkstraSettled, altSettled + " vs " + dijkstraSettled);
+    }
+
+    @Test
+    @DisplayName("Zero landmarks fall back to Dijkstra")
+    void zeroLandmarks() {
+        LandmarkIndex empty = LandmarkIndex.build(pathFinder.getGraph(), 0);
+
+        assertAll(
+                () -> assertEquals(0, empty.lowerBound(0, 10)),
+                () -> assertEquals(distances[10], empty.search(0, 10).getDistance()),
+                () -> assertThrows(IllegalArgumentException.class, () -> empty.search(0, SIZE))
+        );
+    }
+
+    @Test
+    @DisplayName("Landmark tables are built on first use, not at load")
+    void landmarksBuiltLazily() {
+        long beforeUse = pathFinder.estimatedMemoryBytes();
+        LandmarkIndex first = pathFinder.getLandmarkIndex();
+        long afterUse = pathFinder.estimatedMemoryBytes();
+
+        assertAll(
+                () -> assertEquals(8L * first.getLandmarks().length * SIZE, afterUse - beforeUse),
+                () -> assertSame(first, pathFinder.getLandmarkIndex())
+        );
+    }
+}
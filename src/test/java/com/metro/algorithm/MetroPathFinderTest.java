@@ -1,16 +1,26 @@
 package com.metro.algorithm;
 
+import com.metro.metrics.Counter;
+import com.metro.metrics.Histogram;
+import com.metro.metrics.MetricsRegistry;
 import com.metro.model.PathResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -71,6 +81,18 @@ class MetroPathFinderTest {
         assertTrue(result.getErrorMessage().contains("Station not found"));
     }
 
+    @Test
+    @DisplayName("Station names are resolved ignoring case")
+    void caseInsensitiveStationNames() {
+        PathResult result = pathFinder.findShortestPath("a", "c");
+
+        assertAll(
+                () -> assertTrue(result.isSuccess()),
+                () -> assertEquals("A", result.getPath().get(0)),
+                () -> assertEquals("C", pathFinder.resolveStation(" c "))
+        );
+    }
+
     @Test
     @DisplayName("Get all stations")
     void getAllStations() {
@@ -119,4 +141,260 @@ class MetroPathFinderTest {
                 () -> assertTrue(path.contains("B"))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Flight Recorder events for load and query")
+    void flightRecorderEvents() throws Exception {
+        Path output = tempDir.resolve("events.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.metro.NetworkLoad").withThreshold(Duration.ZERO);
+            recording.enable("com.metro.RouteQuery").withThreshold(Duration.ZERO);
+            recording.start();
+
+            MetroPathFinder finder = new MetroPathFinder(tempDir.resolve("test_metro.txt").toString());
+            finder.findShortestPath("A", "C");
+
+            recording.stop();
+            recording.dump(output);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(output);
+        RecordedEvent load = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.metro.NetworkLoad"))
+                .findFirst().orElseThrow();
+        RecordedEvent query = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.metro.RouteQuery"))
+                .findFirst().orElseThrow();
+
+        assertAll(
+                () -> assertEquals(3, load.getInt("stations")),
+                () -> assertEquals(0, query.getInt("startId")),
+                () -> assertEquals(2, query.getInt("endId")),
+                () -> assertEquals(3, query.getInt("pathLength")),
+                () -> assertTrue(query.getBoolean("success"))
+        );
+    }
+
+    @Test
+    @DisplayName("Distance table row-major with unreachable stations")
+    void distanceTable() {
+        int[] table = pathFinder.distanceTable(Arrays.asList("A", "c"), Arrays.asList("C", "A", "B"));
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{5, 0, 2, 0, 5, 3}, table),
+                () -> assertEquals(0, pathFinder.distanceTable(new int[0], new int[]{0}).length),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> pathFinder.distanceTable(List.of("A"), List.of("Nowhere"))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> pathFinder.distanceTable(new int[]{3}, new int[]{0}))
+        );
+    }
+
+    @Test
+    @DisplayName("Distance table matches single route queries")
+    void distanceTableMatchesRoutes() throws Exception {
+        int size = 30;
+        Random random = new Random(42);
+        StringBuilder matrix = new StringBuilder();
+        for (int i = 0; i < size; i++) matrix.append(",S").append(i);
+        matrix.append('\n');
+        for (int i = 0; i < size; i++) {
+            matrix.append('S').append(i);
+            for (int j = 0; j < size; j++) {
+                // Кольцо с хордами; станция S29 изолирована
+                boolean edge = i != j && i < size - 1 && j < size - 1
+                        && (Math.abs(i - j) == 1 || (i + j) % 7 == 0);
+                matrix.append(',').append(i == j ? 0 : edge ? 1 + (i * j) % 8 : 9);
+            }
+            matrix.append('\n');
+        }
+        File file = tempDir.resolve("ring.txt").toFile();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(matrix.toString());
+        }
+        MetroPathFinder finder = new MetroPathFinder(file.getPath());
+
+        int[] sources = new int[12];
+        int[] targets = new int[5];
+        for (int i = 0; i < sources.length; i++) sources[i] = random.nextInt(size);
+        for (int i = 0; i < targets.length; i++) targets[i] = random.nextInt(size);
+        targets[0] = size - 1;
+
+        int[] table = finder.distanceTable(sources, targets);
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < targets.length; j++) {
+                PathResult route = finder.findShortestPath("S" + sources[i], "S" + targets[j]);
+                int expected = route.isSuccess() ? route.getTotalTime() : MetroPathFinder.UNREACHABLE;
+                assertEquals(expected, table[i * targets.length + j],
+                        "S" + sources[i] + " -> S" + targets[j]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pareto routes without line codes reduce to the fastest route")
+    void paretoRoutesWithoutLines() {
+        List<LineRoute> routes = pathFinder.findParetoRoutes("A", "c");
+
+        assertAll(
+                () -> assertEquals(1, routes.size()),
+                () -> assertEquals(5, routes.get(0).getTotalTime()),
+                () -> assertEquals(0, routes.get(0).getTransfers()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> pathFinder.findParetoRoutes("A", "Nowhere"))
+        );
+    }
+
+    @Test
+    @DisplayName("Weight profiles share topology and switch without reload")
+    void weightProfiles() {
+        CompactGraph base = pathFinder.getGraph();
+        int[] night = new int[base.edgeCount()];
+        for (int e = 0; e < night.length; e++) night[e] = base.weight(e) * 2;
+
+        WeightProfile profile = pathFinder.addProfile("night", night);
+        PathResult before = pathFinder.findShortestPath("A", "C");
+        int nightTime = pathFinder.findShortestPathCompactInProfile("A", "C", "night").getTotalTime();
+        pathFinder.setActiveProfile("night");
+
+        assertAll(
+                () -> assertTrue(base.sharesTopology(profile.getGraph())),
+                () -> assertEquals(5, before.getTotalTime()),
+                () -> assertEquals(10, nightTime),
+                () -> assertEquals(10, pathFinder.findShortestPath("A", "C").getTotalTime()),
+                () -> assertArrayEquals(new int[]{10}, pathFinder.distanceTable(new int[]{0}, new int[]{2})),
+                () -> assertSame(profile, pathFinder.getActiveProfile()),
+                () -> assertEquals(List.of("default", "night"), List.copyOf(pathFinder.getProfileNames())),
+                () -> assertThrows(IllegalArgumentException.class, () -> pathFinder.setActiveProfile("peak")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> pathFinder.findShortestPathCompactInProfile("A", "C", "peak")),
+                () -> assertThrows(IllegalArgumentException.class, () -> pathFinder.addProfile("peak", new int[1]))
+        );
+    }
+
+    @Test
+    @DisplayName("Weight profile loaded from matrix file")
+    void loadProfileFromFile() throws Exception {
+        File peak = tempDir.resolve("peak.txt").toFile();
+        try (FileWriter writer = new FileWriter(peak)) {
+            writer.write(",A,B,C\n");
+            writer.write("A,0,3,9\n");
+            writer.write("B,3,0,4\n");
+            writer.write("C,9,4,0\n");
+        }
+        File extraEdge = tempDir.resolve("extra.txt").toFile();
+        try (FileWriter writer = new FileWriter(extraEdge)) {
+            writer.write(",A,B,C\n");
+            writer.write("A,0,3,1\n");
+            writer.write("B,3,0,4\n");
+            writer.write("C,1,4,0\n");
+        }
+
+        pathFinder.loadProfile("peak", peak.getPath());
+
+        assertAll(
+                () -> assertEquals(7, pathFinder.findShortestPathCompactInProfile("A", "C", "peak").getTotalTime()),
+                () -> assertEquals(5, pathFinder.findShortestPath("A", "C").getTotalTime()),
+                () -> assertThrows(Exception.class, () -> pathFinder.loadProfile("extra", extraEdge.getPath()))
+        );
+    }
+
+    @Test
+    @DisplayName("Per-query station and edge restrictions")
+    void routeRestrictions() throws Exception {
+        // A - B - D (1 + 1) и объезд A - C - D (3 + 3)
+        File file = tempDir.resolve("diamond.txt").toFile();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(",A,B,C,D\n");
+            writer.write("A,0,1,3,9\n");
+            writer.write("B,1,0,9,1\n");
+            writer.write("C,3,9,0,3\n");
+            writer.write("D,9,1,3,0\n");
+        }
+        MetroPathFinder finder = new MetroPathFinder(file.getPath());
+        CompactGraph graph = finder.getGraph();
+
+        RouteRestrictions noB = RouteRestrictions.builder().blockStation(1).build();
+        RouteRestrictions noEdge = RouteRestrictions.builder().blockEdge(graph.edgeIndex(1, 3)).build();
+        RouteRestrictions closed = RouteRestrictions.builder().blockStation(1).blockStation(2).build();
+
+        assertAll(
+                () -> assertEquals(Arrays.asList("A", "C", "D"), finder.findShortestPath("A", "D", noB).getPath()),
+                () -> assertEquals(6, finder.findShortestPath("A", "D", noEdge).getTotalTime()),
+                () -> assertEquals(2, finder.findShortestPath("D", "A", noEdge).getTotalTime()),
+                () -> assertTrue(finder.findShortestPath("A", "D", closed).hasError()),
+                () -> assertEquals("Station is blocked: B", finder.findShortestPath("A", "B", noB).getErrorMessage()),
+                () -> assertEquals(2, finder.findShortestPath("A", "D").getTotalTime()),
+                () -> assertEquals(2, finder.findShortestPath("A", "D", RouteRestrictions.NONE).getTotalTime()),
+                () -> assertEquals(-1, graph.edgeIndex(0, 3)),
+                () -> assertThrows(IllegalArgumentException.class, () -> RouteRestrictions.builder().blockStation(-1))
+        );
+    }
+
+    @Test
+    @DisplayName("Penalty overrides are read next to the matrix of their own network")
+    void penaltiesPerNetwork() throws Exception {
+        File other = tempDir.resolve("other.txt").toFile();
+        try (FileWriter writer = new FileWriter(other)) {
+            writer.write(",X,Y\nX,0,1\nY,1,0\n");
+        }
+        try (FileWriter writer = new FileWriter(other.getPath() + MetroPathFinder.PENALTIES_SUFFIX)) {
+            writer.write("# X;Y\nX;Y;7\n");
+        }
+        File broken = tempDir.resolve("broken.txt").toFile();
+        try (FileWriter writer = new FileWriter(broken)) {
+            writer.write(",X,Y\nX,0,1\nY,1,0\n");
+        }
+        try (FileWriter writer = new FileWriter(broken.getPath() + MetroPathFinder.PENALTIES_SUFFIX)) {
+            writer.write("X;Nowhere;7\n");
+        }
+
+        MetroPathFinder finder = new MetroPathFinder(other.getPath());
+
+        assertAll(
+                () -> assertEquals(7, finder.getTransferPenalties().penalty(0, 1)),
+                // У сети без своего файла переопределений нет
+                () -> assertEquals(finder.getTransferPenalties().getDefaultPenalty(),
+                        pathFinder.getTransferPenalties().penalty(0, 1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new MetroPathFinder(broken.getPath()))
+        );
+    }
+
+    @Test
+    @DisplayName("Every query is timed, including failed lookups")
+    void queryTimeRecordedOnEveryExit() {
+        Histogram queryTime = MetricsRegistry.getDefault().histogram("router.query.time.ns");
+        RouteRestrictions noA = RouteRestrictions.builder().blockStation(0).build();
+        long before = queryTime.getCount();
+
+        pathFinder.findShortestPath("A", "C");
+        pathFinder.findShortestPath("A", "Unknown");
+        pathFinder.findShortestPath("A", "C", noA);
+
+        assertEquals(before + 3, queryTime.getCount());
+    }
+
+    @Test
+    @DisplayName("Null restrictions mean none; blocked station is counted apart from missing path")
+    void nullRestrictionsAndBlockedCounter() {
+        Counter blocked = MetricsRegistry.getDefault().counter("router.failures.station_blocked");
+        Counter noPath = MetricsRegistry.getDefault().counter("router.failures.no_path");
+        long blockedBefore = blocked.get();
+        long noPathBefore = noPath.get();
+
+        PathResult blockedResult = pathFinder.findShortestPath("A", "C",
+                RouteRestrictions.builder().blockStation(2).build());
+
+        assertAll(
+                () -> assertEquals(5, pathFinder.findShortestPath("A", "C", null).getTotalTime()),
+                () -> assertEquals(5, pathFinder.findShortestPathCompact("A", "C", null).getTotalTime()),
+                () -> assertEquals(5, pathFinder.findShortestPathCompactInProfile("A", "C",
+                        MetroPathFinder.DEFAULT_PROFILE, null).getTotalTime()),
+                () -> assertEquals(3, pathFinder.stationsByTravelTime(0, null).stream().count()),
+                () -> assertTrue(blockedResult.hasError()),
+                () -> assertEquals(blockedBefore + 1, blocked.get()),
+                () -> assertEquals(noPathBefore, noPath.get())
+        );
+    }
+}
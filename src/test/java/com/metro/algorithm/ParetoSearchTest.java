@@ -0,0 +1,152 @@
+package com.metro.algorithm;
+
+import com.metro.model.StationTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParetoSearch Tests")
+class ParetoSearchTest {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    @Test
+    @DisplayName("Slower direct ride and faster route with a change")
+    void twoOptimalRoutes() {
+        // Линия 0: 0 - 1 - 2 - 3 (по 5 мин), линия 1: 4 - 5, пересадки 0-4 и 5-3
+        CompactGraph graph = TestNetworks.undirected(6, new int[][]{
+                {0, 1, 5}, {1, 2, 5}, {2, 3, 5}, {0, 4, 1}, {4, 5, 3}, {5, 3, 1}});
+        ParetoSearch search = new ParetoSearch(graph, new int[]{0, 0, 0, 0, 1, 1}, 4);
+
+        List<LineRoute> routes = search.search(0, 3);
+
+        assertAll(
+                () -> assertEquals(2, routes.size()),
+                () -> assertEquals(15, routes.get(0).getTotalTime()),
+                () -> assertEquals(0, routes.get(0).getTransfers()),
+                () -> assertArrayEquals(new int[]{0, 1, 2, 3}, routes.get(0).getStations()),
+                () -> assertEquals(5, routes.get(1).getTotalTime()),
+                () -> assertEquals(2, routes.get(1).getTransfers()),
+                () -> assertArrayEquals(new int[]{0, 4, 5, 3}, routes.get(1).getStations())
+        );
+    }
+
+    @Test
+    @DisplayName("Dominated routes and transfer bound")
+    void dominatedAndBounded() {
+        CompactGraph graph = TestNetworks.undirected(6, new int[][]{
+                {0, 1, 5}, {1, 2, 5}, {2, 3, 5}, {0, 4, 1}, {4, 5, 3}, {5, 3, 1}});
+        int[] lines = {0, 0, 0, 0, 1, 1};
+
+        List<LineRoute> bounded = new ParetoSearch(graph, lines, 1).search(0, 3);
+        List<LineRoute> same = new ParetoSearch(graph, lines, 4).search(2, 2);
+        // Без известных линий пересадок нет, остаётся один самый быстрый маршрут
+        List<LineRoute> unknown = new ParetoSearch(graph, new int[]{-1, -1, -1, -1, -1, -1}, 4).search(0, 3);
+
+        assertAll(
+                () -> assertEquals(1, bounded.size()),
+                () -> assertEquals(15, bounded.get(0).getTotalTime()),
+                () -> assertEquals(1, same.size()),
+                () -> assertEquals(0, same.get(0).getTotalTime()),
+                () -> assertEquals(1, unknown.size()),
+                () -> assertEquals(5, unknown.get(0).getTotalTime()),
+                () -> assertEquals("A → D (5 min, 4 stations)", unknown.get(0)
+                        .toResult(new StationTable(Arrays.asList("A", "B", "C", "D", "E", "F"))).getShortDescription()),
+                () -> assertThrows(IllegalArgumentException.class, () -> new ParetoSearch(graph, new int[2], 1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new ParetoSearch(graph, lines, 1).search(0, 9))
+        );
+    }
+
+    @Test
+    @DisplayName("Pareto front matches layered search on random networks")
+    void matchesLayeredSearch() {
+        Random random = new Random(5);
+        for (int round = 0; round < 20; round++) {
+            int size = 40;
+            int[][] edges = new int[80][];
+            for (int i = 0; i < edges.length; i++) {
+                edges[i] = new int[]{random.nextInt(size), random.nextInt(size), 1 + random.nextInt(9)};
+            }
+            int[] lines = new int[size];
+            for (int i = 0; i < size; i++) lines[i] = random.nextInt(4);
+            CompactGraph graph = TestNetworks.undirected(size, edges);
+            ParetoSearch search = new ParetoSearch(graph, lines, 5);
+
+            int source = random.nextInt(size);
+            int target = random.nextInt(size);
+            int[] expected = layered(graph, search, source, target);
+            List<LineRoute> routes = search.search(source, target);
+
+            int previous = INF;
+            int index = 0;
+            for (int k = 0; k < expected.length; k++) {
+                if (expected[k] >= previous) continue;
+                LineRoute route = routes.get(index++);
+                assertEquals(expected[k], route.getTotalTime(), "time with " + k + " transfers");
+                assertEquals(k, route.getTransfers());
+                assertEquals(k, countTransfers(search, route.getStations()));
+                assertEquals(route.getTotalTime(), pathTime(graph, route.getStations()));
+                previous = expected[k];
+            }
+            assertEquals(index, routes.size());
+        }
+    }
+
+    /**
+     * Best time to target with at most k transfers, by Dijkstra over (station, transfers) states.
+     */
+    private static int[] layered(CompactGraph graph, ParetoSearch search, int source, int target) {
+        int slots = search.getMaxTransfers() + 1;
+        int[] dist = new int[graph.size() * slots];
+        Arrays.fill(dist, INF);
+        dist[source * slots] = 0;
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+        queue.add(new int[]{0, source, 0});
+        while (!queue.isEmpty()) {
+            int[] top = queue.poll();
+            int u = top[1];
+            if (top[0] > dist[u * slots + top[2]]) continue;
+            for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                int v = graph.target(e);
+                int k = top[2] + (search.isTransfer(u, v) ? 1 : 0);
+                if (k < slots && top[0] + graph.weight(e) < dist[v * slots + k]) {
+                    dist[v * slots + k] = top[0] + graph.weight(e);
+                    queue.add(new int[]{dist[v * slots + k], v, k});
+                }
+            }
+        }
+        int[] best = new int[slots];
+        int running = INF;
+        for (int k = 0; k < slots; k++) {
+            running = Math.min(running, dist[target * slots + k]);
+            best[k] = running;
+        }
+        return best;
+    }
+
+    private static int countTransfers(ParetoSearch search, int[] path) {
+        int transfers = 0;
+        for (int i = 1; i < path.length; i++) {
+            if (search.isTransfer(path[i - 1], path[i])) transfers++;
+        }
+        return transfers;
+    }
+
+    private static int pathTime(CompactGraph graph, int[] path) {
+        int time = 0;
+        for (int i = 1; i < path.length; i++) {
+            int weight = INF;
+            for (int e = graph.firstEdge(path[i - 1]); e < graph.firstEdge(path[i - 1] + 1); e++) {
+                if (graph.target(e) == path[i]) weight = Math.min(weight, graph.weight(e));
+            }
+            time += weight;
+        }
+        return time;
+    }
+}
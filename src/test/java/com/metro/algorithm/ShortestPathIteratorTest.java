@@ -0,0 +1,93 @@
+package com.metro.algorithm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShortestPathIterator Tests")
+class ShortestPathIteratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Stations come in travel time order and cover all reachable ones")
+    void settleOrder() throws Exception {
+        MetroPathFinder finder = new MetroPathFinder(
+                TestNetworks.writeRandomNetwork(tempDir.resolve("net.txt"), 120, 17).toString());
+        String source = finder.getAllStations().get(5);
+        int[] expected = finder.travelTimesFrom(source);
+
+        ShortestPathIterator iterator = finder.stationsByTravelTime(source);
+        boolean[] seen = new boolean[expected.length];
+        int previous = 0;
+        int count = 0;
+        while (iterator.hasNext()) {
+            int station = iterator.nextInt();
+            assertFalse(seen[station]);
+            seen[station] = true;
+            assertTrue(iterator.distance() >= previous);
+            assertEquals(expected[station], iterator.distance());
+
+            // Путь заканчивается в станции и его длина равна времени
+            int[] path = iterator.path();
+            int time = 0;
+            for (int i = 1; i < path.length; i++) {
+                time += TestNetworks.edgeWeight(finder.getGraph(), path[i - 1], path[i]);
+            }
+            assertEquals(station, path[path.length - 1]);
+            assertEquals(iterator.distance(), time);
+
+            previous = iterator.distance();
+            count++;
+        }
+
+        int reachable = 0;
+        for (int time : expected) {
+            if (time != MetroPathFinder.UNREACHABLE) reachable++;
+        }
+        assertEquals(reachable, count);
+        assertEquals(count, iterator.settledCount());
+        assertThrows(NoSuchElementException.class, iterator::nextInt);
+    }
+
+    @Test
+    @DisplayName("Early stop settles only what was consumed")
+    void earlyStop() {
+        // Цепочка 0 - 1 - ... - 9, ищем первую станцию с номером >= 3
+        int size = 10;
+        int[] from = new int[2 * (size - 1)];
+        int[] to = new int[from.length];
+        int[] weights = new int[from.length];
+        for (int i = 0; i < size - 1; i++) {
+            from[2 * i] = i;
+            to[2 * i] = i + 1;
+            from[2 * i + 1] = i + 1;
+            to[2 * i + 1] = i;
+            weights[2 * i] = 2;
+            weights[2 * i + 1] = 2;
+        }
+        CompactGraph graph = CompactGraph.fromEdges(size, from, to, weights);
+
+        ShortestPathIterator iterator = new ShortestPathIterator(graph, 0, null);
+        int found = iterator.stream().filter(station -> station >= 3).findFirst().orElse(-1);
+        ShortestPathIterator blocked = new ShortestPathIterator(graph, 0,
+                RouteRestrictions.builder().blockStation(2).build());
+
+        assertAll(
+                () -> assertEquals(3, found),
+                () -> assertEquals(4, iterator.settledCount()),
+                () -> assertEquals(6, iterator.distance()),
+                () -> assertArrayEquals(new int[]{0, 1, 2, 3}, iterator.path()),
+                () -> assertEquals(2, blocked.stream().count()),
+                () -> assertThrows(IllegalStateException.class,
+                        () -> new ShortestPathIterator(graph, 0, null).distance()),
+                () -> assertThrows(IllegalArgumentException.class, () -> new ShortestPathIterator(graph, 10, null))
+        );
+    }
+}
@@ -0,0 +1,95 @@
+package com.metro.algorithm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StationSearchIndex Tests")
+class StationSearchIndexTest {
+
+    private static final List<String> STATIONS = Arrays.asList(
+            "Гражданский Проспект", "Невский проспект", "Проспект Ветеранов",
+            "Чёрная речка", "Технологический институт-1", "Технологический институт-2",
+            "Звёздная", "Балтийская"
+    );
+
+    private StationSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StationSearchIndex(STATIONS);
+    }
+
+    @Test
+    @DisplayName("Normalization ignores case, ё and extra spaces")
+    void normalization() {
+        assertEquals("черная речка", StationSearchIndex.normalize("  Чёрная   Речка "));
+        assertEquals("", StationSearchIndex.normalize(null));
+    }
+
+    @Test
+    @DisplayName("Exact lookup after normalization")
+    void exactLookup() {
+        assertAll(
+                () -> assertEquals(0, index.find("Гражданский проспект")),
+                () -> assertEquals(3, index.find("черная речка")),
+                () -> assertEquals(-1, index.find("Купчино"))
+        );
+    }
+
+    @Test
+    @DisplayName("Prefix suggestions rank full-name prefixes first")
+    void prefixSuggestions() {
+        List<String> suggestions = index.suggest("просп", 10);
+
+        assertAll(
+                () -> assertEquals(3, suggestions.size()),
+                () -> assertEquals("Проспект Ветеранов", suggestions.get(0)),
+                () -> assertTrue(suggestions.contains("Невский проспект")),
+                () -> assertTrue(suggestions.contains("Гражданский Проспект"))
+        );
+    }
+
+    @Test
+    @DisplayName("Suggestion limit is respected")
+    void suggestionLimit() {
+        assertEquals(1, index.suggest("технол", 1).size());
+        assertTrue(index.suggest("", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Fuzzy suggestions for typos")
+    void fuzzySuggestions() {
+        List<String> suggestions = index.suggest("Балтиская", 3);
+
+        assertFalse(suggestions.isEmpty());
+        assertEquals("Балтийская", suggestions.get(0));
+    }
+
+    @Test
+    @DisplayName("Resolve handles unique prefixes and typos")
+    void resolve() {
+        assertAll(
+                () -> assertEquals(6, index.resolve("Звездная")),
+                () -> assertEquals(2, index.resolve("проспект вет")),
+                () -> assertEquals(7, index.resolve("Балтиская")),
+                () -> assertEquals(-1, index.resolve("Технологический институт")),
+                () -> assertEquals(-1, index.resolve("Nonexistent"))
+        );
+    }
+
+    @Test
+    @DisplayName("Bounded edit distance")
+    void editDistance() {
+        assertAll(
+                () -> assertEquals(1, StationSearchIndex.editDistance("abc", "abd", 2)),
+                () -> assertEquals(3, StationSearchIndex.editDistance("abc", "xyz", 2)),
+                () -> assertEquals(0, StationSearchIndex.editDistance("abc", "abc", 0))
+        );
+    }
+}
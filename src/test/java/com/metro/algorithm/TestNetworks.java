@@ -0,0 +1,92 @@
+package com.metro.algorithm;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates networks for algorithm and analytics tests.
+ */
+public final class TestNetworks {
+
+    private TestNetworks() {
+    }
+
+    /**
+     * Writes network of stations S0..S(size-1): a chain with random weights,
+     * some random one-way edges and the last station isolated.
+     *
+     * @param file target file
+     * @param size number of stations
+     * @param seed random seed
+     * @return file
+     */
+    static Path writeRandomNetwork(Path file, int size, long seed) throws IOException {
+        Random random = new Random(seed);
+        int[][] weights = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                weights[i][j] = i == j ? 0 : 9;
+            }
+        }
+        for (int i = 0; i < size - 2; i++) {
+            int w = 1 + random.nextInt(8);
+            weights[i][i + 1] = w;
+            weights[i + 1][i] = w;
+        }
+        for (int k = 0; k < size; k++) {
+            int a = random.nextInt(size - 1);
+            int b = random.nextInt(size - 1);
+            if (a != b) {
+                weights[a][b] = 1 + random.nextInt(8);
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < size; i++) text.append(",S").append(i);
+        text.append('\n');
+        for (int i = 0; i < size; i++) {
+            text.append('S').append(i);
+            for (int j = 0; j < size; j++) text.append(',').append(weights[i][j]);
+            text.append('\n');
+        }
+
+        try (FileWriter writer = new FileWriter(file.toFile())) {
+            writer.write(text.toString());
+        }
+        return file;
+    }
+
+    /**
+     * Returns weight of edge or fails if there is none.
+     */
+    static int edgeWeight(CompactGraph graph, int from, int to) {
+        for (int e = graph.firstEdge(from); e < graph.firstEdge(from + 1); e++) {
+            if (graph.target(e) == to) return graph.weight(e);
+        }
+        throw new AssertionError("No edge " + from + " -> " + to);
+    }
+
+    /**
+     * Builds graph with both directions of every edge.
+     *
+     * @param size number of stations
+     * @param edges edges as {@code {from, to, weight}}
+     * @return graph
+     */
+    public static CompactGraph undirected(int size, int[][] edges) {
+        int[] from = new int[edges.length * 2];
+        int[] to = new int[edges.length * 2];
+        int[] weights = new int[edges.length * 2];
+        for (int i = 0; i < edges.length; i++) {
+            from[2 * i] = edges[i][0];
+            to[2 * i] = edges[i][1];
+            from[2 * i + 1] = edges[i][1];
+            to[2 * i + 1] = edges[i][0];
+            weights[2 * i] = edges[i][2];
+            weights[2 * i + 1] = edges[i][2];
+        }
+        return CompactGraph.fromEdges(size, from, to, weights);
+    }
+}
@@ -0,0 +1,113 @@
+package com.metro.algorithm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransferRouter Tests")
+class TransferRouterTest {
+
+    // Линия 0: 0 - 1 - 2 - 3 (по 5 мин), линия 1: 4 - 5, пересадки 0-4 и 5-3
+    private static final CompactGraph GRAPH = TestNetworks.undirected(6, new int[][]{
+            {0, 1, 5}, {1, 2, 5}, {2, 3, 5}, {0, 4, 1}, {4, 5, 3}, {5, 3, 1}});
+    private static final int[] LINES = {0, 0, 0, 0, 1, 1};
+
+    @Test
+    @DisplayName("Penalty switches to route without transfers")
+    void penaltyChangesRoute() {
+        LineRoute free = new TransferRouter(GRAPH, LINES, TransferPenalties.NONE).route(0, 3);
+        LineRoute penalized = new TransferRouter(GRAPH, LINES, TransferPenalties.uniform(6)).route(0, 3);
+        // Дешёвая пересадка 5-3 и дорогая 0-4 дают 1 + 3 + 1 + 5 + 0 = 10 < 15
+        LineRoute mixed = new TransferRouter(GRAPH, LINES, TransferPenalties.uniform(6).with(3, 5, 0).with(4, 0, 5))
+                .route(0, 3);
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{0, 4, 5, 3}, free.getStations()),
+                () -> assertEquals(5, free.getTotalTime()),
+                () -> assertEquals(2, free.getTransfers()),
+                () -> assertArrayEquals(new int[]{0, 1, 2, 3}, penalized.getStations()),
+                () -> assertEquals(15, penalized.getTotalTime()),
+                () -> assertEquals(0, penalized.getTransfers()),
+                () -> assertArrayEquals(new int[]{0, 4, 5, 3}, mixed.getStations()),
+                () -> assertEquals(5, mixed.getTotalTime())
+        );
+    }
+
+    @Test
+    @DisplayName("Unreachable target and invalid input")
+    void unreachableAndInvalid() {
+        CompactGraph graph = TestNetworks.undirected(3, new int[][]{{0, 1, 2}});
+        TransferRouter router = new TransferRouter(graph, new int[]{0, 1, 1}, TransferPenalties.uniform(2));
+
+        assertAll(
+                () -> assertNull(router.route(0, 2)),
+                () -> assertEquals(0, router.route(2, 2).getTotalTime()),
+                () -> assertEquals(1, router.route(1, 0).getTransfers()),
+                () -> assertThrows(IllegalArgumentException.class, () -> router.route(-1, 0)),
+                () -> assertThrows(IllegalArgumentException.class, () -> TransferPenalties.uniform(-1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new TransferRouter(graph, new int[2], TransferPenalties.NONE))
+        );
+    }
+
+    @Test
+    @DisplayName("Penalties parsed from text")
+    void parsePenalties() {
+        StationSearchIndex index = new StationSearchIndex(Arrays.asList("Alpha", "Beta", "Gamma"));
+        TransferPenalties penalties = TransferPenalties.parse(
+                List.of("# interchange;interchange;minutes", "", "Alpha;beta;7"), index, 2);
+
+        assertAll(
+                () -> assertEquals(7, penalties.penalty(0, 1)),
+                () -> assertEquals(7, penalties.penalty(1, 0)),
+                () -> assertEquals(2, penalties.penalty(1, 2)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> TransferPenalties.parse(List.of("Alpha;Nowhere;1"), index, 2)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> TransferPenalties.parse(List.of("Alph;Beta;1"), index, 2)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> TransferPenalties.parse(List.of("Alpha;Betta;1"), index, 2)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> TransferPenalties.parse(List.of("Alpha;Beta"), index, 2)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> TransferPenalties.parse(List.of("Alpha;Beta;x"), index, 2))
+        );
+    }
+
+    @Test
+    @DisplayName("Penalized cost equals best point of the Pareto front")
+    void matchesParetoFront() {
+        Random random = new Random(8);
+        for (int round = 0; round < 20; round++) {
+            int size = 40;
+            int[][] edges = new int[90][];
+            for (int i = 0; i < edges.length; i++) {
+                edges[i] = new int[]{random.nextInt(size), random.nextInt(size), 1 + random.nextInt(9)};
+            }
+            int[] lines = new int[size];
+            for (int i = 0; i < size; i++) lines[i] = random.nextInt(4);
+            CompactGraph graph = TestNetworks.undirected(size, edges);
+            int penalty = random.nextInt(8);
+
+            int source = random.nextInt(size);
+            int target = random.nextInt(size);
+            LineRoute route = new TransferRouter(graph, lines, TransferPenalties.uniform(penalty)).route(source, target);
+            List<LineRoute> front = new ParetoSearch(graph, lines, size).search(source, target);
+
+            if (front.isEmpty()) {
+                assertNull(route);
+                continue;
+            }
+            int best = Integer.MAX_VALUE;
+            for (LineRoute candidate : front) {
+                best = Math.min(best, candidate.getTotalTime() + penalty * candidate.getTransfers());
+            }
+            assertEquals(best, route.getTotalTime() + penalty * route.getTransfers(), "round " + round);
+        }
+    }
+}
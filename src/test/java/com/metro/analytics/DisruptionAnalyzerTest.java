@@ -0,0 +1,175 @@
+package com.metro.analytics;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.TestNetworks;
+import com.metro.model.StationTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DisruptionAnalyzer Tests")
+class DisruptionAnalyzerTest {
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private static List<DisruptionAnalyzer.Impact> analyze(DisruptionAnalyzer analyzer) {
+        List<DisruptionAnalyzer.Impact> impacts = new ArrayList<>();
+        analyzer.analyze(impacts::add);
+        return impacts;
+    }
+
+    @Test
+    @DisplayName("Chain: closing a tunnel disconnects, closing the middle loses trips")
+    void chain() {
+        // A - B - C
+        CompactGraph graph = TestNetworks.undirected(3, new int[][]{{0, 1, 2}, {1, 2, 3}});
+        DisruptionAnalyzer analyzer = new DisruptionAnalyzer(graph);
+        List<DisruptionAnalyzer.Impact> impacts = analyze(analyzer);
+
+        DisruptionAnalyzer.Impact tunnel = impacts.get(0);
+        DisruptionAnalyzer.Impact middle = impacts.get(analyzer.tunnelCount() + 1);
+        assertAll(
+                () -> assertEquals(2, analyzer.tunnelCount()),
+                () -> assertEquals(5, impacts.size()),
+                () -> assertEquals(DisruptionAnalyzer.Impact.Type.TUNNEL, tunnel.getType()),
+                () -> assertEquals(0, tunnel.getFrom()),
+                () -> assertEquals(1, tunnel.getTo()),
+                () -> assertEquals(4, tunnel.getDisconnectedPairs()),
+                () -> assertEquals(0, tunnel.getAffectedPairs()),
+                () -> assertEquals(DisruptionAnalyzer.Impact.Type.STATION, middle.getType()),
+                () -> assertEquals(-1, middle.getTo()),
+                () -> assertEquals(4, middle.getLostPairs()),
+                () -> assertEquals(2, middle.getDisconnectedPairs())
+        );
+    }
+
+    @Test
+    @DisplayName("Detour delay on a ring")
+    void ringDetour() {
+        // Кольцо A - B - C - D - A
+        CompactGraph graph = TestNetworks.undirected(4, new int[][]{{0, 1, 1}, {1, 2, 1}, {2, 3, 1}, {3, 0, 10}});
+        DisruptionAnalyzer.Impact first = analyze(new DisruptionAnalyzer(graph)).get(0);
+
+        // A-B закрыт: A-B 12 вместо 1, A-C 11 вместо 2, A-D 10 вместо 3, в обе стороны
+        assertAll(
+                () -> assertEquals(6, first.getAffectedPairs()),
+                () -> assertEquals(2 * (11 + 9 + 7), first.getTotalDelay()),
+                () -> assertEquals(11, first.getMaxDelay()),
+                () -> assertEquals(9.0, first.getMeanDelay(), 1e-9),
+                () -> assertEquals(0, first.getDisconnectedPairs())
+        );
+    }
+
+    @Test
+    @DisplayName("Subtree repair matches full recomputation")
+    void matchesBruteForce() {
+        Random random = new Random(11);
+        int size = 60;
+        int[][] edges = new int[size + 25][];
+        for (int i = 0; i < size - 5; i++) {
+            edges[i] = new int[]{i, i + 1, 1 + random.nextInt(6)};
+        }
+        // Станции 55..59 - висячие и изолированные части
+        for (int i = size - 5; i < edges.length; i++) {
+            edges[i] = new int[]{random.nextInt(size - 3), random.nextInt(size - 3), 1 + random.nextInt(6)};
+        }
+        CompactGraph graph = TestNetworks.undirected(size, edges);
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        List<DisruptionAnalyzer.Impact> impacts;
+        DisruptionAnalyzer analyzer = new DisruptionAnalyzer(graph, pool);
+        try {
+            impacts = analyze(analyzer);
+        } finally {
+            pool.shutdown();
+        }
+
+        int[][] baseline = allPairs(graph, -1, -1, -1);
+        for (DisruptionAnalyzer.Impact impact : impacts) {
+            boolean tunnel = impact.getType() == DisruptionAnalyzer.Impact.Type.TUNNEL;
+            int[][] closed = tunnel
+                    ? allPairs(graph, impact.getFrom(), impact.getTo(), -1)
+                    : allPairs(graph, -1, -1, impact.getFrom());
+            long[] expected = compare(baseline, closed, tunnel ? -1 : impact.getFrom());
+            String name = impact.getType() + " " + impact.getFrom() + "-" + impact.getTo();
+            assertArrayEquals(expected, new long[]{impact.getAffectedPairs(), impact.getDisconnectedPairs(),
+                    impact.getLostPairs(), impact.getTotalDelay(), impact.getMaxDelay()}, name);
+        }
+    }
+
+    @Test
+    @DisplayName("CSV report")
+    void csvReport() throws Exception {
+        CompactGraph graph = TestNetworks.undirected(3, new int[][]{{0, 1, 2}, {1, 2, 3}, {0, 2, 4}});
+        StationTable stations = new StationTable(Arrays.asList("Alpha", "Beta, central", "Gamma"));
+        StringWriter out = new StringWriter();
+        new DisruptionAnalyzer(graph).writeCsv(stations, out);
+
+        String[] rows = out.toString().split("\n");
+        assertAll(
+                () -> assertEquals("type,from,to,affected_pairs,disconnected_pairs,lost_pairs,"
+                        + "total_delay,mean_delay,max_delay,recomputed_sources", rows[0]),
+                () -> assertEquals("tunnel,Alpha,\"Beta, central\",2,0,0,10,5.00,5,2", rows[1]),
+                () -> assertEquals("station,\"Beta, central\",,0,0,4,0,0.00,0,0", rows[5]),
+                () -> assertEquals(7, rows.length)
+        );
+    }
+
+    /**
+     * Counts affected, disconnected, lost pairs, total and max delay.
+     */
+    private static long[] compare(int[][] baseline, int[][] closed, int station) {
+        long[] result = new long[5];
+        for (int s = 0; s < baseline.length; s++) {
+            for (int t = 0; t < baseline.length; t++) {
+                if (s == t || baseline[s][t] == INF) continue;
+                if (s == station || t == station) {
+                    result[2]++;
+                } else if (closed[s][t] == INF) {
+                    result[1]++;
+                } else if (closed[s][t] > baseline[s][t]) {
+                    int delay = closed[s][t] - baseline[s][t];
+                    result[0]++;
+                    result[3] += delay;
+                    result[4] = Math.max(result[4], delay);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int[][] allPairs(CompactGraph graph, int a, int b, int station) {
+        int[][] dist = new int[graph.size()][];
+        for (int s = 0; s < graph.size(); s++) {
+            dist[s] = new int[graph.size()];
+            Arrays.fill(dist[s], INF);
+            if (s == station) continue;
+            dist[s][s] = 0;
+            PriorityQueue<int[]> queue = new PriorityQueue<>((x, y) -> Integer.compare(x[0], y[0]));
+            queue.add(new int[]{0, s});
+            while (!queue.isEmpty()) {
+                int[] top = queue.poll();
+                int u = top[1];
+                if (top[0] > dist[s][u]) continue;
+                for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                    int v = graph.target(e);
+                    if (v == station || (u == a && v == b) || (u == b && v == a)) continue;
+                    if (top[0] + graph.weight(e) < dist[s][v]) {
+                        dist[s][v] = top[0] + graph.weight(e);
+                        queue.add(new int[]{dist[s][v], v});
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+}
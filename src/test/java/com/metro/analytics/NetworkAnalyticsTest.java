@@ -0,0 +1,110 @@
+package com.metro.analytics;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.TestNetworks;
+import com.metro.model.StationTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NetworkAnalytics Tests")
+class NetworkAnalyticsTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    @DisplayName("Chain: middle station carries all transit paths")
+    void chain() {
+        // A - B - C и изолированная D
+        CompactGraph graph = TestNetworks.undirected(4, new int[][]{{0, 1, 1}, {1, 2, 1}});
+        NetworkAnalytics.Report report = new NetworkAnalytics(graph).compute();
+
+        assertAll(
+                () -> assertEquals(0, report.getBetweenness(0), EPSILON),
+                () -> assertEquals(2, report.getBetweenness(1), EPSILON),
+                () -> assertEquals(2, report.getEdgeBetweenness(graph.firstEdge(0)), EPSILON),
+                () -> assertEquals(2, report.getEccentricity(0)),
+                () -> assertEquals(1, report.getEccentricity(1)),
+                () -> assertEquals(0, report.getEccentricity(3)),
+                () -> assertEquals(2, report.getDiameter()),
+                () -> assertEquals(2.0 / 3 * 2 / 3, report.getCloseness(0), EPSILON),
+                () -> assertEquals(0, report.getCloseness(3), EPSILON)
+        );
+    }
+
+    @Test
+    @DisplayName("Equal routes split betweenness")
+    void diamond() {
+        // A - B - D и A - C - D одинаковой длины, плюс длинное ребро A - D
+        CompactGraph graph = TestNetworks.undirected(4, new int[][]{{0, 1, 1}, {1, 3, 1}, {0, 2, 1}, {2, 3, 1}, {0, 3, 5}});
+        NetworkAnalytics.Report report = new NetworkAnalytics(graph).compute();
+
+        assertAll(
+                () -> assertEquals(1, report.getBetweenness(1), EPSILON),
+                () -> assertEquals(1, report.getBetweenness(2), EPSILON),
+                () -> assertEquals(0, report.getEdgeBetweenness(graph.firstEdge(0) + 2), EPSILON),
+                () -> assertEquals(2, report.getDiameter())
+        );
+    }
+
+    @Test
+    @DisplayName("Parallel chunks give the same result as a single thread")
+    void parallelMatchesSequential() {
+        Random random = new Random(4);
+        int size = 300;
+        int[][] edges = new int[size * 2][];
+        for (int i = 0; i < size; i++) {
+            edges[2 * i] = new int[]{i, (i + 1) % size, 1 + random.nextInt(5)};
+            edges[2 * i + 1] = new int[]{i, random.nextInt(size), 1 + random.nextInt(5)};
+        }
+        CompactGraph graph = TestNetworks.undirected(size, edges);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            NetworkAnalytics.Report a = new NetworkAnalytics(graph, single).compute();
+            NetworkAnalytics.Report b = new NetworkAnalytics(graph, parallel).compute();
+            for (int v = 0; v < size; v++) {
+                assertEquals(a.getBetweenness(v), b.getBetweenness(v), 1e-6);
+                assertEquals(a.getCloseness(v), b.getCloseness(v), EPSILON);
+                assertEquals(a.getEccentricity(v), b.getEccentricity(v));
+            }
+            for (int e = 0; e < graph.edgeCount(); e++) {
+                assertEquals(a.getEdgeBetweenness(e), b.getEdgeBetweenness(e), 1e-6);
+            }
+            assertEquals(a.getDiameter(), b.getDiameter());
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("CSV reports sorted by betweenness")
+    void csvReports() throws Exception {
+        CompactGraph graph = TestNetworks.undirected(3, new int[][]{{0, 1, 2}, {1, 2, 3}});
+        StationTable stations = new StationTable(Arrays.asList("Alpha", "Beta, central", "Gamma"));
+        NetworkAnalytics.Report report = new NetworkAnalytics(graph).compute();
+
+        StringWriter stationCsv = new StringWriter();
+        StringWriter edgeCsv = new StringWriter();
+        report.writeStationCsv(stations, stationCsv);
+        report.writeEdgeCsv(stations, edgeCsv);
+
+        String[] stationRows = stationCsv.toString().split("\n");
+        String[] edgeRows = edgeCsv.toString().split("\n");
+        assertAll(
+                () -> assertEquals("station,betweenness,closeness,eccentricity", stationRows[0]),
+                () -> assertEquals("\"Beta, central\",2.0000,0.4000,3", stationRows[1]),
+                () -> assertEquals(4, stationRows.length),
+                () -> assertEquals("from,to,time,betweenness", edgeRows[0]),
+                () -> assertEquals(5, edgeRows.length)
+        );
+    }
+}
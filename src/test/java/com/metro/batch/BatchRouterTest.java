@@ -0,0 +1,102 @@
+package com.metro.batch;
+
+import com.metro.algorithm.MetroPathFinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BatchRouter Tests")
+class BatchRouterTest {
+
+    @TempDir
+    Path tempDir;
+    private MetroPathFinder pathFinder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        File matrix = tempDir.resolve("test_metro.txt").toFile();
+        try (FileWriter writer = new FileWriter(matrix)) {
+            writer.write(",A,B,C\n");
+            writer.write("A,0,2,9\n");
+            writer.write("B,2,0,3\n");
+            writer.write("C,9,3,0\n");
+        }
+        pathFinder = new MetroPathFinder(matrix.getPath());
+    }
+
+    private String run(BatchRouter router, String input) throws Exception {
+        StringWriter output = new StringWriter();
+        router.run(new BufferedReader(new StringReader(input)), output);
+        return output.toString();
+    }
+
+    @Test
+    @DisplayName("CSV output keeps input order")
+    void csvOutput() throws Exception {
+        BatchRouter router = new BatchRouter(pathFinder, BatchRouter.Format.CSV, 2, 1);
+
+        String output = run(router, "A;C\n# comment\n\nC;B\nA;X\nbroken\n");
+
+        assertEquals("line,from,to,status,total_time,stations,route\n"
+                + "1,A,C,ok,5,3,A|B|C\n"
+                + "4,C,B,ok,3,2,C|B\n"
+                + "5,A,X,error,,,Station not found: X\n"
+                + "6,broken,,error,,,Expected 'from;to'\n", output);
+    }
+
+    @Test
+    @DisplayName("JSON lines output")
+    void jsonOutput() throws Exception {
+        BatchRouter router = new BatchRouter(pathFinder, BatchRouter.Format.JSON, 1, 4);
+
+        String output = run(router, "A;B\n");
+
+        assertEquals("{\"line\":1,\"from\":\"A\",\"to\":\"B\",\"totalTime\":2,"
+                + "\"stations\":[\"A\",\"B\"]}\n", output);
+    }
+
+    @Test
+    @DisplayName("Statistics count rows and failures")
+    void statistics() throws Exception {
+        BatchRouter router = new BatchRouter(pathFinder, BatchRouter.Format.CSV, 4, 8);
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            input.append(i % 10 == 0 ? "A;X" : "A;C").append('\n');
+        }
+
+        BatchRouter.Stats stats = router.run(
+                new BufferedReader(new StringReader(input.toString())), new StringWriter());
+
+        assertAll(
+                () -> assertEquals(1000, stats.getRows()),
+                () -> assertEquals(100, stats.getFailed()),
+                () -> assertTrue(stats.getRowsPerSecond() > 0)
+        );
+    }
+
+    @Test
+    @DisplayName("CSV quoting")
+    void csvQuoting() {
+        StringBuilder out = new StringBuilder();
+        BatchRouter.appendCsv(out, "a,\"b\"");
+
+        assertEquals("\"a,\"\"b\"\"\"", out.toString());
+    }
+
+    @Test
+    @DisplayName("Invalid configuration")
+    void invalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchRouter(pathFinder, BatchRouter.Format.CSV, 0, 1));
+    }
+}
@@ -0,0 +1,100 @@
+package com.metro.gui;
+
+import com.metro.algorithm.MetroPathFinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RouteImageExporter Tests")
+class RouteImageExporterTest {
+
+    @TempDir
+    Path tempDir;
+    private MetroMapRenderer renderer;
+    private RouteImageExporter exporter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File matrix = tempDir.resolve("test_metro.txt").toFile();
+        try (FileWriter writer = new FileWriter(matrix)) {
+            writer.write(",A,B,C\n");
+            writer.write("A,0,2,9\n");
+            writer.write("B,2,0,3\n");
+            writer.write("C,9,3,0\n");
+        }
+
+        List<MetroGUI.Station> stations = Arrays.asList(
+                new MetroGUI.Station("A", 400, 100, "r"),
+                new MetroGUI.Station("B", 400, 200, "r"),
+                new MetroGUI.Station("C", 400, 300, "r")
+        );
+        MetroMapRenderer.initializeSimpleTextOffsets(stations);
+
+        renderer = new MetroMapRenderer(stations);
+        exporter = new RouteImageExporter(new MetroPathFinder(matrix.getPath()), renderer);
+    }
+
+    @Test
+    @DisplayName("Base layer is cached and route stations are highlighted")
+    void routeHighlight() {
+        BufferedImage base = renderer.getBaseLayer();
+        BufferedImage route = renderer.renderRoute(Arrays.asList("A", "B"));
+
+        assertAll(
+                () -> assertSame(base, renderer.getBaseLayer()),
+                () -> assertEquals(Color.WHITE.getRGB(), base.getRGB(400, 100)),
+                () -> assertEquals(Color.RED.getRGB(), route.getRGB(400, 100)),
+                () -> assertEquals(Color.WHITE.getRGB(), route.getRGB(400, 300))
+        );
+    }
+
+    @Test
+    @DisplayName("Export writes one image per routable pair")
+    void exportAll() throws Exception {
+        List<String[]> pairs = Arrays.asList(
+                new String[]{"A", "C"},
+                new String[]{"B", "Nonexistent"},
+                new String[]{"C", "A"}
+        );
+        Path outputDir = tempDir.resolve("out");
+
+        int written = exporter.exportAll(pairs, outputDir, 2);
+
+        assertAll(
+                () -> assertEquals(2, written),
+                () -> assertTrue(Files.exists(outputDir.resolve("route-00001.png"))),
+                () -> assertFalse(Files.exists(outputDir.resolve("route-00002.png"))),
+                () -> assertTrue(Files.exists(outputDir.resolve("route-00003.png")))
+        );
+    }
+
+    @Test
+    @DisplayName("Read pairs file")
+    void readPairs() throws IOException {
+        Path file = tempDir.resolve("pairs.txt");
+        Files.write(file, Arrays.asList("# comment", "A;B", "", " B ; C "), StandardCharsets.UTF_8);
+
+        List<String[]> pairs = RouteImageExporter.readPairs(file);
+
+        assertAll(
+                () -> assertEquals(2, pairs.size()),
+                () -> assertArrayEquals(new String[]{"B", "C"}, pairs.get(1))
+        );
+    }
+}
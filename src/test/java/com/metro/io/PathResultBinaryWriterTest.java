@@ -0,0 +1,165 @@
+package com.metro.io;
+
+import com.metro.model.CompactPathResult;
+import com.metro.model.PathResult;
+import com.metro.model.StationTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Binary PathResult Stream Tests")
+class PathResultBinaryWriterTest {
+
+    private static final StationTable TABLE = new StationTable(Arrays.asList(
+            "Невский проспект", "Гостиный двор", "Маяковская", "Station 😀"));
+
+    @Test
+    @DisplayName("Round trip of routes and errors")
+    void roundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PathResultBinaryWriter writer = new PathResultBinaryWriter(TABLE, bytes)) {
+            writer.write(CompactPathResult.success(TABLE, new int[]{0, 1, 2}, 300));
+            writer.write(CompactPathResult.error(TABLE, "Station not found: Ёлки"));
+            writer.write(PathResult.success(Arrays.asList("Station 😀", "Маяковская"), 4));
+        }
+
+        PathResultBinaryReader reader = new PathResultBinaryReader(new ByteArrayInputStream(bytes.toByteArray()));
+        CompactPathResult first = reader.read();
+        CompactPathResult second = reader.read();
+        CompactPathResult third = reader.read();
+
+        assertAll(
+                () -> assertEquals(TABLE, reader.getStationTable()),
+                () -> assertArrayEquals(new int[]{0, 1, 2}, first.getStationIds()),
+                () -> assertEquals(300, first.getTotalTime()),
+                () -> assertEquals("Station not found: Ёлки", second.getErrorMessage()),
+                () -> assertEquals(Arrays.asList("Station 😀", "Маяковская"), third.getPath()),
+                () -> assertNull(reader.read()),
+                () -> assertNull(reader.read())
+        );
+    }
+
+    @Test
+    @DisplayName("Route costs about one byte per station")
+    void compactEncoding() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PathResultBinaryWriter writer = new PathResultBinaryWriter(TABLE, bytes);
+        writer.finish();
+        int header = bytes.size();
+
+        bytes.reset();
+        writer = new PathResultBinaryWriter(TABLE, bytes);
+        writer.write(CompactPathResult.success(TABLE, new int[]{0, 1, 2, 3}, 20));
+        writer.finish();
+
+        // Тег, время, длина и четыре id
+        assertEquals(7, bytes.size() - header);
+    }
+
+    @Test
+    @DisplayName("Rejects foreign tables, unknown stations and writes after finish")
+    void rejectsInvalidInput() throws IOException {
+        StationTable other = new StationTable(Arrays.asList("X", "Y"));
+        PathResultBinaryWriter writer = new PathResultBinaryWriter(TABLE, new ByteArrayOutputStream());
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> writer.write(CompactPathResult.success(other, new int[]{0, 1}, 3))),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> writer.write(PathResult.success(Arrays.asList("X", "Y"), 3)))
+        );
+
+        writer.finish();
+        assertThrows(IllegalStateException.class,
+                () -> writer.write(CompactPathResult.success(TABLE, new int[]{0}, 0)));
+    }
+
+    @Test
+    @DisplayName("Detects malformed and truncated streams")
+    void detectsMalformedStreams() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PathResultBinaryWriter writer = new PathResultBinaryWriter(TABLE, bytes);
+        writer.write(CompactPathResult.success(TABLE, new int[]{0, 1}, 5));
+        writer.finish();
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 2);
+
+        PathResultBinaryReader reader = new PathResultBinaryReader(new ByteArrayInputStream(truncated));
+
+        assertAll(
+                () -> assertThrows(IOException.class,
+                        () -> new PathResultBinaryReader(new ByteArrayInputStream("{}".getBytes()))),
+                () -> assertThrows(IOException.class, reader::read)
+        );
+    }
+
+    @Test
+    @DisplayName("Rejects out-of-range header values")
+    void rejectsInvalidHeader() {
+        // Заголовок: magic, версия, число станций (varint), длина имени (varint)
+        byte[] negativeCount = header(0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        byte[] hugeCount = header(0xFF, 0xFF, 0xFF, 0x7F);
+        byte[] negativeName = header(0x01, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+        byte[] hugeName = header(0x01, 0xFF, 0xFF, 0xFF, 0x7F);
+
+        assertAll(
+                () -> assertEquals("Invalid station count: -1", assertThrows(IOException.class,
+                        () -> new PathResultBinaryReader(new ByteArrayInputStream(negativeCount))).getMessage()),
+                () -> assertThrows(IOException.class,
+                        () -> new PathResultBinaryReader(new ByteArrayInputStream(hugeCount))),
+                () -> assertEquals("Invalid string length: -1", assertThrows(IOException.class,
+                        () -> new PathResultBinaryReader(new ByteArrayInputStream(negativeName))).getMessage()),
+                () -> assertThrows(IOException.class,
+                        () -> new PathResultBinaryReader(new ByteArrayInputStream(hugeName)))
+        );
+    }
+
+    private static byte[] header(int... varints) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.writeBytes(PathResultBinaryWriter.MAGIC);
+        bytes.write(PathResultBinaryWriter.VERSION);
+        for (int b : varints) {
+            bytes.write(b);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Writer enforces the limits its reader checks")
+    void roundTripAtLimits() throws IOException {
+        int[] longRoute = new int[PathResultBinaryWriter.MAX_ROUTE_LENGTH];
+        for (int i = 0; i < longRoute.length; i++) longRoute[i] = i % TABLE.size();
+        String maxMessage = "x".repeat(PathResultBinaryWriter.MAX_STRING_LENGTH);
+        // Двухбайтовые символы: обрезка не должна разрезать символ
+        String tooLong = "Station not found: " + "Ж".repeat(PathResultBinaryWriter.MAX_STRING_LENGTH);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PathResultBinaryWriter writer = new PathResultBinaryWriter(TABLE, bytes);
+        writer.write(CompactPathResult.success(TABLE, longRoute, 7));
+        writer.write(CompactPathResult.error(TABLE, maxMessage));
+        writer.write(CompactPathResult.error(TABLE, tooLong));
+        assertThrows(IllegalArgumentException.class, () -> writer.write(
+                CompactPathResult.success(TABLE, new int[PathResultBinaryWriter.MAX_ROUTE_LENGTH + 1], 7)));
+        writer.finish();
+
+        PathResultBinaryReader reader = new PathResultBinaryReader(new ByteArrayInputStream(bytes.toByteArray()));
+        CompactPathResult route = reader.read();
+        CompactPathResult max = reader.read();
+        CompactPathResult truncated = reader.read();
+
+        assertAll(
+                () -> assertEquals(longRoute.length, route.getStationCount()),
+                () -> assertEquals(maxMessage, max.getErrorMessage()),
+                () -> assertTrue(tooLong.startsWith(truncated.getErrorMessage())),
+                () -> assertEquals(PathResultBinaryWriter.MAX_STRING_LENGTH - 1,
+                        truncated.getErrorMessage().getBytes(StandardCharsets.UTF_8).length),
+                () -> assertNull(reader.read())
+        );
+    }
+}
@@ -0,0 +1,92 @@
+package com.metro.io;
+
+import com.metro.model.CompactPathResult;
+import com.metro.model.PathResult;
+import com.metro.model.StationTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JSON Lines PathResult Stream Tests")
+class PathResultJsonWriterTest {
+
+    private static final StationTable TABLE = new StationTable(Arrays.asList(
+            "Невский проспект", "Гостиный двор", "Say \"hi\"\\", "Station 😀"));
+
+    @Test
+    @DisplayName("Writes one JSON object per line")
+    void writesLines() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PathResultJsonWriter writer = new PathResultJsonWriter(TABLE, bytes);
+        writer.write(CompactPathResult.success(TABLE, new int[]{0, 2}, 12));
+        writer.write(CompactPathResult.error(TABLE, "Line\nbreak"));
+        writer.write(PathResult.success(Arrays.asList("A\u0001", "B"), 0));
+        writer.flush();
+
+        assertEquals("{\"totalTime\":12,\"stations\":[\"Невский проспект\",\"Say \\\"hi\\\"\\\\\"]}\n"
+                        + "{\"error\":\"Line\\nbreak\"}\n"
+                        + "{\"totalTime\":0,\"stations\":[\"A\\u0001\",\"B\"]}\n",
+                bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Round trip through reader")
+    void roundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PathResultJsonWriter writer = new PathResultJsonWriter(TABLE, bytes)) {
+            writer.write(CompactPathResult.success(TABLE, new int[]{3, 2, 1, 0}, 1234567));
+            writer.write(CompactPathResult.error(TABLE, "Путь не найден \u0007"));
+        }
+
+        PathResultJsonReader reader = new PathResultJsonReader(TABLE, new ByteArrayInputStream(bytes.toByteArray()));
+        CompactPathResult route = reader.read();
+        CompactPathResult error = reader.read();
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{3, 2, 1, 0}, route.getStationIds()),
+                () -> assertEquals(1234567, route.getTotalTime()),
+                () -> assertEquals("Путь не найден \u0007", error.getErrorMessage()),
+                () -> assertNull(reader.read())
+        );
+    }
+
+    @Test
+    @DisplayName("Reader skips blank lines and unknown fields")
+    void readsForeignLines() throws IOException {
+        String input = "\n{ \"line\": 7, \"from\": \"x\", \"extra\": [1, {\"a\": \"]\"}], "
+                + "\"totalTime\": 5, \"stations\": [\"Гостиный двор\", \"Station \\ud83d\\ude00\"] }\n\n";
+
+        PathResultJsonReader reader = new PathResultJsonReader(TABLE,
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+        CompactPathResult result = reader.read();
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{1, 3}, result.getStationIds()),
+                () -> assertEquals(5, result.getTotalTime()),
+                () -> assertNull(reader.read())
+        );
+    }
+
+    @Test
+    @DisplayName("Reader rejects unknown stations and malformed lines")
+    void rejectsMalformedLines() {
+        assertAll(
+                () -> assertThrows(IOException.class, () -> read("{\"totalTime\":1,\"stations\":[\"Nowhere\"]}")),
+                () -> assertThrows(IOException.class, () -> read("{\"totalTime\":1}")),
+                () -> assertThrows(IOException.class, () -> read("{\"totalTime\":1,\"stations\":[\"Гостиный двор\"")),
+                () -> assertThrows(IOException.class, () -> read("[1,2]"))
+        );
+    }
+
+    private static CompactPathResult read(String line) throws IOException {
+        return new PathResultJsonReader(TABLE,
+                new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8))).read();
+    }
+}
@@ -0,0 +1,95 @@
+package com.metro.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MetricsRegistry Tests")
+class MetricsRegistryTest {
+
+    @Test
+    @DisplayName("Counters are created once and summed")
+    void counters() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter counter = registry.counter("test.counter");
+        counter.increment();
+        counter.add(4);
+
+        assertAll(
+                () -> assertSame(counter, registry.counter("test.counter")),
+                () -> assertEquals(5L, registry.counterValues().get("test.counter").longValue())
+        );
+    }
+
+    @Test
+    @DisplayName("Histogram percentiles are within bucket precision")
+    void histogramPercentiles() {
+        Histogram histogram = new MetricsRegistry().histogram("test.ns");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertAll(
+                () -> assertEquals(1000, histogram.getCount()),
+                () -> assertEquals(1_000_000, histogram.getMax()),
+                () -> assertEquals(500_500, histogram.getMean(), 1),
+                () -> assertEquals(500_000, histogram.getPercentile(50), 500_000 * 0.07),
+                () -> assertEquals(990_000, histogram.getPercentile(99), 990_000 * 0.07),
+                () -> assertEquals(1_000_000, histogram.getPercentile(100))
+        );
+    }
+
+    @Test
+    @DisplayName("Bucket bounds are consistent")
+    void bucketBounds() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789, Long.MAX_VALUE / 3};
+        for (long value : values) {
+            int index = Histogram.bucketIndex(value);
+            assertTrue(Histogram.bucketLowerBound(index) <= value, "lower bound of " + value);
+            assertTrue(Histogram.bucketUpperBound(index) >= value, "upper bound of " + value);
+        }
+        assertEquals(Histogram.bucketIndex(16) + 1, Histogram.bucketIndex(17));
+    }
+
+    @Test
+    @DisplayName("Dump and reset")
+    void dumpAndReset() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("a.count").increment();
+        registry.histogram("b.ns").record(100);
+
+        String dump = registry.dump();
+        registry.reset();
+
+        assertAll(
+                () -> assertTrue(dump.contains("a.count 1\n")),
+                () -> assertTrue(dump.contains("b.ns.p99 100\n")),
+                () -> assertEquals(0, registry.counter("a.count").get()),
+                () -> assertEquals(0, registry.histogram("b.ns").getCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Default registry is exposed over JMX")
+    @SuppressWarnings("unchecked")
+    void jmxRegistration() throws Exception {
+        MetricsRegistry.registerMBean();
+        MetricsRegistry.registerMBean();
+        MetricsRegistry.getDefault().counter("jmx.test").increment();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsRegistry.OBJECT_NAME);
+        String dump = (String) server.invoke(name, "dump", null, null);
+
+        assertAll(
+                () -> assertTrue(server.isRegistered(name)),
+                () -> assertTrue(dump.contains("jmx.test"))
+        );
+    }
+}
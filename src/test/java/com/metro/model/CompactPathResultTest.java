@@ -0,0 +1,99 @@
+package com.metro.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompactPathResult Tests")
+class CompactPathResultTest {
+
+    private static final List<String> NAMES = Arrays.asList(
+            "Station A", "Station B", "Station C", "D", "E", "F", "G", "H", "I", "J", "K");
+    private static final StationTable TABLE = new StationTable(NAMES);
+
+    @Test
+    @DisplayName("Successful result exposes ids and names")
+    void successfulResult() {
+        CompactPathResult result = CompactPathResult.success(TABLE, new int[]{0, 1, 2}, 15);
+
+        assertAll(
+                () -> assertTrue(result.isSuccess()),
+                () -> assertEquals(15, result.getTotalTime()),
+                () -> assertEquals(3, result.getStationCount()),
+                () -> assertEquals(1, result.getStationId(1)),
+                () -> assertEquals(Arrays.asList("Station A", "Station B", "Station C"), result.getPath()),
+                () -> assertThrows(UnsupportedOperationException.class, () -> result.getPath().add("X"))
+        );
+    }
+
+    @Test
+    @DisplayName("Formatting matches PathResult")
+    void formattingMatchesPathResult() {
+        int[] ids = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        CompactPathResult compact = CompactPathResult.success(TABLE, ids, 30);
+        PathResult regular = new PathResult(NAMES, 30);
+
+        assertAll(
+                () -> assertEquals(regular.getFormattedResult(), compact.getFormattedResult()),
+                () -> assertEquals(regular.getShortDescription(), compact.getShortDescription()),
+                () -> assertEquals(regular, compact.toPathResult())
+        );
+    }
+
+    @Test
+    @DisplayName("Formatting into caller buffer")
+    void appendToBuffer() {
+        CompactPathResult result = CompactPathResult.success(TABLE, new int[]{0, 2}, 7);
+        StringBuilder buffer = new StringBuilder("> ");
+
+        result.appendShortDescription(buffer);
+
+        assertEquals("> Station A → Station C (7 min, 2 stations)", buffer.toString());
+    }
+
+    @Test
+    @DisplayName("Equality on primitive path")
+    void equality() {
+        CompactPathResult first = CompactPathResult.success(TABLE, new int[]{0, 1}, 2);
+        CompactPathResult second = CompactPathResult.success(new StationTable(NAMES), new int[]{0, 1}, 2);
+        CompactPathResult other = CompactPathResult.success(TABLE, new int[]{1, 0}, 2);
+
+        assertAll(
+                () -> assertEquals(first, second),
+                () -> assertEquals(first.hashCode(), second.hashCode()),
+                () -> assertNotEquals(first, other)
+        );
+    }
+
+    @Test
+    @DisplayName("Error result")
+    void errorResult() {
+        CompactPathResult result = CompactPathResult.error(TABLE, "Station not found: X");
+
+        assertAll(
+                () -> assertTrue(result.hasError()),
+                () -> assertEquals(0, result.getStationCount()),
+                () -> assertEquals("Error: Station not found: X", result.getFormattedResult()),
+                () -> assertEquals(PathResult.error("Station not found: X"), result.toPathResult())
+        );
+    }
+
+    @Test
+    @DisplayName("Invalid arguments")
+    void invalidArguments() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CompactPathResult.success(TABLE, new int[0], 1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CompactPathResult.success(TABLE, new int[]{99}, 1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CompactPathResult.success(TABLE, new int[]{0}, -1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> CompactPathResult.error(TABLE, " "))
+        );
+    }
+}
@@ -0,0 +1,168 @@
+package com.metro.partition;
+
+import com.metro.algorithm.CompactGraph;
+import com.metro.algorithm.MetroPathFinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Multi-level Routing Tests")
+class OverlayCoordinatorTest {
+
+    private static final int SIDE = 8;
+    private static final int SIZE = SIDE * SIDE + 1;
+
+    @TempDir
+    Path tempDir;
+    private MetroPathFinder pathFinder;
+    private CompactGraph graph;
+    private int[] expected;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Решётка со случайными весами, несколько односторонних рёбер и изолированная станция
+        Random random = new Random(5);
+        int[][] weights = new int[SIZE][SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) weights[i][j] = i == j ? 0 : 9;
+        }
+        for (int r = 0; r < SIDE; r++) {
+            for (int c = 0; c < SIDE; c++) {
+                int v = r * SIDE + c;
+                if (c + 1 < SIDE) {
+                    weights[v][v + 1] = 1 + random.nextInt(8);
+                    weights[v + 1][v] = random.nextInt(5) == 0 ? 9 : 1 + random.nextInt(8);
+                }
+                if (r + 1 < SIDE) {
+                    int w = 1 + random.nextInt(8);
+                    weights[v][v + SIDE] = w;
+                    weights[v + SIDE][v] = w;
+                }
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < SIZE; i++) text.append(",S").append(i);
+        text.append('\n');
+        for (int i = 0; i < SIZE; i++) {
+            text.append('S').append(i);
+            for (int j = 0; j < SIZE; j++) text.append(',').append(weights[i][j]);
+            text.append('\n');
+        }
+        Path file = tempDir.resolve("grid.txt");
+        try (FileWriter writer = new FileWriter(file.toFile())) {
+            writer.write(text.toString());
+        }
+
+        pathFinder = new MetroPathFinder(file.toString());
+        graph = pathFinder.getGraph();
+        int[] all = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) all[i] = i;
+        expected = pathFinder.distanceTable(all, all);
+    }
+
+    private List<RoutingShard> shards(Partition partition) {
+        List<RoutingShard> shards = new ArrayList<>();
+        for (int cell = 0; cell < partition.cellCount(); cell++) {
+            shards.add(new CellShard(graph, partition, cell));
+        }
+        Collections.shuffle(shards, new Random(1));
+        return shards;
+    }
+
+    private void assertMatchesDijkstra(OverlayCoordinator coordinator) {
+        for (int s = 0; s < SIZE; s++) {
+            for (int t = 0; t < SIZE; t++) {
+                int distance = coordinator.distance(s, t);
+                assertEquals(expected[s * SIZE + t], distance, "S" + s + " -> S" + t);
+
+                int[] path = coordinator.path(s, t);
+                if (distance == MetroPathFinder.UNREACHABLE) {
+                    assertNull(path);
+                    continue;
+                }
+                assertEquals(s, path[0]);
+                assertEquals(t, path[path.length - 1]);
+                int total = 0;
+                for (int k = 0; k + 1 < path.length; k++) {
+                    total += edgeWeight(path[k], path[k + 1]);
+                }
+                assertEquals(distance, total, "path S" + s + " -> S" + t);
+            }
+        }
+    }
+
+    private int edgeWeight(int from, int to) {
+        for (int e = graph.firstEdge(from); e < graph.firstEdge(from + 1); e++) {
+            if (graph.target(e) == to) return graph.weight(e);
+        }
+        throw new AssertionError("No edge " + from + " -> " + to);
+    }
+
+    @Test
+    @DisplayName("Grown cells route exactly like Dijkstra")
+    void grownCells() {
+        Partition partition = Partition.grow(graph, 10);
+        OverlayCoordinator coordinator = new OverlayCoordinator(graph, partition, shards(partition));
+
+        assertAll(
+                () -> assertTrue(partition.cellCount() >= SIZE / 10),
+                () -> assertTrue(coordinator.overlayStationCount() < SIZE)
+        );
+        assertMatchesDijkstra(coordinator);
+    }
+
+    @Test
+    @DisplayName("Cells by label route exactly like Dijkstra")
+    void cellsByLabel() {
+        // Каждая строка решётки - отдельная "линия"
+        String[] lines = new String[SIZE];
+        for (int v = 0; v < SIZE; v++) lines[v] = "row" + Math.min(v / SIDE, SIDE - 1);
+        Partition partition = Partition.byLabel(lines);
+
+        assertEquals(SIDE, partition.cellCount());
+        assertMatchesDijkstra(new OverlayCoordinator(graph, partition, shards(partition)));
+    }
+
+    @Test
+    @DisplayName("Shards hold only their own cell")
+    void shardsSplitNetwork() {
+        Partition partition = Partition.grow(graph, 16);
+        int total = 0;
+        for (RoutingShard shard : shards(partition)) {
+            CellShard cellShard = (CellShard) shard;
+            assertTrue(cellShard.stationCount() <= 16);
+            total += cellShard.stationCount();
+        }
+        assertEquals(SIZE, total);
+    }
+
+    @Test
+    @DisplayName("Coordinator requires one shard per cell")
+    void validatesShards() {
+        Partition partition = Partition.grow(graph, 16);
+        List<RoutingShard> shards = shards(partition);
+        List<RoutingShard> missing = new ArrayList<>(shards.subList(1, shards.size()));
+        List<RoutingShard> duplicate = new ArrayList<>(shards);
+        duplicate.add(shards.get(0));
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new OverlayCoordinator(graph, partition, missing)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new OverlayCoordinator(graph, partition, duplicate)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new CellShard(graph, partition, partition.cellCount()))
+        );
+    }
+}
@@ -0,0 +1,196 @@
+package com.metro.registry;
+
+import com.metro.algorithm.MetroPathFinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NetworkRegistry Tests")
+class NetworkRegistryTest {
+
+    @TempDir
+    Path tempDir;
+    private String matrixFile;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = tempDir.resolve("metro.txt");
+        try (FileWriter writer = new FileWriter(file.toFile())) {
+            writer.write(",A,B,C\nA,0,2,9\nB,2,0,3\nC,9,3,0\n");
+        }
+        matrixFile = file.toString();
+        loads = new AtomicInteger();
+    }
+
+    private NetworkRegistry.Loader countingLoader() {
+        return () -> {
+            loads.incrementAndGet();
+            return new MetroPathFinder(matrixFile);
+        };
+    }
+
+    @Test
+    @DisplayName("Network is loaded on first use and then reused")
+    void lazyLoad() {
+        NetworkRegistry registry = new NetworkRegistry();
+        registry.register("city", countingLoader());
+        int loadsBefore = loads.get();
+        boolean loadedBefore = registry.isLoaded("city");
+
+        MetroPathFinder first = registry.get("city");
+        MetroPathFinder second = registry.get("city");
+
+        assertAll(
+                () -> assertEquals(0, loadsBefore),
+                () -> assertFalse(loadedBefore),
+                () -> assertEquals(1, loads.get()),
+                () -> assertSame(first, second),
+                () -> assertEquals(5, first.findShortestPath("A", "C").getTotalTime()),
+                () -> assertEquals(first.estimatedMemoryBytes(), registry.getResidentBytes()),
+                () -> assertThrows(IllegalArgumentException.class, () -> registry.get("unknown")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> registry.register("city", countingLoader()))
+        );
+    }
+
+    @Test
+    @DisplayName("Concurrent requests share one load")
+    void singleFlight() throws Exception {
+        NetworkRegistry registry = new NetworkRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        registry.register("city", () -> {
+            loads.incrementAndGet();
+            release.await();
+            return new MetroPathFinder(matrixFile);
+        });
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<MetroPathFinder>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> registry.get("city")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            MetroPathFinder first = results.get(0).get();
+            for (Future<MetroPathFinder> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Least recently used network is evicted over budget")
+    void evictLeastRecentlyUsed() throws Exception {
+        long networkBytes = new MetroPathFinder(matrixFile).estimatedMemoryBytes();
+        NetworkRegistry registry = new NetworkRegistry(2 * networkBytes + networkBytes / 2);
+        for (String id : new String[]{"a", "b", "c"}) {
+            registry.register(id, countingLoader());
+        }
+
+        registry.get("a");
+        registry.get("b");
+        registry.get("a");
+        registry.get("c");
+        Set<String> afterC = registry.getLoadedIds();
+        registry.get("b");
+
+        assertAll(
+                () -> assertEquals(Set.of("a", "c"), afterC),
+                () -> assertEquals(Set.of("b", "c"), registry.getLoadedIds()),
+                () -> assertEquals(4, loads.get()),
+                () -> assertTrue(registry.getResidentBytes() <= registry.getBudgetBytes()),
+                () -> assertEquals(Set.of("a", "b", "c"), registry.getNetworkIds())
+        );
+    }
+
+    @Test
+    @DisplayName("Growth of a resident network after load counts toward the budget")
+    void evictAfterGrowth() throws Exception {
+        long networkBytes = new MetroPathFinder(matrixFile).estimatedMemoryBytes();
+        NetworkRegistry registry = new NetworkRegistry(3 * networkBytes + networkBytes / 2);
+        for (String id : new String[]{"a", "b", "c"}) {
+            registry.register(id, countingLoader());
+        }
+
+        registry.get("b");
+        MetroPathFinder a = registry.get("a");
+        // Ориентиры строятся лениво, профили добавляются после загрузки
+        a.getLandmarkIndex();
+        int[] weights = new int[a.getGraph().edgeCount()];
+        for (int i = 0; a.estimatedMemoryBytes() < 2 * networkBytes; i++) {
+            a.addProfile("profile-" + i, weights);
+        }
+        long grownBytes = a.estimatedMemoryBytes();
+        registry.get("c");
+
+        assertAll(
+                () -> assertTrue(grownBytes < 2 * networkBytes + networkBytes / 2),
+                () -> assertEquals(Set.of("a", "c"), registry.getLoadedIds()),
+                () -> assertEquals(grownBytes + networkBytes, registry.getResidentBytes()),
+                () -> assertTrue(registry.getResidentBytes() <= registry.getBudgetBytes())
+        );
+    }
+
+    @Test
+    @DisplayName("Network larger than budget is still served")
+    void networkOverBudget() {
+        NetworkRegistry registry = new NetworkRegistry(1);
+        registry.register("a", countingLoader());
+        registry.register("b", countingLoader());
+
+        registry.get("a");
+        MetroPathFinder b = registry.get("b");
+
+        assertAll(
+                () -> assertEquals(Set.of("b"), registry.getLoadedIds()),
+                () -> assertSame(b, registry.get("b")),
+                () -> assertTrue(registry.evict("b")),
+                () -> assertFalse(registry.isLoaded("b")),
+                () -> assertThrows(IllegalArgumentException.class, () -> new NetworkRegistry(0))
+        );
+    }
+
+    @Test
+    @DisplayName("Failed load is reported and retried on next request")
+    void failedLoadIsRetried() {
+        NetworkRegistry registry = new NetworkRegistry();
+        registry.register("city", () -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new Exception("Matrix file is empty or not found: metro.txt");
+            }
+            return new MetroPathFinder(matrixFile);
+        });
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> registry.get("city"));
+        boolean loadedAfterFailure = registry.isLoaded("city");
+        MetroPathFinder pathFinder = registry.get("city");
+
+        assertAll(
+                () -> assertTrue(error.getMessage().contains("Matrix file is empty")),
+                () -> assertFalse(loadedAfterFailure),
+                () -> assertNotNull(pathFinder),
+                () -> assertEquals(2, loads.get())
+        );
+    }
+}
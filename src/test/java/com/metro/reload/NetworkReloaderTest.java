@@ -0,0 +1,189 @@
+package com.metro.reload;
+
+import com.metro.algorithm.MetroPathFinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NetworkReloader Tests")
+class NetworkReloaderTest {
+
+    @TempDir
+    Path tempDir;
+    private Path matrixFile;
+    private Path stationsFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        matrixFile = tempDir.resolve("metro.txt");
+        stationsFile = tempDir.resolve("stations.txt");
+        // Линия A - B - C по 2 мин
+        write(matrixFile, ",A,B,C\nA,0,2,9\nB,2,0,2\nC,9,2,0\n");
+        write(stationsFile, "A;10;10;r\nB;20;10;r\nC;30;10;r\n");
+    }
+
+    private static void write(Path file, String text) throws IOException {
+        try (FileWriter writer = new FileWriter(file.toFile())) {
+            writer.write(text);
+        }
+    }
+
+    @Test
+    @DisplayName("Changed travel time is swapped in and reported")
+    void reloadChangedWeight() throws Exception {
+        NetworkReloader reloader = new NetworkReloader(matrixFile, stationsFile);
+        List<NetworkDiff> diffs = new ArrayList<>();
+        reloader.addListener((previous, current, diff) -> diffs.add(diff));
+        MetroPathFinder before = reloader.getPathFinder();
+
+        write(matrixFile, ",A,B,C\nA,0,2,9\nB,2,0,5\nC,9,5,0\n");
+        boolean swapped = reloader.reloadNow();
+
+        assertAll(
+                () -> assertTrue(swapped),
+                () -> assertEquals(2, reloader.current().getVersion()),
+                () -> assertEquals(7, reloader.getPathFinder().findShortestPath("A", "C").getTotalTime()),
+                () -> assertEquals(4, before.findShortestPath("A", "C").getTotalTime(),
+                        "Old router must stay usable for queries in flight"),
+                () -> assertEquals(1, diffs.size()),
+                () -> assertEquals(2, diffs.get(0).getEdgeChanges().size()),
+                () -> assertEquals("B -> C: 2 -> 5", diffs.get(0).getEdgeChanges().get(0).toString()),
+                () -> assertTrue(diffs.get(0).getAddedStations().isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("Invalid files are rejected and previous network stays live")
+    void rejectInvalid() throws Exception {
+        NetworkReloader reloader = new NetworkReloader(matrixFile, stationsFile);
+        List<Exception> errors = new ArrayList<>();
+        reloader.addListener(new NetworkReloader.Listener() {
+            @Override
+            public void networkReloaded(NetworkSnapshot previous, NetworkSnapshot current, NetworkDiff diff) {
+                fail("Invalid network must not be published");
+            }
+
+            @Override
+            public void reloadFailed(Exception error) {
+                errors.add(error);
+            }
+        });
+
+        // Обрезанный файл, как при чтении во время записи
+        write(matrixFile, ",A,B,C\nA,0,2,9\n");
+        boolean truncated = reloader.reloadNow();
+        // Новая станция только в матрице, stations.txt ещё не сохранён
+        write(matrixFile, ",A,B,C,D\nA,0,2,9,9\nB,2,0,2,9\nC,9,2,0,1\nD,9,9,1,0\n");
+        boolean inconsistent = reloader.reloadNow();
+
+        assertAll(
+                () -> assertFalse(truncated),
+                () -> assertFalse(inconsistent),
+                () -> assertEquals(2, errors.size()),
+                () -> assertEquals("Station missing in stations file: D", errors.get(1).getMessage()),
+                () -> assertEquals(1, reloader.current().getVersion()),
+                () -> assertEquals(3, reloader.getPathFinder().getAllStations().size())
+        );
+    }
+
+    @Test
+    @DisplayName("Diff lists added, removed and moved stations with their edges")
+    void stationDiff() throws Exception {
+        NetworkReloader reloader = new NetworkReloader(matrixFile, stationsFile);
+        NetworkSnapshot before = reloader.current();
+
+        write(matrixFile, ",A,B,D\nA,0,2,9\nB,2,0,3\nD,9,3,0\n");
+        write(stationsFile, "A;10;10;r\nB;20;15;r\nD;40;10;b\n");
+        assertTrue(reloader.reloadNow());
+        NetworkDiff diff = NetworkDiff.between(before, reloader.current());
+
+        assertAll(
+                () -> assertEquals(List.of("D"), diff.getAddedStations()),
+                () -> assertEquals(List.of("C"), diff.getRemovedStations()),
+                () -> assertEquals(List.of("B"), diff.getChangedStations()),
+                () -> assertEquals(4, diff.getEdgeChanges().size()),
+                () -> assertTrue(diff.getEdgeChanges().get(0).isRemoved()),
+                () -> assertTrue(diff.getEdgeChanges().get(3).isAdded()),
+                () -> assertEquals("NetworkDiff{stations: +1 -1 ~1, edges: +2 -2 ~0}", diff.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("Unchanged files keep current network")
+    void unchangedFiles() throws Exception {
+        NetworkReloader reloader = new NetworkReloader(matrixFile, stationsFile);
+        NetworkSnapshot before = reloader.current();
+
+        write(matrixFile, ",A,B,C\nA,0,2,9\nB,2,0,2\nC,9,2,0\n");
+
+        assertAll(
+                () -> assertFalse(reloader.reloadNow()),
+                () -> assertSame(before, reloader.current())
+        );
+    }
+
+    @Test
+    @DisplayName("Watcher picks up saved file")
+    void watchFiles() throws Exception {
+        try (NetworkReloader reloader = new NetworkReloader(matrixFile, stationsFile, 50)) {
+            CountDownLatch reloaded = new CountDownLatch(1);
+            reloader.addListener((previous, current, diff) -> reloaded.countDown());
+            reloader.start();
+
+            write(matrixFile, ",A,B,C\nA,0,1,9\nB,1,0,2\nC,9,2,0\n");
+
+            assertAll(
+                    () -> assertTrue(reloaded.await(10, TimeUnit.SECONDS)),
+                    () -> assertEquals(3, reloader.getPathFinder().findShortestPath("A", "C").getTotalTime())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Weight profiles and active profile survive reload")
+    void profilesCarriedOver() throws Exception {
+        NetworkReloader reloader = new NetworkReloader(matrixFile, stationsFile);
+        Path peakFile = tempDir.resolve("peak.txt");
+        write(peakFile, ",A,B,C\nA,0,3,9\nB,3,0,1\nC,9,1,0\n");
+        MetroPathFinder first = reloader.getPathFinder();
+        first.loadProfile("peak", peakFile.toString());
+        int[] nightWeights = new int[first.getGraph().edgeCount()];
+        Arrays.fill(nightWeights, 10);
+        first.addProfile("night", nightWeights);
+        first.setActiveProfile("peak");
+
+        write(matrixFile, ",A,B,C\nA,0,2,9\nB,2,0,5\nC,9,5,0\n");
+        assertTrue(reloader.reloadNow());
+        MetroPathFinder second = reloader.getPathFinder();
+
+        // Новая станция D: веса "night" не подходят, "peak" не совпадает по станциям
+        write(matrixFile, ",A,B,C,D\nA,0,2,9,9\nB,2,0,5,9\nC,9,5,0,1\nD,9,9,1,0\n");
+        write(stationsFile, "A;10;10;r\nB;20;10;r\nC;30;10;r\nD;40;10;r\n");
+        assertTrue(reloader.reloadNow());
+        MetroPathFinder third = reloader.getPathFinder();
+
+        assertAll(
+                () -> assertEquals(Set.of("default", "night", "peak"), second.getProfileNames()),
+                () -> assertEquals("peak", second.getActiveProfile().getName()),
+                () -> assertEquals(4, second.findShortestPath("A", "C").getTotalTime()),
+                () -> assertEquals(20, second.findShortestPathCompactInProfile("A", "C", "night").getTotalTime()),
+                () -> assertEquals(7, second.findShortestPathCompactInProfile("A", "C", "default").getTotalTime()),
+                () -> assertEquals(Set.of("default"), third.getProfileNames()),
+                () -> assertEquals("default", third.getActiveProfile().getName()),
+                () -> assertEquals(8, third.findShortestPath("A", "D").getTotalTime())
+        );
+    }
+}
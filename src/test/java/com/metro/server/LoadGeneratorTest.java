@@ -0,0 +1,69 @@
+package com.metro.server;
+
+import com.metro.algorithm.MetroPathFinder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LoadGenerator Tests")
+class LoadGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Keep-alive clients get routes from running server")
+    void runAgainstServer() throws Exception {
+        Path matrix = tempDir.resolve("metro.txt");
+        try (FileWriter writer = new FileWriter(matrix.toFile())) {
+            writer.write(",A,B,C\nA,0,2,9\nB,2,0,3\nC,9,3,0\n");
+        }
+        MetroPathFinder pathFinder = new MetroPathFinder(matrix.toString());
+        MetroHttpServer server = new MetroHttpServer(pathFinder, 0);
+        server.start();
+        try {
+            LoadGenerator generator = new LoadGenerator("localhost", server.getPort(),
+                    pathFinder.getAllStations(), 4, 1);
+            LoadGenerator.Result result = generator.run(100, 300);
+
+            assertAll(
+                    () -> assertTrue(result.getRequests() > 0),
+                    () -> assertEquals(0, result.getErrors()),
+                    () -> assertTrue(result.getRequestsPerSecond() > 0),
+                    () -> assertTrue(result.getP50Nanos() <= result.getP99Nanos()),
+                    () -> assertTrue(result.getP99Nanos() <= 2 * result.getMaxNanos())
+            );
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Responses are read one by one from a keep-alive stream")
+    void readResponses() throws Exception {
+        InputStream in = new ByteArrayInputStream((
+                "HTTP/1.1 200 OK\r\nContent-length: 5\r\n\r\nhello"
+                        + "HTTP/1.1 404 Not Found\r\nContent-Length: 2\r\n\r\n{}"
+                        + "HTTP/1.1 200 OK\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        assertAll(
+                () -> assertEquals(200, LoadGenerator.readResponse(in)),
+                () -> assertEquals(404, LoadGenerator.readResponse(in)),
+                () -> assertThrows(IOException.class, () -> LoadGenerator.readResponse(in)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new LoadGenerator("localhost", 80, List.of("A"), 1, 1)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new LoadGenerator("localhost", 80, List.of("A", "B"), 0, 1))
+        );
+    }
+}
@@ -0,0 +1,184 @@
+package com.metro.server;
+
+import com.metro.algorithm.MetroPathFinder;
+import com.metro.registry.NetworkRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MetroHttpServer Tests")
+class MetroHttpServerTest {
+
+    @TempDir
+    Path tempDir;
+    private MetroHttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        File matrix = tempDir.resolve("test_metro.txt").toFile();
+        try (FileWriter writer = new FileWriter(matrix)) {
+            writer.write(",A,B,C,D\n");
+            writer.write("A,0,2,9,9\n");
+            writer.write("B,2,0,3,9\n");
+            writer.write("C,9,3,0,9\n");
+            writer.write("D,9,9,9,0\n");
+        }
+
+        server = new MetroHttpServer(new MetroPathFinder(matrix.getPath()), 0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> get(String pathAndQuery) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + pathAndQuery)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Route endpoint returns path as JSON")
+    void route() throws Exception {
+        HttpResponse<String> response = get("/route?from=A&to=c");
+
+        assertAll(
+                () -> assertEquals(200, response.statusCode()),
+                () -> assertEquals("{\"from\":\"A\",\"to\":\"C\",\"totalTime\":5,"
+                        + "\"stations\":[\"A\",\"B\",\"C\"]}", response.body())
+        );
+    }
+
+    @Test
+    @DisplayName("Route errors are reported with status codes")
+    void routeErrors() throws Exception {
+        assertAll(
+                () -> assertEquals(400, get("/route?from=A").statusCode()),
+                () -> assertEquals(404, get("/route?from=A&to=Nonexistent").statusCode()),
+                () -> assertEquals(404, get("/route?from=A&to=D").statusCode()),
+                () -> assertEquals(400, get("/route?from=A&to=B&profile=night").statusCode()),
+                () -> assertEquals(400, get("/route?from=A&to=C&avoid=Nowhere").statusCode()),
+                () -> assertEquals(404, get("/route?from=A&to=C&avoid=b").statusCode()),
+                () -> assertEquals(200, get("/route?from=A&to=C&avoid=D&profile=default").statusCode())
+        );
+    }
+
+    @Test
+    @DisplayName("Isochrone lists reachable stations ordered by time")
+    void isochrone() throws Exception {
+        HttpResponse<String> response = get("/isochrone?from=A&maxTime=4");
+
+        assertAll(
+                () -> assertEquals(200, response.statusCode()),
+                () -> assertEquals("{\"from\":\"A\",\"maxTime\":4,\"stations\":["
+                        + "{\"name\":\"A\",\"time\":0},{\"name\":\"B\",\"time\":2}]}", response.body())
+        );
+    }
+
+    @Test
+    @DisplayName("Stations endpoint lists all stations or suggestions")
+    void stations() throws Exception {
+        assertEquals("{\"stations\":[\"A\",\"B\",\"C\",\"D\"]}", get("/stations").body());
+        assertEquals("{\"stations\":[\"B\"]}", get("/stations?q=b").body());
+    }
+
+    @Test
+    @DisplayName("Query string decoding")
+    void parseQuery() {
+        Map<String, String> params = MetroHttpServer.parseQuery("from=%D0%90%20B&to=C+D&flag");
+
+        assertAll(
+                () -> assertEquals("А B", params.get("from")),
+                () -> assertEquals("C D", params.get("to")),
+                () -> assertEquals("", params.get("flag"))
+        );
+    }
+
+    @Test
+    @DisplayName("Router is taken from supplier on every request")
+    void swappedRouter() throws Exception {
+        File line = tempDir.resolve("line.txt").toFile();
+        try (FileWriter writer = new FileWriter(line)) {
+            writer.write(",A,C\n");
+            writer.write("A,0,1\n");
+            writer.write("C,1,0\n");
+        }
+        AtomicReference<MetroPathFinder> live = new AtomicReference<>(
+                new MetroPathFinder(tempDir.resolve("test_metro.txt").toString()));
+        MetroHttpServer swapping = new MetroHttpServer(live::get, 0);
+        swapping.start();
+        try {
+            String url = "http://localhost:" + swapping.getPort() + "/route?from=A&to=C";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).build();
+            String before = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+            live.set(new MetroPathFinder(line.getPath()));
+            String after = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+
+            assertAll(
+                    () -> assertTrue(before.contains("\"totalTime\":5")),
+                    () -> assertTrue(after.contains("\"totalTime\":1"))
+            );
+        } finally {
+            swapping.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Network parameter selects network of registry")
+    void registryNetworks() throws Exception {
+        File line = tempDir.resolve("line.txt").toFile();
+        try (FileWriter writer = new FileWriter(line)) {
+            writer.write(",A,C\n");
+            writer.write("A,0,1\n");
+            writer.write("C,1,0\n");
+        }
+        NetworkRegistry registry = new NetworkRegistry();
+        registry.register("first", tempDir.resolve("test_metro.txt").toString(), "stations.txt");
+        registry.register("second", line.getPath(), "stations.txt");
+        registry.register("broken", tempDir.resolve("missing.txt").toString(), "stations.txt");
+
+        MetroHttpServer multi = new MetroHttpServer(registry, "first", 0);
+        multi.start();
+        try {
+            String base = "http://localhost:" + multi.getPort();
+            HttpResponse<String> first = client.send(HttpRequest.newBuilder(
+                    URI.create(base + "/route?from=A&to=C")).build(), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> second = client.send(HttpRequest.newBuilder(
+                    URI.create(base + "/route?from=A&to=C&network=second")).build(), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> unknown = client.send(HttpRequest.newBuilder(
+                    URI.create(base + "/stations?network=third")).build(), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> broken = client.send(HttpRequest.newBuilder(
+                    URI.create(base + "/stations?network=broken")).build(), HttpResponse.BodyHandlers.ofString());
+
+            assertAll(
+                    () -> assertTrue(first.body().contains("\"totalTime\":5")),
+                    () -> assertTrue(second.body().contains("\"totalTime\":1")),
+                    () -> assertEquals(400, unknown.statusCode()),
+                    () -> assertEquals(503, broken.statusCode()),
+                    () -> assertEquals(400, get("/stations?network=first").statusCode()),
+                    () -> assertThrows(IllegalArgumentException.class,
+                            () -> new MetroHttpServer(registry, "third", 0))
+            );
+        } finally {
+            multi.stop();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.metro.spatial;
+
+import com.metro.algorithm.MetroPathFinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.geom.Point2D;
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CoordinateRouter Tests")
+class CoordinateRouterTest {
+
+    @TempDir
+    Path tempDir;
+    private MetroPathFinder pathFinder;
+    private Map<String, Point2D> positions;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Линия S0 - S1 - ... - S9 вдоль оси x, станции через 10 единиц, по 2 мин
+        int size = 10;
+        StringBuilder matrix = new StringBuilder();
+        for (int i = 0; i < size; i++) matrix.append(",S").append(i);
+        matrix.append('\n');
+        for (int i = 0; i < size; i++) {
+            matrix.append('S').append(i);
+            for (int j = 0; j < size; j++) {
+                matrix.append(',').append(i == j ? 0 : Math.abs(i - j) == 1 ? 2 : 9);
+            }
+            matrix.append('\n');
+        }
+        File file = tempDir.resolve("line.txt").toFile();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(matrix.toString());
+        }
+        pathFinder = new MetroPathFinder(file.getPath());
+
+        positions = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            positions.put("S" + i, new Point2D.Double(i * 10, 0));
+        }
+    }
+
+    @Test
+    @DisplayName("Walk to nearest station, ride, walk out")
+    void walkRideWalk() {
+        CoordinateRouter router = new CoordinateRouter(pathFinder, positions, 1);
+
+        CoordinateRouter.Trip trip = router.route(1, 0, 82, 0, 2);
+        CoordinateRouter.Trip walk = router.route(1, 0, 4, 0, 2);
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{3, 4}, router.nearestStations(33, 1, 2)),
+                () -> assertFalse(trip.isWalkOnly()),
+                () -> assertEquals(1, trip.getWalkToStation()),
+                () -> assertEquals(2, trip.getWalkFromStation()),
+                () -> assertEquals(16, trip.getRide().getTotalTime()),
+                () -> assertEquals(19, trip.getTotalTime()),
+                () -> assertEquals("S0", trip.getRide().getPath().get(0)),
+                () -> assertTrue(walk.isWalkOnly()),
+                () -> assertEquals(3, walk.getTotalTime()),
+                () -> assertThrows(IllegalArgumentException.class, () -> router.route(0, 0, 1, 1, 0)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new CoordinateRouter(pathFinder, new HashMap<>(), 1))
+        );
+    }
+
+    @Test
+    @DisplayName("One search matches best of k x k station queries")
+    void matchesPairwiseQueries() {
+        Random random = new Random(6);
+        CoordinateRouter router = new CoordinateRouter(pathFinder, positions, 0.7);
+
+        for (int round = 0; round < 50; round++) {
+            double fromX = random.nextDouble() * 100;
+            double fromY = random.nextDouble() * 20 - 10;
+            double toX = random.nextDouble() * 100;
+            double toY = random.nextDouble() * 20 - 10;
+            int k = 1 + random.nextInt(4);
+
+            int expected = (int) Math.ceil(Math.hypot(toX - fromX, toY - fromY) * 0.7);
+            for (int entry : router.nearestStations(fromX, fromY, k)) {
+                for (int exit : router.nearestStations(toX, toY, k)) {
+                    int ride = pathFinder.findShortestPath("S" + entry, "S" + exit).getTotalTime();
+                    int walkIn = (int) Math.ceil(Math.hypot(entry * 10 - fromX, fromY) * 0.7);
+                    int walkOut = (int) Math.ceil(Math.hypot(exit * 10 - toX, toY) * 0.7);
+                    expected = Math.min(expected, walkIn + ride + walkOut);
+                }
+            }
+
+            CoordinateRouter.Trip trip = router.route(fromX, fromY, toX, toY, k);
+            assertEquals(expected, trip.getTotalTime(), "round " + round);
+            if (!trip.isWalkOnly()) {
+                assertEquals(trip.getTotalTime(), trip.getWalkToStation()
+                        + trip.getRide().getTotalTime() + trip.getWalkFromStation());
+            }
+        }
+    }
+}
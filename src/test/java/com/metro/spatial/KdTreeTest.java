@@ -0,0 +1,57 @@
+package com.metro.spatial;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("KdTree Tests")
+class KdTreeTest {
+
+    @Test
+    @DisplayName("Nearest points ordered by distance")
+    void nearestOrdered() {
+        KdTree tree = new KdTree(new double[]{0, 10, 3, 7}, new double[]{0, 0, 4, 1});
+
+        assertAll(
+                () -> assertArrayEquals(new int[]{1, 3}, tree.nearest(9, 1, 2)),
+                () -> assertArrayEquals(new int[]{0, 2, 3, 1}, tree.nearest(-1, 0, 10)),
+                () -> assertEquals(0, tree.nearest(0, 0, 0).length),
+                () -> assertEquals(0, new KdTree(new double[0], new double[0]).nearest(1, 1, 3).length),
+                () -> assertThrows(IllegalArgumentException.class, () -> new KdTree(new double[1], new double[2]))
+        );
+    }
+
+    @Test
+    @DisplayName("Matches brute force, including duplicate coordinates")
+    void matchesBruteForce() {
+        Random random = new Random(3);
+        int size = 500;
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            // Целочисленная сетка даёт много одинаковых координат
+            xs[i] = random.nextInt(60);
+            ys[i] = random.nextInt(60);
+        }
+        KdTree tree = new KdTree(xs, ys);
+
+        for (int query = 0; query < 200; query++) {
+            double x = random.nextDouble() * 70 - 5;
+            double y = random.nextDouble() * 70 - 5;
+            int k = 1 + random.nextInt(8);
+            Comparator<Integer> byDistance = Comparator.comparingDouble(i -> Math.hypot(xs[i] - x, ys[i] - y));
+            double[] expected = IntStream.range(0, size).boxed().sorted(byDistance).limit(k)
+                    .mapToDouble(i -> Math.hypot(xs[i] - x, ys[i] - y)).toArray();
+            double[] actual = Arrays.stream(tree.nearest(x, y, k))
+                    .mapToDouble(i -> Math.hypot(xs[i] - x, ys[i] - y)).toArray();
+
+            assertArrayEquals(expected, actual, 1e-12);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.metro.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JsonWriter Tests")
+class JsonWriterTest {
+
+    @Test
+    @DisplayName("Nested objects and arrays")
+    void nestedStructure() {
+        StringBuilder out = new StringBuilder();
+        new JsonWriter(out).beginObject()
+                .name("a").value(1)
+                .name("b").beginArray().value("x").value(true).beginObject().endObject().endArray()
+                .name("c").value((String) null)
+                .endObject();
+
+        assertEquals("{\"a\":1,\"b\":[\"x\",true,{}],\"c\":null}", out.toString());
+    }
+
+    @Test
+    @DisplayName("JSON strings are escaped")
+    void escaping() {
+        StringBuilder out = new StringBuilder();
+        new JsonWriter(out).beginObject().name("s").value("a\"b\\c\n\u0001").endObject();
+
+        assertEquals("{\"s\":\"a\\\"b\\\\c\\n\\u0001\"}", out.toString());
+    }
+}